@@ -1,9 +1,9 @@
 package shortly.mandmcorp.dev.shortly.aspect;
 
-/*import org.aspectj.lang.JoinPoint;
+import java.time.Instant;
+
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -13,44 +13,45 @@ import lombok.extern.slf4j.Slf4j;
 import shortly.mandmcorp.dev.shortly.annotation.TrackUserAction;
 import shortly.mandmcorp.dev.shortly.model.User;
 import shortly.mandmcorp.dev.shortly.model.UserAction;
-import shortly.mandmcorp.dev.shortly.repository.UserActionRepository;
 
+/**
+ * Records methods annotated with {@link TrackUserAction} once they return successfully.
+ * The entry is handed to {@link UserActionWriter} and persisted in batches off the request thread.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserActionAspect {
 
-    private final UserActionRepository userActionRepository;
+    private final UserActionWriter userActionWriter;
 
-    @AfterReturning("@annotation(shortly.mandmcorp.dev.shortly.annotation.TrackUserAction)")
-    public void trackUserAction(JoinPoint joinPoint) {
+    @AfterReturning(pointcut = "@annotation(annotation)", argNames = "annotation")
+    public void trackUserAction(TrackUserAction annotation) {
         try {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            TrackUserAction annotation = signature.getMethod().getAnnotation(TrackUserAction.class);
-
-            if (annotation != null) {
-                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                String userId = null;
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String userId = null;
 
-                if (auth != null && auth.getPrincipal() instanceof User) {
-                    User user = (User) auth.getPrincipal();
-                    userId = user.getUserId();
-                }
-
-                UserAction userAction = UserAction.builder()
-                        .userId(userId)
-                        .action(annotation.action())
-                        .description(annotation.description())
-                        .build();
+            if (auth != null && auth.getPrincipal() instanceof User user) {
+                userId = user.getUserId();
+            }
 
-                userActionRepository.save(userAction);
+            UserAction userAction = UserAction.builder()
+                    .userId(userId)
+                    .action(annotation.action())
+                    .description(annotation.description())
+                    .createdAt(Instant.now())
+                    .build();
 
-                log.debug("User action tracked: userId={}, action={}, description={}",
-                         userId, annotation.action(), annotation.description());
+            if (!userActionWriter.append(userAction)) {
+                log.warn("User action buffer full, dropped action={} userId={}", annotation.action(), userId);
             }
         } catch (Exception e) {
             log.error("Error tracking user action", e);
         }
     }
-} */
+}
@@ -0,0 +1,134 @@
+package shortly.mandmcorp.dev.shortly.aspect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.UserActionConfig;
+import shortly.mandmcorp.dev.shortly.model.UserAction;
+
+/**
+ * Bounded in-memory buffer of audit entries drained by a single background writer.
+ * Entries are written to {@code user-actions} with {@code insertAll} once
+ * {@code user-actions.batchSize} entries are waiting or every {@code user-actions.flushIntervalMs}.
+ * Appending never blocks the audited request: when the buffer is full the entry is dropped and counted.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class UserActionWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserActionConfig config;
+    private final BlockingQueue<UserAction> buffer;
+
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public UserActionWriter(MongoTemplate mongoTemplate, UserActionConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.buffer = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.writtenCounter = Counter.builder("user.actions.written").description("Audit entries written to user-actions").register(meterRegistry);
+        this.failedCounter = Counter.builder("user.actions.failed").description("Audit entries lost in failed batch writes").register(meterRegistry);
+        this.droppedCounter = Counter.builder("user.actions.dropped").description("Audit entries dropped because the buffer was full").register(meterRegistry);
+        meterRegistry.gauge("user.actions.buffer.size", buffer, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "user-action-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<UserAction> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} buffered user actions on shutdown", remaining.size());
+            write(remaining);
+        }
+    }
+
+    /**
+     * Appends an entry without blocking.
+     *
+     * @param action the audit entry
+     * @return true if the entry was buffered, false if it was dropped
+     */
+    public boolean append(UserAction action) {
+        if (buffer.offer(action)) {
+            return true;
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<UserAction> batch = new ArrayList<>(config.getBatchSize());
+        while (running) {
+            try {
+                UserAction first = buffer.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+                long remaining;
+                while (batch.size() < config.getBatchSize() && (remaining = deadline - System.nanoTime()) > 0) {
+                    buffer.drainTo(batch, config.getBatchSize() - batch.size());
+                    if (batch.size() >= config.getBatchSize()) {
+                        break;
+                    }
+                    UserAction next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<UserAction> batch) {
+        try {
+            mongoTemplate.insertAll(new ArrayList<>(batch));
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Error writing {} user actions: ", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Token-bucket rate limiting per client address, applied before authentication.
+ * Every request counts against {@code rate-limit.address}, including requests whose token
+ * authentication then rejects, which never reach the per-user {@link RateLimitFilter}. The
+ * limit is set well above the per-user ones because several staff can share one office address.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class AddressRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitConfig config;
+    private final StripedBucketRegistry buckets;
+    private final Counter rejectedCounter;
+
+    public AddressRateLimitFilter(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.buckets = new StripedBucketRegistry(config.getStripes(), config.getMaxEntries(), config.getIdleEvictMs());
+        this.rejectedCounter = Counter.builder("rate.limit.address.rejected").description("Requests rejected by the per address rate limiter").register(meterRegistry);
+        meterRegistry.gauge("rate.limit.address.buckets", buckets, StripedBucketRegistry::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Bucket bucket = buckets.get(RateLimitFilter.clientIp(request), () -> RateLimitFilter.newBucket(config.getAddress()));
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejectedCounter.increment();
+        RateLimitFilter.reject(response, probe);
+    }
+}
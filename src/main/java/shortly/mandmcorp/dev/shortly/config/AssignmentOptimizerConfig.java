@@ -0,0 +1,18 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "assignment-optimizer")
+public class AssignmentOptimizerConfig {
+    /** Fork-join pool size for planning offices in parallel; 0 uses the number of processors. */
+    private int parallelism = 0;
+    private int maxParcelsPerOffice = 5000;
+    private int cancellationWindowDays = 30;
+    /** Capacity is divided by {@code 1 + cancellationWeight * recentCancellations}. */
+    private double cancellationWeight = 0.1;
+}
@@ -0,0 +1,14 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "count-cache")
+public class CountCacheConfig {
+    private long ttlMs = 15000;
+    private int maxEntriesPerOffice = 1000;
+}
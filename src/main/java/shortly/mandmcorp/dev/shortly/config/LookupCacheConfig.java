@@ -0,0 +1,15 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lookup-cache")
+public class LookupCacheConfig {
+    private long officeTreeTtlMs = 300000;
+    private int officeTreeMaxEntries = 256;
+    private long shelfIdleExpiryMs = 1800000;
+}
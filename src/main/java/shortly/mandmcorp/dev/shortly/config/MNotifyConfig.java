@@ -11,5 +11,11 @@ public class MNotifyConfig {
     private String accessKey;
     private String sender;
     private String baseUrl;
+    private long batchWindowMs = 300;
+    private int maxBatchSize = 100;
+    private int queueCapacity = 10000;
+    private long enqueueTimeoutMs = 2000;
+    private int maxInFlight = 16;
+    private long shutdownTimeoutMs = 30000;
 }
  
\ No newline at end of file
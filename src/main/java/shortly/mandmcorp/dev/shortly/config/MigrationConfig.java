@@ -0,0 +1,14 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "migrations")
+public class MigrationConfig {
+    private boolean dbrefOnStartup = true;
+    private boolean reconciliationTotalsOnStartup = true;
+}
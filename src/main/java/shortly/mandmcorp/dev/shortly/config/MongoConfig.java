@@ -0,0 +1,108 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.model.UserAction;
+import shortly.mandmcorp.dev.shortly.model.VerificationToken;
+
+/**
+ * Provisions storage limits at startup so collections stay bounded without sweeper jobs.
+ * {@code user-actions} is created as a time-series collection expiring after
+ * {@code retention.userActionsDays}, and {@code verification_tokens} gets a TTL index on
+ * {@code createdAt}. Both are idempotent and re-applied with {@code collMod} when the
+ * configured retention changes.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@AllArgsConstructor
+@Slf4j
+public class MongoConfig {
+
+    private static final String CREATED_AT = "createdAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final RetentionConfig retentionConfig;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void provisionRetention() {
+        if (!retentionConfig.isProvisionOnStartup()) {
+            return;
+        }
+        try {
+            provisionUserActions();
+            provisionVerificationTokens();
+        } catch (Exception e) {
+            log.error("Error provisioning collection retention: ", e);
+        }
+    }
+
+    private void provisionUserActions() {
+        String collection = mongoTemplate.getCollectionName(UserAction.class);
+        Duration retention = Duration.ofDays(retentionConfig.getUserActionsDays());
+
+        Document info = mongoTemplate.getDb().listCollections().filter(new Document("name", collection)).first();
+        if (info == null) {
+            mongoTemplate.createCollection(UserAction.class, CollectionOptions.timeSeries(CREATED_AT, options -> options
+                .metaField("userId")
+                .granularity(retentionConfig.getUserActionsGranularity())
+                .expireAfter(retention)));
+            log.info("Created time-series collection {} with {} day retention", collection, retentionConfig.getUserActionsDays());
+            return;
+        }
+
+        if ("timeseries".equals(info.getString("type"))) {
+            Document options = info.get("options", Document.class);
+            Number current = options == null ? null : options.get("expireAfterSeconds", Number.class);
+            if (current == null || current.longValue() != retention.toSeconds()) {
+                mongoTemplate.executeCommand(new Document("collMod", collection).append("expireAfterSeconds", retention.toSeconds()));
+                log.info("Updated {} retention to {} days", collection, retentionConfig.getUserActionsDays());
+            }
+            return;
+        }
+
+        // An existing regular collection cannot be converted in place; bound it with a TTL index instead
+        log.warn("{} exists as a regular collection; falling back to a TTL index on {}", collection, CREATED_AT);
+        ensureTtlIndex(collection, retention);
+    }
+
+    private void provisionVerificationTokens() {
+        ensureTtlIndex(mongoTemplate.getCollectionName(VerificationToken.class),
+            Duration.ofMinutes(retentionConfig.getVerificationTokenMinutes()));
+    }
+
+    private void ensureTtlIndex(String collection, Duration expireAfter) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        IndexInfo existing = indexOps.getIndexInfo().stream()
+            .filter(index -> index.isIndexForFields(List.of(CREATED_AT)))
+            .findFirst()
+            .orElse(null);
+
+        if (existing == null) {
+            indexOps.createIndex(new Index().on(CREATED_AT, Sort.Direction.ASC).named(CREATED_AT + "_ttl").expire(expireAfter));
+            log.info("Created TTL index on {}.{} expiring after {}", collection, CREATED_AT, expireAfter);
+            return;
+        }
+        if (!existing.getExpireAfter().map(expireAfter::equals).orElse(false)) {
+            mongoTemplate.executeCommand(new Document("collMod", collection).append("index",
+                new Document("name", existing.getName()).append("expireAfterSeconds", expireAfter.toSeconds())));
+            log.info("Updated TTL on {}.{} to {}", collection, CREATED_AT, expireAfter);
+        }
+    }
+}
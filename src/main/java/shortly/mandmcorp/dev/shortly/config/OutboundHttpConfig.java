@@ -0,0 +1,19 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbound-http")
+public class OutboundHttpConfig {
+    private int maxConnections = 50;
+    private long pendingAcquireTimeoutMs = 5000;
+    private long maxIdleTimeMs = 30000;
+    private int connectTimeoutMs = 3000;
+    private long responseTimeoutMs = 10000;
+    private int maxRetries = 3;
+    private long retryBackoffMs = 200;
+}
@@ -0,0 +1,14 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "principal-cache")
+public class PrincipalCacheConfig {
+    private long ttlMs = 60000;
+    private int maxEntries = 10000;
+}
@@ -0,0 +1,38 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private int stripes = 64;
+    private int maxEntries = 100000;
+    private long idleEvictMs = 600000;
+    private Limit address = new Limit(300, 150);
+    private Limit anonymous = new Limit(10, 5);
+    private Map<UserRole, Limit> roles = new EnumMap<>(Map.of(
+        UserRole.ADMIN, new Limit(100, 50),
+        UserRole.MANAGER, new Limit(60, 30),
+        UserRole.FRONTDESK, new Limit(40, 20),
+        UserRole.RIDER, new Limit(20, 10)
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private long capacity;
+        private long refillPerSecond;
+    }
+}
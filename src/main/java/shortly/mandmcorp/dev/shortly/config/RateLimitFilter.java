@@ -1,26 +1,55 @@
 package shortly.mandmcorp.dev.shortly.config;
-/* 
+
 import java.io.IOException;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import shortly.mandmcorp.dev.shortly.model.User;
 
-@Configuration
+/**
+ * Token-bucket rate limiting per caller.
+ * Authenticated requests are limited per user id with the limit configured for the user's role;
+ * anonymous requests such as {@code /api-user/login} are limited per client IP. Runs after
+ * authentication, so requests rejected there never get here; {@link AddressRateLimitFilter}
+ * limits every request per client address before authentication. Buckets live in a bounded,
+ * lock-striped registry with idle eviction. Rejected requests get {@code 429} with a
+ * {@code Retry-After} header.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Bucket bucket;
+    private final RateLimitConfig config;
+    private final StripedBucketRegistry buckets;
+    private final Counter rejectedCounter;
+
+    public RateLimitFilter(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.buckets = new StripedBucketRegistry(config.getStripes(), config.getMaxEntries(), config.getIdleEvictMs());
+        this.rejectedCounter = Counter.builder("rate.limit.rejected").description("Requests rejected by the rate limiter").register(meterRegistry);
+        meterRegistry.gauge("rate.limit.buckets", buckets, StripedBucketRegistry::size);
+    }
 
-    public RateLimitFilter() {
-        Bandwidth limit = Bandwidth.simple(50, Duration.ofSeconds(1));
-        this.bucket = Bucket.builder().addLimit(limit).build();
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
     }
 
     @Override
@@ -28,13 +57,52 @@ public class RateLimitFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        if (bucket.tryConsume(1)) {
-            filterChain.doFilter(request, response);
+        String key;
+        RateLimitConfig.Limit limit;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user) {
+            key = "user:" + user.getUserId();
+            limit = config.getRoles().getOrDefault(user.getRole(), config.getAnonymous());
         } else {
-            response.setStatus(429);
-            response.getWriter().write("Too Many Requests");
+            key = "ip:" + clientIp(request);
+            limit = config.getAnonymous();
+        }
+
+        Bucket bucket = buckets.get(key, () -> newBucket(limit));
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            filterChain.doFilter(request, response);
+            return;
         }
+
+        rejectedCounter.increment();
+        reject(response, probe);
+    }
+
+    static void reject(HttpServletResponse response, ConsumptionProbe probe) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"Too many requests\",\"data\":null}");
     }
-}
 
-*/
\ No newline at end of file
+    static Bucket newBucket(RateLimitConfig.Limit limit) {
+        return Bucket.builder()
+            .addLimit(Bandwidth.builder()
+                .capacity(limit.getCapacity())
+                .refillGreedy(limit.getRefillPerSecond(), Duration.ofSeconds(1))
+                .build())
+            .build();
+    }
+
+    /**
+     * The client address as resolved by the server. Forwarded headers are applied by Tomcat's
+     * RemoteIpValve ({@code server.forward-headers-strategy}) only when the request comes from a
+     * trusted proxy, so a client cannot pick its own bucket by sending {@code X-Forwarded-For}.
+     */
+    static String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,17 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "reconciliation-jobs")
+public class ReconciliationJobConfig {
+    private int chunkSize = 500;
+    private int maxAssignmentIds = 100000;
+    private long leaseMs = 60000;
+    private long pollIntervalMs = 5000;
+    private int maxAttempts = 3;
+}
@@ -0,0 +1,17 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "retention")
+public class RetentionConfig {
+    private boolean provisionOnStartup = true;
+    private long userActionsDays = 90;
+    private Granularity userActionsGranularity = Granularity.MINUTES;
+    private long verificationTokenMinutes = 15;
+}
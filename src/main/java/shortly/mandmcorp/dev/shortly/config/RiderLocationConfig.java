@@ -0,0 +1,17 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rider-locations")
+public class RiderLocationConfig {
+    private long flushIntervalMs = 5000;
+    private int maxPingsPerRequest = 500;
+    private long staleAfterMs = 300000;
+    private int maxNearestRiders = 50;
+    private double defaultMaxDistanceKm = 20;
+}
@@ -0,0 +1,16 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "route-sequencing")
+public class RouteSequencingConfig {
+    private String geocodeTable = "classpath:geocodes.csv";
+    private int maxPasses = 50;
+    private int incrementalWindow = 8;
+    private long cacheTtlMs = 1800000;
+}
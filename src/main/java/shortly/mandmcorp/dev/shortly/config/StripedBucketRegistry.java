@@ -0,0 +1,99 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import io.github.bucket4j.Bucket;
+
+/**
+ * Bounded map of token buckets split into independently locked stripes so that lookups for
+ * different keys rarely contend. Each stripe keeps its buckets in access order; least recently
+ * used buckets are evicted when the stripe is full and idle buckets are swept on insert.
+ */
+public class StripedBucketRegistry {
+
+    private final Stripe[] stripes;
+    private final int maxEntriesPerStripe;
+    private final long idleEvictMs;
+
+    public StripedBucketRegistry(int stripes, int maxEntries, long idleEvictMs) {
+        int count = Integer.highestOneBit(Math.max(1, stripes));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / count);
+        this.idleEvictMs = idleEvictMs;
+    }
+
+    /**
+     * Returns the bucket for the key, creating it with the factory on first use.
+     */
+    public Bucket get(String key, Supplier<Bucket> factory) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        long now = System.currentTimeMillis();
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) {
+                evictIdle(stripe, now);
+                entry = new Entry(factory.get());
+                stripe.entries.put(key, entry);
+            }
+            entry.lastAccess = now;
+            return entry.bucket;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private void evictIdle(Stripe stripe, long now) {
+        Iterator<Entry> eldestFirst = stripe.entries.values().iterator();
+        while (eldestFirst.hasNext()) {
+            Entry eldest = eldestFirst.next();
+            if (now - eldest.lastAccess < idleEvictMs) {
+                break;
+            }
+            eldestFirst.remove();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntriesPerStripe;
+            }
+        };
+    }
+
+    private static final class Entry {
+        private final Bucket bucket;
+        private long lastAccess;
+
+        private Entry(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
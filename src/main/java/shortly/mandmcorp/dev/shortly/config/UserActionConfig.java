@@ -0,0 +1,15 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user-actions")
+public class UserActionConfig {
+    private int queueCapacity = 10000;
+    private int batchSize = 500;
+    private long flushIntervalMs = 1000;
+}
@@ -0,0 +1,14 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadConfig {
+    private boolean pinningDiagnostics = false;
+    private long pinningThresholdMs = 20;
+}
@@ -0,0 +1,74 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads pinned to their carrier, typically by blocking inside a
+ * {@code synchronized} block or a native frame, using the JFR {@code jdk.VirtualThreadPinned} event.
+ * Enabled with {@code virtual-threads.pinningDiagnostics}; each pin longer than
+ * {@code virtual-threads.pinningThresholdMs} is logged with its top frame and counted in
+ * the {@code virtual.threads.pinned} meter.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final VirtualThreadConfig config;
+    private final Counter pinnedCounter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.pinnedCounter = Counter.builder("virtual.threads.pinned").description("Virtual threads pinned to their carrier beyond the threshold").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isPinningDiagnostics()) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(config.getPinningThresholdMs())).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning diagnostics enabled (threshold {} ms)", config.getPinningThresholdMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        String frame = "unknown";
+        if (event.getStackTrace() != null) {
+            frame = event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(f -> !f.getMethod().getType().getName().startsWith("java."))
+                .findFirst()
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .orElse("unknown");
+        }
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frame);
+    }
+}
@@ -9,14 +9,16 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import shortly.mandmcorp.dev.shortly.security.UserDetailService;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
 
 import java.io.IOException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 
 @Component
@@ -25,7 +27,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private final JWTConfig jwtConfig;
-    private final UserDetailService userDetailService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -43,20 +45,23 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            phoneNumber = jwtConfig.extractPhoneNumber(jwt);
+            // Parsing verifies signature and expiry, so the subject is trusted once this returns
+            Claims claims = jwtConfig.parseAccessToken(jwt);
+            phoneNumber = claims.getSubject();
 
             if (phoneNumber != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailService.loadUserByUsername(phoneNumber);
-
-                if (jwtConfig.validateToken(jwt, phoneNumber)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                UserDetails userDetails = principalCache.get(phoneNumber);
+                if (userDetails == null) {
+                    throw new UsernameNotFoundException("User not found");
                 }
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (ExpiredJwtException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
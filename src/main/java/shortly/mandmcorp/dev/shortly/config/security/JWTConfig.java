@@ -1,105 +1,334 @@
 package shortly.mandmcorp.dev.shortly.config.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Component;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.model.JwtSigningKeys;
 import shortly.mandmcorp.dev.shortly.model.User;
 
+import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies access and refresh tokens.
+ * Signing keys and their parsers are built once and held in an immutable key ring that is
+ * swapped atomically on rotation. After a rotation the previous keys stay valid for
+ * verification until every token they signed has expired, so rotating does not log users out.
+ * Rotations are stored in {@code jwt_signing_keys} so they survive restarts and reach every
+ * instance: the ring is loaded at startup, re-read every {@code jwt.keyRefreshMs}, and re-read
+ * at once (at most once a second) when a token fails signature verification, which is how an
+ * instance first sees a token signed by keys another instance just rotated in.
+ * The stored secrets are encrypted with {@code JWT_KEY_ENCRYPTION_KEY} (see {@link JwtKeyCipher}),
+ * which never leaves the environment; without it rotation is refused and stored keys are ignored.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
 @Component
+@Slf4j
 public class JWTConfig {
 
     @Value("${JWT_ACCESS_KEY}")
     private String accessKey;
-    
+
     @Value("${JWT_REFRESH_KEY}")
     private String refreshKey;
-    
+
     @Value("${JWT_EXPIRATION_TIME}")
     private long expirationTime;
-    
-    private Key getSigningKey(String key) {
-        return Keys.hmacShaKeyFor(key.getBytes());
+
+    @Value("${jwt.keyRefreshMs:30000}")
+    private long keyRefreshMs;
+
+    @Value("${JWT_KEY_ENCRYPTION_KEY:}")
+    private String keyEncryptionKey;
+
+    private static final long MIN_REFRESH_INTERVAL_MS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private JwtKeyCipher keyCipher;
+    private volatile KeyRing keyRing;
+    private volatile long lastRefreshAt;
+    private volatile boolean running;
+    private Thread refresher;
+
+    public JWTConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        keyRing = new KeyRing(accessKey, refreshKey, null, 0, 0);
+        if (keyEncryptionKey == null || keyEncryptionKey.isBlank()) {
+            log.warn("JWT_KEY_ENCRYPTION_KEY is not set; JWT key rotation is disabled and the configured keys are used");
+        } else {
+            keyCipher = new JwtKeyCipher(keyEncryptionKey);
+        }
+        try {
+            refreshKeys();
+        } catch (Exception e) {
+            log.error("Could not load rotated JWT keys, using the configured keys until the next refresh: ", e);
+        }
+        running = true;
+        refresher = new Thread(this::refreshLoop, "jwt-key-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        refresher.interrupt();
+    }
+
+    /**
+     * Replaces the signing keys without a restart, on every instance. New tokens are signed with
+     * the new keys; tokens signed with the previous keys keep verifying until the refresh token
+     * lifetime has passed.
+     *
+     * @param newAccessKey new access token secret (at least 32 bytes)
+     * @param newRefreshKey new refresh token secret (at least 32 bytes)
+     * @throws ActionNotAllowed if another rotation was stored since this instance last loaded the
+     *         keys, or no key encryption key is configured
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public void rotateKeys(String newAccessKey, String newRefreshKey) {
+        if (keyCipher == null) {
+            throw new ActionNotAllowed("JWT key rotation needs JWT_KEY_ENCRYPTION_KEY to be configured");
+        }
+        refreshKeys();
+        KeyRing current = keyRing;
+        long now = System.currentTimeMillis();
+        // fails fast on short secrets before anything is stored
+        KeyRing rotated = new KeyRing(newAccessKey, newRefreshKey, current, now + refreshExpirationTime(), current.version + 1);
+
+        long version = rotated.version;
+        Update update = new Update()
+            .set("version", version)
+            .set("accessKey", keyCipher.encrypt(newAccessKey, "accessKey", version))
+            .set("refreshKey", keyCipher.encrypt(newRefreshKey, "refreshKey", version))
+            .set("previousAccessKey", keyCipher.encrypt(current.accessSecret, "previousAccessKey", version))
+            .set("previousRefreshKey", keyCipher.encrypt(current.refreshSecret, "previousRefreshKey", version))
+            .set("previousRetiresAt", rotated.previousRetiresAt)
+            .set("rotatedAt", now);
+        Query guard = Query.query(Criteria.where("id").is(JwtSigningKeys.CURRENT).and("version").is(current.version));
+        try {
+            // upserts the first rotation; a concurrent rotation makes the guard miss and the insert collide
+            mongoTemplate.findAndModify(guard, update, FindAndModifyOptions.options().upsert(true), JwtSigningKeys.class);
+        } catch (DuplicateKeyException e) {
+            throw new ActionNotAllowed("JWT keys were rotated concurrently, retry the rotation");
+        }
+        keyRing = rotated;
+        log.info("JWT signing keys rotated to version {}", rotated.version);
+    }
+
+    /**
+     * Loads the stored key ring if it is newer than the one in use.
+     */
+    void refreshKeys() {
+        lastRefreshAt = System.currentTimeMillis();
+        if (keyCipher == null) {
+            return;
+        }
+        JwtSigningKeys stored = mongoTemplate.findById(JwtSigningKeys.CURRENT, JwtSigningKeys.class);
+        if (stored == null || stored.getVersion() <= keyRing.version) {
+            return;
+        }
+        long version = stored.getVersion();
+        try {
+            KeyRing previous = stored.getPreviousAccessKey() == null
+                ? null
+                : new KeyRing(keyCipher.decrypt(stored.getPreviousAccessKey(), "previousAccessKey", version),
+                    keyCipher.decrypt(stored.getPreviousRefreshKey(), "previousRefreshKey", version), null, 0, version - 1);
+            keyRing = new KeyRing(keyCipher.decrypt(stored.getAccessKey(), "accessKey", version),
+                keyCipher.decrypt(stored.getRefreshKey(), "refreshKey", version), previous, stored.getPreviousRetiresAt(), version);
+        } catch (GeneralSecurityException e) {
+            log.error("Ignoring stored JWT signing keys version {}: they are not encrypted with JWT_KEY_ENCRYPTION_KEY", version);
+            return;
+        }
+        log.info("Loaded JWT signing keys version {}", version);
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            try {
+                Thread.sleep(keyRefreshMs);
+                refreshKeys();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error refreshing JWT signing keys: ", e);
+            }
+        }
     }
-    
+
     public String generateAccessToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", user.getRole().name());
         claims.put("name", user.getName());
         claims.put("email", user.getEmail());
-        return createToken(claims, user.getPhoneNumber(), accessKey, expirationTime);
+        return createToken(claims, user.getPhoneNumber(), keyRing.accessKey, expirationTime);
     }
-    
+
     public String generateRefreshToken(User user) {
-        return createToken(new HashMap<>(), user.getPhoneNumber(), refreshKey, expirationTime * 7); // 7 days
+        return createToken(new HashMap<>(), user.getPhoneNumber(), keyRing.refreshKey, refreshExpirationTime());
+    }
+
+    private long refreshExpirationTime() {
+        return expirationTime * 7; // 7 days
     }
-    
-    private String createToken(Map<String, Object> claims, String subject, String key, long expiration) {
+
+    private String createToken(Map<String, Object> claims, String subject, Key key, long expiration) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(key), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
-    
+
+    /**
+     * Verifies an access token and returns its claims in a single parse.
+     * Signature and expiry are checked by the parser; an expired token raises
+     * {@link io.jsonwebtoken.ExpiredJwtException}.
+     */
+    public Claims parseAccessToken(String token) {
+        return parse(token, true);
+    }
+
     public String extractPhoneNumber(String token) {
-        return extractClaim(token, Claims::getSubject, accessKey);
+        return extractClaim(token, Claims::getSubject);
     }
-    
+
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class), accessKey);
+        return extractClaim(token, claims -> claims.get("role", String.class));
     }
-    
+
     public String extractName(String token) {
-        return extractClaim(token, claims -> claims.get("name", String.class), accessKey);
+        return extractClaim(token, claims -> claims.get("name", String.class));
     }
-    
+
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class), accessKey);
+        return extractClaim(token, claims -> claims.get("email", String.class));
     }
-    
+
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration, accessKey);
-    }
-    
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver, String key) {
-        final Claims claims = extractAllClaims(token, key);
-        return claimsResolver.apply(claims);
-    }
-    
-    private Claims extractAllClaims(String token, String key) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey(key))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
+        return extractClaim(token, Claims::getExpiration);
+    }
+
+    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(parseAccessToken(token));
+    }
+
+    private Claims parse(String token, boolean access) {
+        try {
+            return parse(keyRing, token, access);
+        } catch (SignatureException e) {
+            // the token may be signed by keys another instance rotated in since the last refresh
+            KeyRing before = keyRing;
+            if (System.currentTimeMillis() - lastRefreshAt < MIN_REFRESH_INTERVAL_MS) {
+                throw e;
+            }
+            refreshKeys();
+            if (keyRing == before) {
+                throw e;
+            }
+            return parse(keyRing, token, access);
+        }
+    }
+
+    private static Claims parse(KeyRing ring, String token, boolean access) {
+        try {
+            return (access ? ring.accessParser : ring.refreshParser).parseClaimsJws(token).getBody();
+        } catch (SignatureException e) {
+            KeyRing previous = ring.previous;
+            if (previous == null || ring.previousRetiresAt < System.currentTimeMillis()) {
+                throw e;
+            }
+            return (access ? previous.accessParser : previous.refreshParser).parseClaimsJws(token).getBody();
+        }
+    }
+
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
-    
+
     public boolean validateToken(String token, String phoneNumber) {
-        final String extractedPhoneNumber = extractPhoneNumber(token);
-        return (extractedPhoneNumber.equals(phoneNumber) && !isTokenExpired(token));
+        final Claims claims = parseAccessToken(token);
+        return claims.getSubject().equals(phoneNumber) && !claims.getExpiration().before(new Date());
     }
-    
+
     public boolean validateRefreshToken(String token, String phoneNumber) {
         try {
-            final Claims claims = extractAllClaims(token, refreshKey);
+            final Claims claims = parse(token, false);
             return claims.getSubject().equals(phoneNumber) && !claims.getExpiration().before(new Date());
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Immutable set of signing keys with their thread-safe parsers. Only the directly previous
+     * ring is kept, so a second rotation retires the keys from two rotations back.
+     */
+    private static final class KeyRing {
+        private final long version;
+        private final String accessSecret;
+        private final String refreshSecret;
+        private final Key accessKey;
+        private final Key refreshKey;
+        private final JwtParser accessParser;
+        private final JwtParser refreshParser;
+        private final KeyRing previous;
+        private final long previousRetiresAt;
+
+        private KeyRing(String accessSecret, String refreshSecret, KeyRing previous, long previousRetiresAt, long version) {
+            this.version = version;
+            this.accessSecret = accessSecret;
+            this.refreshSecret = refreshSecret;
+            this.accessKey = Keys.hmacShaKeyFor(accessSecret.getBytes());
+            this.refreshKey = Keys.hmacShaKeyFor(refreshSecret.getBytes());
+            this.accessParser = Jwts.parserBuilder().setSigningKey(accessKey).build();
+            this.refreshParser = Jwts.parserBuilder().setSigningKey(refreshKey).build();
+            this.previous = previous == null ? null : new KeyRing(previous);
+            this.previousRetiresAt = previousRetiresAt;
+        }
+
+        private KeyRing(KeyRing source) {
+            this.version = source.version;
+            this.accessSecret = source.accessSecret;
+            this.refreshSecret = source.refreshSecret;
+            this.accessKey = source.accessKey;
+            this.refreshKey = source.refreshKey;
+            this.accessParser = source.accessParser;
+            this.refreshParser = source.refreshParser;
+            this.previous = null;
+            this.previousRetiresAt = 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package shortly.mandmcorp.dev.shortly.config.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts rotated JWT secrets before they are written to {@code jwt_signing_keys}.
+ * AES-256-GCM with a key derived from {@code JWT_KEY_ENCRYPTION_KEY}, which only lives in the
+ * environment, so a copy of the collection alone cannot be used to sign tokens. Each value is
+ * bound to its field and key version as associated data, so stored values cannot be swapped
+ * between fields or replayed under another version, and anything not encrypted with this key
+ * (including plain text) is rejected.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+final class JwtKeyCipher {
+
+    static final int MIN_KEY_LENGTH = 32;
+
+    private static final String PREFIX = "v1:";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    JwtKeyCipher(String encryptionKey) {
+        if (encryptionKey == null || encryptionKey.length() < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException("JWT key encryption key must be at least " + MIN_KEY_LENGTH + " characters");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(encryptionKey.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    String encrypt(String secret, String field, long version) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(associatedData(field, version));
+            byte[] encrypted = cipher.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                .put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt JWT signing key", e);
+        }
+    }
+
+    /**
+     * @throws GeneralSecurityException if the value is not one this cipher encrypted for the
+     *         given field and version
+     */
+    String decrypt(String stored, String field, long version) throws GeneralSecurityException {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            throw new GeneralSecurityException("JWT signing key is not encrypted");
+        }
+        byte[] payload;
+        try {
+            payload = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("JWT signing key is not valid base64", e);
+        }
+        if (payload.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("JWT signing key is truncated");
+        }
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, payload, 0, IV_LENGTH));
+        cipher.updateAAD(associatedData(field, version));
+        return new String(cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] associatedData(String field, long version) {
+        return (field + ":" + version).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -17,7 +17,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
+import shortly.mandmcorp.dev.shortly.config.AddressRateLimitFilter;
+import shortly.mandmcorp.dev.shortly.config.RateLimitFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -25,6 +28,8 @@ import lombok.AllArgsConstructor;
 public class SecurityConfig {
 
     private final JWTAuthenticationFilter jwtAuthenticationFilter;
+    private final AddressRateLimitFilter addressRateLimitFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception   {
@@ -32,12 +37,17 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(
-                request -> request.requestMatchers("/api-user/**").permitAll()
+                // async dispatches only complete requests already authorized on the initial dispatch (streamed exports)
+                request -> request.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api-user/**").permitAll()
                 .requestMatchers("/health/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // per address before the token is checked, so invalid tokens are limited too; per user after
+            .addFilterBefore(addressRateLimitFilter, JWTAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JWTAuthenticationFilter.class);
         return http.build();
     }
 
@@ -1,5 +1,7 @@
 package shortly.mandmcorp.dev.shortly.controller;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,29 +13,43 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import shortly.mandmcorp.dev.shortly.config.security.JWTConfig;
+import shortly.mandmcorp.dev.shortly.dto.request.JwtKeyRotationRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.LocationRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.LocationUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.OfficeRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.OfficeUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ShelfRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.UserRegistrationRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.AssignmentProposalResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
 import shortly.mandmcorp.dev.shortly.dto.response.LocationResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.OfficeResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserRegistrationResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.model.Parcel;
 import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.service.assignment.AssignmentOptimizerServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.migration.DbRefMigrationServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.office.OfficeServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.reconciliation.ReconciliationTotalsServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.routing.RouteSequencingServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.user.impl.UserService;
+import shortly.mandmcorp.dev.shortly.utils.ExportWriter;
 import shortly.mandmcorp.dev.shortly.annotation.TrackUserAction;
 
 @RestController
@@ -44,6 +60,12 @@ public class AdminController {
     private final UserService userService;
     private final OfficeServiceInterface officeService;
     private final ParcelServiceInterface parcelService;
+    private final ReconciliationTotalsServiceInterface reconciliationTotalsService;
+    private final JWTConfig jwtConfig;
+    private final DbRefMigrationServiceInterface dbRefMigrationService;
+    private final RiderServiceInterface riderService;
+    private final AssignmentOptimizerServiceInterface assignmentOptimizerService;
+    private final RouteSequencingServiceInterface routeSequencingService;
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Admin endpoint to register a new user")
@@ -166,4 +188,144 @@ public class AdminController {
             Pageable pageable) {
         return parcelService.searchParcels(isPOD, isDelivered, isParcelAssigned, officeId, driverId, hasCalled, pageable, false);
     }
+
+    @GetMapping("/parcels/cursor")
+    @Operation(summary = "Search parcels by cursor", description = "Search parcels with keyset pagination; pass nextCursor from the previous page to continue")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Parcels retrieved successfully")
+    })
+    public CursorPage<Parcel> searchParcelsByCursor(
+            @RequestParam(required = false) Boolean isPOD,
+            @RequestParam(required = false) Boolean isDelivered,
+            @RequestParam(required = false) Boolean isParcelAssigned,
+            @RequestParam(required = false) String officeId,
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) Boolean hasCalled,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return parcelService.searchParcels(isPOD, isDelivered, isParcelAssigned, officeId, driverId, hasCalled, cursor, size, withTotal, false);
+    }
+
+    @PostMapping("/reconciliation/totals/rebuild")
+    @Operation(summary = "Rebuild reconciliation totals", description = "Admin endpoint to recompute the daily reconciliation rollup from raw reconciliations")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rollup rebuilt successfully")
+    })
+    @TrackUserAction(action = "REBUILD_RECONCILIATION_TOTALS", description = "Admin rebuilt reconciliation daily totals")
+    public UserResponse rebuildReconciliationTotals() {
+        int rows = reconciliationTotalsService.rebuild();
+        return new UserResponse("Reconciliation totals rebuilt: " + rows + " rows", null);
+    }
+
+    @PostMapping("/geocodes/reload")
+    @Operation(summary = "Reload geocode table", description = "Admin endpoint to re-read the address geocode table used for rider route ordering. Cached routes are recomputed on next request")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Geocode table reloaded")
+    })
+    @TrackUserAction(action = "RELOAD_GEOCODES", description = "Admin reloaded the geocode table")
+    public UserResponse reloadGeocodes() {
+        return new UserResponse("Geocode table reloaded: " + routeSequencingService.reloadGeocodes() + " places", null);
+    }
+
+    @PostMapping("/migrations/dbref")
+    @Operation(summary = "Migrate DBRef relations", description = "Admin endpoint to rewrite offices, shelves, rider status and verification tokens from DBRef relations to id fields. Safe to re-run")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Migration completed")
+    })
+    @TrackUserAction(action = "MIGRATE_DBREFS", description = "Admin migrated DBRef relations to ids")
+    public UserResponse migrateDbRefs() {
+        return new UserResponse("DBRef migration completed: " + dbRefMigrationService.migrate(), null);
+    }
+
+    @PostMapping("/jwt/rotate")
+    @Operation(summary = "Rotate JWT signing keys", description = "Admin endpoint to replace the access and refresh signing keys without a restart. The keys are stored in Mongo, encrypted with JWT_KEY_ENCRYPTION_KEY, and picked up by every instance and after restarts. Tokens signed with the previous keys stay valid until they expire")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Keys rotated successfully"),
+        @ApiResponse(responseCode = "400", description = "Keys missing or too short"),
+        @ApiResponse(responseCode = "409", description = "Another rotation happened concurrently, or JWT_KEY_ENCRYPTION_KEY is not configured")
+    })
+    @TrackUserAction(action = "ROTATE_JWT_KEYS", description = "Admin rotated JWT signing keys")
+    public UserResponse rotateJwtKeys(@RequestBody @Valid JwtKeyRotationRequest rotationRequest) {
+        jwtConfig.rotateKeys(rotationRequest.getAccessKey(), rotationRequest.getRefreshKey());
+        return new UserResponse("JWT signing keys rotated", null);
+    }
+
+    @GetMapping("/export/parcels")
+    @Operation(summary = "Export parcels", description = "Stream every parcel in any office matching the search filters as NDJSON or CSV")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Parcels streamed successfully"),
+        @ApiResponse(responseCode = "403", description = "Only admins can export across offices")
+    })
+    @TrackUserAction(action = "EXPORT_PARCELS", description = "Admin exported parcels")
+    public StreamingResponseBody exportParcels(
+            @RequestParam(required = false) Boolean isPOD,
+            @RequestParam(required = false) Boolean isDelivered,
+            @RequestParam(required = false) Boolean isParcelAssigned,
+            @RequestParam(required = false) String officeId,
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) Boolean hasCalled,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = parcelService.exportParcels(isPOD, isDelivered, isParcelAssigned, officeId, driverId, hasCalled, false, format);
+        ExportWriter.prepareResponse(response, "parcels", format);
+        return body;
+    }
+
+    @GetMapping("/export/assignments")
+    @Operation(summary = "Export delivery assignments", description = "Stream delivery assignments in any office as NDJSON or CSV, optionally filtered by status, payment and assignedAt range (epoch millis)")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignments streamed successfully"),
+        @ApiResponse(responseCode = "403", description = "Only admins can export across offices")
+    })
+    @TrackUserAction(action = "EXPORT_ASSIGNMENTS", description = "Admin exported delivery assignments")
+    public StreamingResponseBody exportAssignments(
+            @RequestParam(required = false) DeliveryStatus status,
+            @RequestParam(required = false) Boolean payed,
+            @RequestParam(required = false) String officeId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = riderService.exportAssignments(status, payed, officeId, from, to, false, format);
+        ExportWriter.prepareResponse(response, "assignments", format);
+        return body;
+    }
+
+    @GetMapping("/export/reconciliations")
+    @Operation(summary = "Export reconciliations", description = "Stream reconciliations in any office as NDJSON or CSV, optionally filtered by completion and createdAt range (epoch millis)")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reconciliations streamed successfully"),
+        @ApiResponse(responseCode = "403", description = "Only admins can export across offices")
+    })
+    @TrackUserAction(action = "EXPORT_RECONCILIATIONS", description = "Admin exported reconciliations")
+    public StreamingResponseBody exportReconciliations(
+            @RequestParam(required = false) Boolean isCompleted,
+            @RequestParam(required = false) String officeId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = riderService.exportReconciliations(isCompleted, officeId, from, to, false, format);
+        ExportWriter.prepareResponse(response, "reconciliations", format);
+        return body;
+    }
+
+    @GetMapping("/assignment-proposals")
+    @Operation(summary = "Propose rider batches across offices", description = "Plan balanced rider batches for pending home delivery parcels in the given offices (all offices if none), in parallel")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Proposals generated successfully")
+    })
+    public List<AssignmentProposalResponse> getAssignmentProposals(@RequestParam(required = false) List<String> officeIds) {
+        return assignmentOptimizerService.propose(officeIds);
+    }
 }
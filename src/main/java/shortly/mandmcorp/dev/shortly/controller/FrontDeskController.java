@@ -1,23 +1,30 @@
 package shortly.mandmcorp.dev.shortly.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import shortly.mandmcorp.dev.shortly.annotation.TrackUserAction;
@@ -26,16 +33,28 @@ import shortly.mandmcorp.dev.shortly.dto.request.DeliveryAssignmentRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ReconcilationRiderRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.AssignmentProposalResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
+import shortly.mandmcorp.dev.shortly.dto.response.NearestRiderResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ParcelAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationJobResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
 import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.model.CancelationReason;
 import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
 import shortly.mandmcorp.dev.shortly.model.Parcel;
 import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.service.assignment.AssignmentOptimizerServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.reconciliation.ReconciliationJobServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.tracking.RiderTrackingServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.user.UserServiceInterface;
+import shortly.mandmcorp.dev.shortly.utils.ExportWriter;
 
 
 
@@ -49,6 +68,9 @@ public class FrontDeskController {
     private final ParcelServiceInterface parcelService;
     private final RiderServiceInterface riderService;
     private final UserServiceInterface userService;
+    private final ReconciliationJobServiceInterface reconciliationJobService;
+    private final RiderTrackingServiceInterface riderTrackingService;
+    private final AssignmentOptimizerServiceInterface assignmentOptimizerService;
 
     @PostMapping("/parcel")
     @Operation(summary = "Add a new parcel", description = "Create a new parcel entry in the system")
@@ -61,6 +83,19 @@ public class FrontDeskController {
         return parcelService.addParcel(parcelRequest);
     }
 
+    @PostMapping(value = "/parcels/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Bulk add parcels", description = "Stream parcels as NDJSON (one ParcelRequest per line) or CSV with a header row of ParcelRequest field names. Returns a per-row report. Send an Idempotency-Key to make a resent upload skip the rows already stored")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload processed; see the per-row report for failures")
+    })
+    @TrackUserAction(action = "BULK_ADD_PARCELS", description = "Front desk bulk added parcels")
+    public BulkIntakeResponse bulkAddParcels(HttpServletRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws IOException {
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        return parcelService.bulkAddParcels(request.getInputStream(), csv, idempotencyKey);
+    }
+
     @PutMapping("/parcel/{id}")
     @Operation(summary = "Update a parcel", description = "Update parcel details by ID")
     @ApiResponses(value = {
@@ -88,6 +123,24 @@ public class FrontDeskController {
         return parcelService.searchParcels(isPOD, isDelivered, isParcelAssigned, null, driverId, hasCalled, pageable, true);
     }
 
+    @GetMapping("/parcels/cursor")
+    @Operation(summary = "Search parcels by cursor", description = "Search parcels with keyset pagination; pass nextCursor from the previous page to continue")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Parcels retrieved successfully")
+    })
+    public CursorPage<Parcel> searchParcelsByCursor(
+            @RequestParam(required = false) Boolean isPOD,
+            @RequestParam(required = false) Boolean isDelivered,
+            @RequestParam(required = false) Boolean isParcelAssigned,
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) Boolean hasCalled,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return parcelService.searchParcels(isPOD, isDelivered, isParcelAssigned, null, driverId, hasCalled, cursor, size, withTotal, true);
+    }
+
 
     @GetMapping("/parcel-assignment")
     @Operation(summary = "return rider assignment", description = "Get delivery assignments by status with pagination")
@@ -101,6 +154,20 @@ public class FrontDeskController {
         return riderService.getOrderAssignmentByStatus(status, pageable);
     }
 
+    @GetMapping("/parcel-assignment/cursor")
+    @Operation(summary = "return rider assignment by cursor", description = "Get delivery assignments by status with keyset pagination")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully")
+    })
+    public CursorPage<DeliveryAssignments> orderAssignemntsByCursor(
+        @RequestParam(defaultValue = "DELIVERED") DeliveryStatus status,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = "false") boolean withTotal) {
+        return riderService.getOrderAssignmentByStatus(status, cursor, size, withTotal);
+    }
+
     @GetMapping("/parcels/home-delivery")
     @Operation(summary = "Get office pickup parcels", description = "Get parcels available for pickup at the user's office (not home delivery, not delivered)")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -125,28 +192,77 @@ public class FrontDeskController {
         return parcelService.getUncalledParcels(pageable);
     }
 
+    @GetMapping("/parcels-uncalled/cursor")
+    @Operation(summary = "Get uncalled parcels by cursor", description = "Get parcels that have not been called in the user's office with keyset pagination")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Uncalled parcels retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public CursorPage<Parcel> getUncalledParcelsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return parcelService.getUncalledParcels(cursor, size, withTotal);
+    }
+
+    @GetMapping("/assignment-proposals")
+    @Operation(summary = "Propose rider batches", description = "Propose balanced rider batches for the office's pending home delivery parcels by open load, receiver area and cancellation history. Nothing is assigned; apply a batch with /assign-parcels")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Proposal generated successfully")
+    })
+    public AssignmentProposalResponse getAssignmentProposal() {
+        return assignmentOptimizerService.proposeForCurrentOffice();
+    }
+
     @PostMapping("/assign-parcels")
     @Operation(summary = "Assign parcels to rider", description = "Assign multiple parcels to a specific rider")
     @SecurityRequirement(name = "Bearer Authentication")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Parcels assigned successfully"),
-        @ApiResponse(responseCode = "404", description = "Rider or parcel not found")
+        @ApiResponse(responseCode = "404", description = "Rider not found")
     })
-    public UserResponse assignParcelsToRider(@RequestBody @Valid DeliveryAssignmentRequest assignmentRequest) {
+    public ParcelAssignmentResponse assignParcelsToRider(@RequestBody @Valid DeliveryAssignmentRequest assignmentRequest) {
         return riderService.assignParcelsToRider(assignmentRequest);
     }
 
     @PostMapping("/reconcilation-parcels")
-    @Operation(summary = "Reconcile rider payments", description = "Mark multiple delivery assignments as paid for reconciliation")
+    @Operation(summary = "Reconcile rider payments", description = "Mark multiple delivery assignments as paid for reconciliation. Returns the reconciled, missing and not yet delivered (not eligible) assignment IDs")
     @SecurityRequirement(name = "Bearer Authentication")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Reconciliation completed successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid reconciliation data")
     })
-    public UserResponse reconcilationRider(@RequestBody @Valid ReconcilationRiderRequest reconcilationRequest) {
+    public ReconciliationResponse reconcilationRider(@RequestBody @Valid ReconcilationRiderRequest reconcilationRequest) {
         return riderService.reconcilation(reconcilationRequest);
     }
 
+    @PostMapping("/reconcilation-jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Submit a reconciliation job", description = "Reconcile a large list of assignments in the background. Resubmitting with the same Idempotency-Key returns the existing job; poll GET /reconcilation-jobs/{jobId} for progress")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job accepted"),
+        @ApiResponse(responseCode = "409", description = "Idempotency key already used for a different request, or invalid request")
+    })
+    @TrackUserAction(action = "SUBMIT_RECONCILIATION_JOB", description = "Front desk submitted a reconciliation job")
+    public ReconciliationJobResponse submitReconciliationJob(@RequestHeader("Idempotency-Key") String idempotencyKey,
+            @RequestBody @Valid ReconcilationRiderRequest reconcilationRequest) {
+        return reconciliationJobService.submit(reconcilationRequest, idempotencyKey);
+    }
+
+    @GetMapping("/reconcilation-jobs/{jobId}")
+    @Operation(summary = "Get reconciliation job progress", description = "Get the status, checkpoint and result of a reconciliation job")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job retrieved successfully"),
+        @ApiResponse(responseCode = "409", description = "Job not found")
+    })
+    public ReconciliationJobResponse getReconciliationJob(@PathVariable String jobId) {
+        return reconciliationJobService.getJob(jobId);
+    }
+
     @GetMapping("/rider/{riderId}/assignments")
     @Operation(summary = "Get rider assignments", description = "Get all delivery assignments for a specific rider with payment filter")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -185,6 +301,21 @@ public class FrontDeskController {
     }
 
 
+    @GetMapping("/riders/nearest")
+    @Operation(summary = "Nearest available riders", description = "Available riders in the office ordered by distance from a point (defaults to the office coordinates). Riders without a recent position are left out")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Riders retrieved successfully"),
+        @ApiResponse(responseCode = "409", description = "No origin given and the office has no coordinates")
+    })
+    public List<NearestRiderResponse> getNearestRiders(
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Double maxDistanceKm) {
+        return riderTrackingService.nearestRiders(latitude, longitude, limit, maxDistanceKm);
+    }
+
     @GetMapping("/cancellation-reasons")
     @Operation(summary = "get a list of cancelation reason ", description = "An endpoint to get cancelation reasons")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -218,6 +349,20 @@ public class FrontDeskController {
         return riderService.getAcitveAssignments(pageable, payed);
     }
 
+    @GetMapping("/riders/assignments/cursor")
+    @Operation(summary = "Get office rider assignments by cursor", description = "Get delivery assignments in an office with keyset pagination")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+    })
+    public CursorPage<DeliveryAssignments> getAssignmentsByCursor(
+            @RequestParam(defaultValue = "false") boolean payed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return riderService.getAcitveAssignments(payed, cursor, size, withTotal);
+    }
+
     @GetMapping("/riders/assignments/cancelled")
     @Operation(summary = "Get cancelled delivery assignments", description = "Get all cancelled delivery assignments in the user's office sorted by assignedAt descending")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -230,6 +375,20 @@ public class FrontDeskController {
         return riderService.getCancelledDeliveryAssignments(pageable);
     }
 
+    @GetMapping("/riders/assignments/cancelled/cursor")
+    @Operation(summary = "Get cancelled delivery assignments by cursor", description = "Get cancelled delivery assignments in the user's office with keyset pagination")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cancelled assignments retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public CursorPage<DeliveryAssignments> getCancelledAssignmentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return riderService.getCancelledDeliveryAssignments(cursor, size, withTotal);
+    }
+
     @GetMapping("/reconciliation/stats")
     @Operation(summary = "Get reconciliation statistics", description = "Get reconciliation statistics for the user's office by time period (day, week, month, year, all)")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -242,4 +401,61 @@ public class FrontDeskController {
             @RequestParam(defaultValue = "day") String period) {
         return riderService.getReconciliationStats(period);
     }
+
+    @GetMapping("/export/parcels")
+    @Operation(summary = "Export parcels", description = "Stream every parcel in the caller's office matching the search filters as NDJSON or CSV")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Parcels streamed successfully")
+    })
+    @TrackUserAction(action = "EXPORT_PARCELS", description = "Front desk exported parcels")
+    public StreamingResponseBody exportParcels(
+            @RequestParam(required = false) Boolean isPOD,
+            @RequestParam(required = false) Boolean isDelivered,
+            @RequestParam(required = false) Boolean isParcelAssigned,
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) Boolean hasCalled,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = parcelService.exportParcels(isPOD, isDelivered, isParcelAssigned, null, driverId, hasCalled, true, format);
+        ExportWriter.prepareResponse(response, "parcels", format);
+        return body;
+    }
+
+    @GetMapping("/export/assignments")
+    @Operation(summary = "Export delivery assignments", description = "Stream delivery assignments in the caller's office as NDJSON or CSV, optionally filtered by status, payment and assignedAt range (epoch millis)")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignments streamed successfully")
+    })
+    @TrackUserAction(action = "EXPORT_ASSIGNMENTS", description = "Front desk exported delivery assignments")
+    public StreamingResponseBody exportAssignments(
+            @RequestParam(required = false) DeliveryStatus status,
+            @RequestParam(required = false) Boolean payed,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = riderService.exportAssignments(status, payed, null, from, to, true, format);
+        ExportWriter.prepareResponse(response, "assignments", format);
+        return body;
+    }
+
+    @GetMapping("/export/reconciliations")
+    @Operation(summary = "Export reconciliations", description = "Stream reconciliations in the caller's office as NDJSON or CSV, optionally filtered by completion and createdAt range (epoch millis)")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reconciliations streamed successfully")
+    })
+    @TrackUserAction(action = "EXPORT_RECONCILIATIONS", description = "Front desk exported reconciliations")
+    public StreamingResponseBody exportReconciliations(
+            @RequestParam(required = false) Boolean isCompleted,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = riderService.exportReconciliations(isCompleted, null, from, to, true, format);
+        ExportWriter.prepareResponse(response, "reconciliations", format);
+        return body;
+    }
 }
@@ -2,8 +2,11 @@ package shortly.mandmcorp.dev.shortly.controller;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,14 +21,18 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import shortly.mandmcorp.dev.shortly.annotation.TrackUserAction;
 import shortly.mandmcorp.dev.shortly.dto.request.DeliveryStatusUpdateRequest;
+import shortly.mandmcorp.dev.shortly.dto.request.LocationPingRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.RiderStatusUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.response.DeliveryAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.RouteResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
 import shortly.mandmcorp.dev.shortly.model.CancelationReason;
 import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
 import shortly.mandmcorp.dev.shortly.model.Reconcilations;
 import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.routing.RouteSequencingServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.tracking.RiderTrackingServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.user.UserServiceInterface;
 
 @AllArgsConstructor
@@ -35,6 +42,8 @@ public class RiderController {
     private final UserServiceInterface userService;
     private final RiderServiceInterface riderService;
     private final ParcelServiceInterface parcelService;
+    private final RiderTrackingServiceInterface riderTrackingService;
+    private final RouteSequencingServiceInterface routeSequencingService;
 
     @PutMapping("/rider-status")
     @Operation(summary = "Update rider status", description = "Update authenticated rider's status (BUSY, OFFLINE, READY, ON_TRIP)")
@@ -50,6 +59,17 @@ public class RiderController {
 
     
 
+    @PostMapping("/locations")
+    @Operation(summary = "Upload location pings", description = "Upload a batch of GPS pings from the rider's device. Only the latest ping is stored; positions are written at most once per flush interval")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pings accepted"),
+        @ApiResponse(responseCode = "400", description = "Invalid ping data")
+    })
+    public UserResponse uploadLocations(@RequestBody @Valid LocationPingRequest pingRequest) {
+        return riderTrackingService.recordLocations(pingRequest);
+    }
+
     @GetMapping("/assignments")
     @Operation(summary = "Get rider assignments", description = "Get all assignments for authenticated rider")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -61,6 +81,27 @@ public class RiderController {
         return riderService.getRiderAssignments(onlyUndelivered);
     }
 
+    @GetMapping("/assignments/route")
+    @Operation(summary = "Get delivery route", description = "Get the rider's open assignments in visiting order, starting from the last reported position or the office. Stops whose address is not in the geocode table are listed separately")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Route retrieved successfully")
+    })
+    public RouteResponse getRiderRoute(@RequestParam(defaultValue = "false") boolean refresh) {
+        return routeSequencingService.getMyRoute(refresh);
+    }
+
+    @GetMapping("/assignments/paged")
+    @Operation(summary = "Get rider assignments page", description = "Get a page of assignments for authenticated rider, newest first")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully")
+    })
+    public Page<DeliveryAssignmentResponse> getRiderAssignmentsPage(
+            @RequestParam(defaultValue = "false") boolean onlyUndelivered, Pageable pageable) {
+        return riderService.getRiderAssignments(onlyUndelivered, pageable);
+    }
+
     @PutMapping("/assignments/{assignmentId}/status")
     @Operation(summary = "Update delivery status", description = "Update delivery assignment status")
     @SecurityRequirement(name = "Bearer Authentication")
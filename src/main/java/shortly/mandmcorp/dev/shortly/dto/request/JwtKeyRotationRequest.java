@@ -0,0 +1,17 @@
+package shortly.mandmcorp.dev.shortly.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class JwtKeyRotationRequest {
+
+    @NotBlank
+    @Size(min = 32, message = "Signing keys must be at least 32 characters")
+    private String accessKey;
+
+    @NotBlank
+    @Size(min = 32, message = "Signing keys must be at least 32 characters")
+    private String refreshKey;
+}
@@ -0,0 +1,13 @@
+package shortly.mandmcorp.dev.shortly.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class LocationPingRequest {
+    @NotEmpty(message = "At least one ping is required")
+    private List<@Valid GpsPing> pings;
+}
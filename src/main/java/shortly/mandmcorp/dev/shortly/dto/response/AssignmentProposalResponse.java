@@ -0,0 +1,22 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentProposalResponse {
+    private String officeId;
+    private int parcelCount;
+    private int riderCount;
+    private List<RiderBatchProposal> batches;
+    /** Parcels left out because the office has no available riders. */
+    private List<String> unassigned;
+    private long elapsedMs;
+}
@@ -0,0 +1,22 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIntakeResponse {
+    private int total;
+    private int inserted;
+    private int alreadyInserted;
+    private int failed;
+    /** False if reading the upload failed part way; rows after the last stored chunk were not stored. */
+    private boolean complete;
+    private List<BulkIntakeRowResult> rows;
+}
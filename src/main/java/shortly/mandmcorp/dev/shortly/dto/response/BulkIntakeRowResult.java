@@ -0,0 +1,19 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIntakeRowResult {
+    private int row;
+    private boolean inserted;
+    /** Stored by an earlier upload with the same idempotency key. */
+    private boolean alreadyInserted;
+    private String parcelId;
+    private String error;
+}
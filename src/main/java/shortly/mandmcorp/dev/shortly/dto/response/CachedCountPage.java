@@ -0,0 +1,23 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page whose total may come from the short-lived count cache rather than a fresh count.
+ */
+public class CachedCountPage<T> extends PageImpl<T> {
+
+    private final boolean totalCached;
+
+    public CachedCountPage(List<T> content, Pageable pageable, long total, boolean totalCached) {
+        super(content, pageable, total);
+        this.totalCached = totalCached;
+    }
+
+    public boolean isTotalCached() {
+        return totalCached;
+    }
+}
@@ -0,0 +1,20 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestRiderResponse {
+    private String riderId;
+    private String riderName;
+    private String riderPhoneNumber;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+    private long lastSeenAt;
+}
@@ -9,6 +9,8 @@ public class OfficeResponse {
     private String code;
     private String address;
     private String phoneNumber;
+    private Double latitude;
+    private Double longitude;
     private String locationName;
     private String managerName;
     private Long createdAt;
@@ -0,0 +1,20 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParcelAssignmentResponse {
+    private String message;
+    private String id;
+    private List<String> assigned;
+    private List<String> notCalled;
+    private List<String> notFound;
+}
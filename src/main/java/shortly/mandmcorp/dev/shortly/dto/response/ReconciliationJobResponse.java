@@ -0,0 +1,27 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import shortly.mandmcorp.dev.shortly.enums.ReconciliationJobStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationJobResponse {
+    private String jobId;
+    private ReconciliationJobStatus status;
+    private int total;
+    private int processed;
+    private int reconciled;
+    private List<String> missing;
+    private List<String> notEligible;
+    private String error;
+    private long createdAt;
+    private long updatedAt;
+    private Long finishedAt;
+}
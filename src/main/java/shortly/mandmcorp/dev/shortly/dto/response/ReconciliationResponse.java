@@ -0,0 +1,20 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationResponse {
+    private String message;
+    private List<String> reconciled;
+    private List<String> missing;
+    /** Assignments that exist but are not delivered yet, left untouched. */
+    private List<String> notEligible;
+}
@@ -0,0 +1,21 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiderBatchProposal {
+    private String riderId;
+    private String riderName;
+    private int openAssignments;
+    private int recentCancellations;
+    private List<String> areas;
+    private List<String> parcelIds;
+}
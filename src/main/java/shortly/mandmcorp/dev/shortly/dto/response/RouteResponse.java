@@ -0,0 +1,23 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteResponse {
+    private String riderId;
+    private String originSource;
+    private Double originLatitude;
+    private Double originLongitude;
+    private List<RouteStopResponse> stops;
+    private List<RouteStopResponse> unlocated;
+    private double totalDistanceKm;
+    private long computedAt;
+}
@@ -0,0 +1,22 @@
+package shortly.mandmcorp.dev.shortly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStopResponse {
+    private int sequence;
+    private String assignmentId;
+    private String parcelId;
+    private String receiverName;
+    private String receiverPhoneNumber;
+    private String receiverAddress;
+    private Double latitude;
+    private Double longitude;
+    private Double legDistanceKm;
+}
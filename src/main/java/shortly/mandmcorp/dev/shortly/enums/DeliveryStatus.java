@@ -1,10 +1,36 @@
 package shortly.mandmcorp.dev.shortly.enums;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum DeliveryStatus {
     ASSIGNED,
     ACCEPTED,
     PICKED_UP,
     DELIVERED,
     CANCELLED,
-    COMPLETED
-}
\ No newline at end of file
+    COMPLETED;
+
+    /**
+     * Whether an assignment in this status may move to {@code next}.
+     * Accepted and picked up assignments can be reset to ASSIGNED (a manager action). Delivered
+     * assignments only move on to reconciliation; cancelled and completed ones are final.
+     * Staying in the same status is not a move; callers treat a repeated request as a no-op.
+     */
+    public boolean canMoveTo(DeliveryStatus next) {
+        return switch (this) {
+            case ASSIGNED -> next == ACCEPTED || next == PICKED_UP || next == DELIVERED || next == CANCELLED;
+            case ACCEPTED -> next == ASSIGNED || next == PICKED_UP || next == DELIVERED || next == CANCELLED;
+            case PICKED_UP -> next == ASSIGNED || next == DELIVERED || next == CANCELLED;
+            case DELIVERED -> next == COMPLETED;
+            case CANCELLED, COMPLETED -> false;
+        };
+    }
+
+    /**
+     * Statuses an assignment may be in when moving to this one.
+     */
+    public List<DeliveryStatus> previousStatuses() {
+        return Arrays.stream(values()).filter(status -> status.canMoveTo(this)).toList();
+    }
+}
@@ -0,0 +1,8 @@
+package shortly.mandmcorp.dev.shortly.enums;
+
+public enum ReconciliationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,32 @@
+package shortly.mandmcorp.dev.shortly.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * The active JWT signing keys shared by every instance, written on rotation.
+ * A single document with id {@link #CURRENT}; {@code version} increases with every rotation.
+ * Until the first rotation the keys come from the environment and no document exists.
+ * The key fields hold AES-GCM ciphertext under {@code JWT_KEY_ENCRYPTION_KEY}, never the secrets.
+ */
+@Data
+@Document(collection = "jwt_signing_keys")
+public class JwtSigningKeys {
+    public static final String CURRENT = "current";
+
+    @Id
+    private String id;
+
+    private long version;
+
+    private String accessKey;
+    private String refreshKey;
+
+    private String previousAccessKey;
+    private String previousRefreshKey;
+    private long previousRetiresAt;
+
+    private long rotatedAt;
+}
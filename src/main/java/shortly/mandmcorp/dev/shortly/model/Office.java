@@ -5,7 +5,6 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -26,12 +25,21 @@ public class Office {
     private String address;
     
     private String phoneNumber;
+
+    /** Office coordinates, the default origin for nearest rider searches. */
+    private Double latitude;
+    private Double longitude;
     
-    @DBRef
-    private Location location;
+    @Indexed
+    private String locationId;
+
+    /** Denormalized from the location so office listings need no extra lookup. */
+    private String locationName;
+
+    private String managerId;
 
-    @DBRef
-    private User manager;
+    /** Denormalized from the manager's user record. */
+    private String managerName;
 
     @CreatedDate
     private Long createdAt;
@@ -16,7 +16,8 @@ import lombok.Data;
     @CompoundIndex(name = "office_delivered_idx", def = "{'officeId': 1, 'isDelivered': 1, 'createdAt': -1}"),
     @CompoundIndex(name = "office_homedelivery_idx", def = "{'officeId': 1, 'homeDelivery': 1, 'isDelivered': 1}"),
     @CompoundIndex(name = "office_called_idx", def = "{'officeId': 1, 'hasCalled': 1}"),
-    @CompoundIndex(name = "search_parcels_idx", def = "{'officeId': 1, 'isPOD': 1, 'isDelivered': 1, 'isParcelAssigned': 1, 'hasCalled': 1}")
+    @CompoundIndex(name = "search_parcels_idx", def = "{'officeId': 1, 'isPOD': 1, 'isDelivered': 1, 'isParcelAssigned': 1, 'hasCalled': 1}"),
+    @CompoundIndex(name = "office_created_idx", def = "{'officeId': 1, 'createdAt': -1, '_id': -1}")
 })
 public class Parcel {
     @Id
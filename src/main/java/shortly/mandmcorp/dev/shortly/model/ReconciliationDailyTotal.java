@@ -0,0 +1,37 @@
+package shortly.mandmcorp.dev.shortly.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Pre-aggregated reconciliation totals for one office and one UTC day.
+ * The id is {@code officeId + "_" + day} where day is the epoch day of {@link Reconcilations#getCreatedAt()}.
+ */
+@Data
+@Document(collection = "reconciliation_daily_totals")
+@CompoundIndexes({
+    @CompoundIndex(name = "office_day_idx", def = "{'officeId': 1, 'day': -1}")
+})
+public class ReconciliationDailyTotal {
+    public static final long MILLIS_IN_DAY = 24 * 60 * 60 * 1000L;
+
+    @Id
+    private String id;
+
+    private String officeId;
+
+    private long day;
+
+    private long totalCount;
+    private double totalAmount;
+    private long completedCount;
+    private double completedAmount;
+
+    public static long toDay(Long timestamp) {
+        return timestamp == null ? 0 : timestamp / MILLIS_IN_DAY;
+    }
+}
@@ -0,0 +1,52 @@
+package shortly.mandmcorp.dev.shortly.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import shortly.mandmcorp.dev.shortly.enums.ReconciliationJobStatus;
+
+/**
+ * A server-side reconciliation of a large list of assignments.
+ * The id is derived from the submitter and their idempotency key, so resubmitting the same key
+ * resolves to the same job. {@code processed} is the checkpoint: the number of leading
+ * {@code assignmentIds} already reconciled. The worker holding the job renews {@code leaseUntil}
+ * after every chunk; once the lease lapses (crash or restart) any instance may resume the job.
+ */
+@Data
+@Document(collection = "reconciliation_jobs")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_lease_idx", def = "{'status': 1, 'leaseUntil': 1}")
+})
+public class ReconciliationJob {
+    @Id
+    private String id;
+
+    private String idempotencyKey;
+    private String requestHash;
+    private String submittedBy;
+    private String officeId;
+
+    private List<String> assignmentIds = new ArrayList<>();
+    private long reconciledAt;
+
+    private ReconciliationJobStatus status;
+    private int processed;
+    private int reconciled;
+    private List<String> missing = new ArrayList<>();
+    private List<String> notEligible = new ArrayList<>();
+    private int attempts;
+    private String error;
+
+    private String leaseOwner;
+    private long leaseUntil;
+
+    private long createdAt;
+    private long updatedAt;
+    private Long finishedAt;
+}
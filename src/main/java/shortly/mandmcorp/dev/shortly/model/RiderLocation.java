@@ -0,0 +1,40 @@
+package shortly.mandmcorp.dev.shortly.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Latest known position of a rider, one document per rider keyed by the rider id.
+ * Positions are written by the location buffer at most once per rider per flush interval.
+ */
+@Data
+@Document(collection = "rider_locations")
+public class RiderLocation {
+    @Id
+    private String riderId;
+
+    @Indexed
+    private String officeId;
+
+    private String riderName;
+    private String riderPhoneNumber;
+
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
+    private Double accuracy;
+    private Double heading;
+    private Double speed;
+
+    /** Device time of the ping (epoch millis). */
+    private long recordedAt;
+
+    /** Server time the position was written (epoch millis). */
+    private long updatedAt;
+}
@@ -6,7 +6,7 @@ import java.time.LocalDateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -18,8 +18,11 @@ public class RiderStatusModel {
   @Id
   private String id;
 
-  @DBRef
-  private User rider;
+  @Indexed
+  private String riderId;
+
+  /** Denormalized from the rider's user record. */
+  private String riderName;
 
   private RiderStatus riderStatus;
   
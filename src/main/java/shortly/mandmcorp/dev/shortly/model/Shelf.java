@@ -1,7 +1,7 @@
 package shortly.mandmcorp.dev.shortly.model;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -12,8 +12,11 @@ public class Shelf {
     @Id
     private String id;
 
-    @DBRef
-    private Office office;
+    @Indexed
+    private String officeId;
+
+    /** Denormalized from the office so shelf listings need no extra lookup. */
+    private String officeName;
 
     private String name;
 }
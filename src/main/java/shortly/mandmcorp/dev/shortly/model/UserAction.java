@@ -1,5 +1,7 @@
 package shortly.mandmcorp.dev.shortly.model;
 
+import java.time.Instant;
+
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -24,6 +26,7 @@ public class UserAction {
 
     private String description;
 
+    /** Time-series time field, so it must be stored as a BSON date. */
     @CreatedDate
-    private Long createdAt;
+    private Instant createdAt;
 }
@@ -0,0 +1,12 @@
+package shortly.mandmcorp.dev.shortly.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import shortly.mandmcorp.dev.shortly.model.ReconciliationDailyTotal;
+
+public interface ReconciliationDailyTotalRepository extends MongoRepository<ReconciliationDailyTotal, String> {
+    List<ReconciliationDailyTotal> findByOfficeId(String officeId);
+    List<ReconciliationDailyTotal> findByOfficeIdAndDayGreaterThan(String officeId, long day);
+}
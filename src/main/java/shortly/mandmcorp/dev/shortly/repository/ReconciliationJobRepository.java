@@ -0,0 +1,8 @@
+package shortly.mandmcorp.dev.shortly.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import shortly.mandmcorp.dev.shortly.model.ReconciliationJob;
+
+public interface ReconciliationJobRepository extends MongoRepository<ReconciliationJob, String> {
+}
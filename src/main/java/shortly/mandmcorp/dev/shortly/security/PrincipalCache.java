@@ -0,0 +1,102 @@
+package shortly.mandmcorp.dev.shortly.security;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import shortly.mandmcorp.dev.shortly.config.PrincipalCacheConfig;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by phone number.
+ * Saves the users collection lookup on every authenticated request. Entries expire after
+ * {@code principal-cache.ttlMs} and are dropped explicitly whenever a user's status, role,
+ * office or password changes. When the cache is full, expired entries are evicted first and
+ * then the oldest tenth of the live ones.
+ * <p>
+ * The cache is per instance and {@link #invalidate} only reaches the instance that made the
+ * change. Other instances keep serving the old principal, for example a disabled user or a
+ * previous role, for up to {@code ttlMs} after the change; lower {@code ttlMs} to shorten that
+ * window at the cost of more user lookups.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailService userDetailService;
+    private final PrincipalCacheConfig config;
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    public PrincipalCache(UserDetailService userDetailService, PrincipalCacheConfig config) {
+        this.userDetailService = userDetailService;
+        this.config = config;
+    }
+
+    /**
+     * Returns the cached principal for the phone number, loading it from the database when
+     * absent or expired. Unknown users are not cached.
+     *
+     * @param phoneNumber the token subject
+     * @return the user details, or null if no user has this phone number
+     */
+    public UserDetails get(String phoneNumber) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(phoneNumber);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.user;
+        }
+
+        UserDetails user = userDetailService.loadUserByUsername(phoneNumber);
+        if (user == null) {
+            principals.remove(phoneNumber);
+            return null;
+        }
+        if (principals.size() >= config.getMaxEntries()) {
+            evict(now);
+        }
+        principals.put(phoneNumber, new CachedPrincipal(user, now + config.getTtlMs()));
+        return user;
+    }
+
+    /**
+     * Makes room without dropping the whole cache: removes expired entries and, if that is not
+     * enough, the entries closest to expiry. Evicting a tenth at once keeps the sort off most
+     * requests while the cache stays full.
+     */
+    private void evict(long now) {
+        principals.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = principals.size() - config.getMaxEntries() + 1;
+        if (excess <= 0) {
+            return;
+        }
+        int count = Math.max(excess, config.getMaxEntries() / 10);
+        principals.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+            .limit(count)
+            .toList()
+            .forEach(entry -> principals.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Drops the cached principal so the next request reloads it.
+     *
+     * @param phoneNumber the user's phone number
+     */
+    public void invalidate(String phoneNumber) {
+        if (phoneNumber != null) {
+            principals.remove(phoneNumber);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class CachedPrincipal {
+        private final UserDetails user;
+        private final long expiresAt;
+    }
+}
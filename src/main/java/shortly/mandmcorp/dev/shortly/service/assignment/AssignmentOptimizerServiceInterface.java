@@ -0,0 +1,24 @@
+package shortly.mandmcorp.dev.shortly.service.assignment;
+
+import java.util.List;
+
+import shortly.mandmcorp.dev.shortly.dto.response.AssignmentProposalResponse;
+
+public interface AssignmentOptimizerServiceInterface {
+
+    /**
+     * Proposes rider batches for the caller's office pending home delivery parcels.
+     * Nothing is assigned; apply a batch with the assign parcels endpoint.
+     *
+     * @return proposal for the caller's office
+     */
+    AssignmentProposalResponse proposeForCurrentOffice();
+
+    /**
+     * Proposes rider batches for several offices, planned in parallel.
+     *
+     * @param officeIds offices to plan, or null/empty for every office
+     * @return one proposal per office
+     */
+    List<AssignmentProposalResponse> propose(List<String> officeIds);
+}
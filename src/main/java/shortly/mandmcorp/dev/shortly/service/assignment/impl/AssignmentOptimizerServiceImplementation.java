@@ -0,0 +1,179 @@
+package shortly.mandmcorp.dev.shortly.service.assignment.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.AssignmentOptimizerConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.AssignmentProposalResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.RiderBatchProposal;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+import shortly.mandmcorp.dev.shortly.model.Office;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+import shortly.mandmcorp.dev.shortly.service.assignment.AssignmentOptimizerServiceInterface;
+
+/**
+ * Proposes balanced rider batches for pending home delivery parcels.
+ * Per office it loads the assignable parcels (called, home delivery, not yet assigned or
+ * delivered), the available riders and one aggregation of each rider's open and recently
+ * cancelled assignments, then plans in memory with {@link AssignmentPlanner}. Offices are
+ * planned in parallel on a dedicated fork-join pool.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class AssignmentOptimizerServiceImplementation implements AssignmentOptimizerServiceInterface {
+
+    private static final List<DeliveryStatus> OPEN_STATUSES =
+        List.of(DeliveryStatus.ASSIGNED, DeliveryStatus.ACCEPTED, DeliveryStatus.PICKED_UP);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final AssignmentOptimizerConfig config;
+    private final ForkJoinPool pool;
+
+    public AssignmentOptimizerServiceImplementation(MongoTemplate mongoTemplate, UserRepository userRepository,
+            AssignmentOptimizerConfig config) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.config = config;
+        this.pool = new ForkJoinPool(config.getParallelism() > 0
+            ? config.getParallelism()
+            : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
+    public AssignmentProposalResponse proposeForCurrentOffice() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            throw new WrongCredentialsException("User not authenticated");
+        }
+        if (user.getOfficeId() == null) {
+            throw new WrongCredentialsException("User has no office assigned");
+        }
+        return proposeForOffice(user.getOfficeId());
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public List<AssignmentProposalResponse> propose(List<String> officeIds) {
+        List<String> offices = officeIds == null || officeIds.isEmpty() ? allOfficeIds() : officeIds;
+        try {
+            return pool.submit(() -> offices.parallelStream().map(this::proposeForOffice).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Assignment planning interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private AssignmentProposalResponse proposeForOffice(String officeId) {
+        long start = System.nanoTime();
+        List<Parcel> parcels = pendingParcels(officeId);
+        List<User> riders = userRepository.findByRoleAndOfficeIdAndAvailability(UserRole.RIDER, officeId, true);
+
+        AssignmentProposalResponse.AssignmentProposalResponseBuilder response = AssignmentProposalResponse.builder()
+            .officeId(officeId)
+            .parcelCount(parcels.size())
+            .riderCount(riders.size());
+
+        if (riders.isEmpty() || parcels.isEmpty()) {
+            return response
+                .batches(List.of())
+                .unassigned(parcels.stream().map(Parcel::getParcelId).toList())
+                .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        }
+
+        Map<String, Integer> openLoad = new HashMap<>();
+        Map<String, Integer> cancellations = new HashMap<>();
+        loadRiderHistory(riders, openLoad, cancellations);
+
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels, riders, openLoad, cancellations,
+            config.getCancellationWeight());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Planned {} parcels over {} riders for office {} in {} ms", parcels.size(), riders.size(), officeId, elapsedMs);
+        return response
+            .batches(batches)
+            .unassigned(List.of())
+            .elapsedMs(elapsedMs)
+            .build();
+    }
+
+    private List<Parcel> pendingParcels(String officeId) {
+        Query query = Query.query(Criteria.where("officeId").is(officeId)
+            .and("homeDelivery").is(true)
+            .and("isDelivered").is(false)
+            .and("isParcelAssigned").is(false)
+            .and("hasCalled").is(true));
+        query.fields().include("parcelId", "receiverAddress", "cancelationCount", "createdAt");
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        query.limit(config.getMaxParcelsPerOffice());
+        return mongoTemplate.find(query, Parcel.class);
+    }
+
+    /**
+     * One aggregation for all riders: open assignment counts and cancellations within
+     * {@code assignment-optimizer.cancellationWindowDays}.
+     */
+    private void loadRiderHistory(List<User> riders, Map<String, Integer> openLoad, Map<String, Integer> cancellations) {
+        List<String> riderIds = riders.stream().map(User::getUserId).toList();
+        long since = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(config.getCancellationWindowDays());
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("riderInfo.riderId").in(riderIds).orOperator(
+                Criteria.where("status").in(OPEN_STATUSES),
+                Criteria.where("status").is(DeliveryStatus.CANCELLED).and("assignedAt").gte(since))),
+            Aggregation.group(Fields.from(Fields.field("riderId", "riderInfo.riderId"), Fields.field("status"))).count().as("count")
+        );
+        for (Document row : mongoTemplate.aggregate(aggregation, DeliveryAssignments.class, Document.class).getMappedResults()) {
+            Document id = row.get("_id", Document.class);
+            String riderId = id.getString("riderId");
+            int count = ((Number) row.get("count")).intValue();
+            if (DeliveryStatus.CANCELLED.name().equals(id.getString("status"))) {
+                cancellations.merge(riderId, count, Integer::sum);
+            } else {
+                openLoad.merge(riderId, count, Integer::sum);
+            }
+        }
+    }
+
+    private List<String> allOfficeIds() {
+        Query query = new Query();
+        query.fields().include("id");
+        return mongoTemplate.find(query, Office.class).stream().map(Office::getId).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package shortly.mandmcorp.dev.shortly.service.assignment.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import shortly.mandmcorp.dev.shortly.dto.response.RiderBatchProposal;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.User;
+
+/**
+ * Pure, in-memory batch planner for one office; no I/O so it can run on any pool thread.
+ * <p>
+ * Every rider is given a target so that open plus proposed assignments come out even across the
+ * office. A rider's spare capacity is that target minus their open assignments, shrunk by their
+ * recent cancellations. Parcels are grouped by receiver area, largest area first, and each area is
+ * handed out in contiguous chunks to the rider with the most spare capacity, so riders get few
+ * areas each. Within an area the parcels cancelled most often go first, to the rider with the most
+ * capacity, breaking ties by fewer cancellations. Parcels left after every capacity is used go one
+ * at a time to the least-loaded rider. Runs in O(chunks x riders).
+ */
+final class AssignmentPlanner {
+
+    private AssignmentPlanner() {
+    }
+
+    static List<RiderBatchProposal> plan(List<Parcel> parcels, List<User> riders, Map<String, Integer> openLoad,
+            Map<String, Integer> cancellations, double cancellationWeight) {
+        List<RiderPlan> plans = new ArrayList<>(riders.size());
+        long totalLoad = parcels.size();
+        for (User rider : riders) {
+            RiderPlan plan = new RiderPlan(rider, openLoad.getOrDefault(rider.getUserId(), 0),
+                cancellations.getOrDefault(rider.getUserId(), 0));
+            plans.add(plan);
+            totalLoad += plan.openAssignments;
+        }
+
+        int target = (int) Math.ceil((double) totalLoad / plans.size());
+        for (RiderPlan plan : plans) {
+            int spare = Math.max(0, target - plan.openAssignments);
+            plan.capacity = (int) Math.floor(spare / (1 + cancellationWeight * plan.cancellations));
+        }
+
+        Map<String, List<Parcel>> byArea = new LinkedHashMap<>();
+        for (Parcel parcel : parcels) {
+            byArea.computeIfAbsent(areaOf(parcel.getReceiverAddress()), area -> new ArrayList<>()).add(parcel);
+        }
+        List<Map.Entry<String, List<Parcel>>> areas = new ArrayList<>(byArea.entrySet());
+        areas.sort(Comparator.comparingInt((Map.Entry<String, List<Parcel>> entry) -> entry.getValue().size()).reversed());
+
+        for (Map.Entry<String, List<Parcel>> entry : areas) {
+            List<Parcel> areaParcels = entry.getValue();
+            areaParcels.sort(Comparator.comparingInt(Parcel::getCancelationCount).reversed());
+            int next = 0;
+            while (next < areaParcels.size()) {
+                RiderPlan rider = mostSpareCapacity(plans);
+                int take;
+                if (rider.capacity > 0) {
+                    take = Math.min(rider.capacity, areaParcels.size() - next);
+                    rider.capacity -= take;
+                } else {
+                    rider = leastLoaded(plans);
+                    take = 1;
+                }
+                for (int i = next; i < next + take; i++) {
+                    rider.parcelIds.add(areaParcels.get(i).getParcelId());
+                }
+                rider.areas.add(entry.getKey());
+                next += take;
+            }
+        }
+
+        return plans.stream()
+            .filter(plan -> !plan.parcelIds.isEmpty())
+            .map(plan -> RiderBatchProposal.builder()
+                .riderId(plan.rider.getUserId())
+                .riderName(plan.rider.getName())
+                .openAssignments(plan.openAssignments)
+                .recentCancellations(plan.cancellations)
+                .areas(new ArrayList<>(plan.areas))
+                .parcelIds(plan.parcelIds)
+                .build())
+            .toList();
+    }
+
+    /**
+     * Area key for grouping: the address segment before the last one ("12 Oak St, East Legon, Accra"
+     * gives "east legon"), or the whole address when it has a single segment.
+     */
+    static String areaOf(String address) {
+        if (address == null || address.isBlank()) {
+            return "";
+        }
+        String[] segments = address.split(",");
+        List<String> parts = new ArrayList<>(segments.length);
+        for (String segment : segments) {
+            String part = segment.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        if (parts.isEmpty()) {
+            return "";
+        }
+        return parts.size() == 1 ? parts.get(0) : parts.get(parts.size() - 2);
+    }
+
+    private static RiderPlan mostSpareCapacity(List<RiderPlan> plans) {
+        RiderPlan best = plans.get(0);
+        for (RiderPlan plan : plans) {
+            if (plan.capacity > best.capacity
+                    || (plan.capacity == best.capacity && plan.cancellations < best.cancellations)) {
+                best = plan;
+            }
+        }
+        return best;
+    }
+
+    private static RiderPlan leastLoaded(List<RiderPlan> plans) {
+        RiderPlan best = plans.get(0);
+        for (RiderPlan plan : plans) {
+            if (plan.totalLoad() < best.totalLoad()
+                    || (plan.totalLoad() == best.totalLoad() && plan.cancellations < best.cancellations)) {
+                best = plan;
+            }
+        }
+        return best;
+    }
+
+    private static final class RiderPlan {
+        private final User rider;
+        private final int openAssignments;
+        private final int cancellations;
+        private final List<String> parcelIds = new ArrayList<>();
+        private final Set<String> areas = new LinkedHashSet<>();
+        private int capacity;
+
+        private RiderPlan(User rider, int openAssignments, int cancellations) {
+            this.rider = rider;
+            this.openAssignments = openAssignments;
+            this.cancellations = cancellations;
+        }
+
+        private int totalLoad() {
+            return openAssignments + parcelIds.size();
+        }
+    }
+}
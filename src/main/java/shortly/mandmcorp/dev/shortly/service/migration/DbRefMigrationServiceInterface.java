@@ -0,0 +1,15 @@
+package shortly.mandmcorp.dev.shortly.service.migration;
+
+import java.util.Map;
+
+public interface DbRefMigrationServiceInterface {
+
+    /**
+     * Rewrites documents still holding {@code @DBRef} relations to plain id fields with
+     * denormalized name summaries. Runs in batches while the application stays online and
+     * only touches documents that have not been migrated yet, so it is safe to re-run.
+     *
+     * @return number of documents rewritten per collection
+     */
+    Map<String, Long> migrate();
+}
@@ -0,0 +1,173 @@
+package shortly.mandmcorp.dev.shortly.service.migration.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.DBRef;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.MigrationConfig;
+import shortly.mandmcorp.dev.shortly.service.migration.DbRefMigrationServiceInterface;
+
+/**
+ * Migrates the former {@code @DBRef} relations on offices, shelves, rider status and
+ * verification tokens to id fields plus embedded names.
+ * Each batch loads the referenced names with one {@code $in} query per target collection and
+ * rewrites the batch with a single unordered bulk write.
+ * The models only read the id fields, so the migration runs on {@link ApplicationReadyEvent}
+ * before the application reports itself ready for traffic; documents that are already
+ * migrated are skipped, which makes the startup run a single query per collection afterwards.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class DbRefMigrationServiceImplementation implements DbRefMigrationServiceInterface {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final MigrationConfig migrationConfig;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrationConfig.isDbrefOnStartup()) {
+            return;
+        }
+        // a failure here leaves shelves and offices unreadable, so let it fail startup
+        migrateAll();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Long> migrate() {
+        return migrateAll();
+    }
+
+    private Map<String, Long> migrateAll() {
+        Map<String, Long> migrated = new LinkedHashMap<>();
+        migrated.put("offices", migrate("offices", List.of(
+            new RefField("location", "locationId", "locationName", "locations"),
+            new RefField("manager", "managerId", "managerName", "users"))));
+        migrated.put("shelfs", migrate("shelfs", List.of(
+            new RefField("office", "officeId", "officeName", "offices"))));
+        migrated.put("rider_status", migrate("rider_status", List.of(
+            new RefField("rider", "riderId", "riderName", "users"))));
+        migrated.put("verification_tokens", migrate("verification_tokens", List.of(
+            new RefField("userId", "userId", null, null))));
+        log.info("DBRef migration finished: {}", migrated);
+        return migrated;
+    }
+
+    private long migrate(String collection, List<RefField> fields) {
+        Criteria pending = new Criteria().orOperator(fields.stream()
+            .map(field -> Criteria.where(field.refField + ".$id").exists(true))
+            .toArray(Criteria[]::new));
+
+        long total = 0;
+        while (true) {
+            Query batchQuery = new Query(pending).limit(BATCH_SIZE);
+            List<Document> batch = mongoTemplate.find(batchQuery, Document.class, collection);
+            if (batch.isEmpty()) {
+                return total;
+            }
+
+            Map<RefField, Map<String, String>> namesByField = new HashMap<>();
+            for (RefField field : fields) {
+                namesByField.put(field, loadNames(field, batch));
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : batch) {
+                Update update = new Update();
+                for (RefField field : fields) {
+                    Object ref = document.get(field.refField);
+                    if (!(ref instanceof DBRef) && !(ref instanceof Document)) {
+                        continue;
+                    }
+                    String id = refId(ref);
+                    if (!field.refField.equals(field.idField)) {
+                        update.unset(field.refField);
+                    }
+                    update.set(field.idField, id);
+                    if (field.nameField != null) {
+                        update.set(field.nameField, id == null ? null : namesByField.get(field).get(id));
+                    }
+                }
+                bulk.updateOne(Query.query(Criteria.where("_id").is(document.get("_id"))), update);
+            }
+            bulk.execute();
+            total += batch.size();
+            log.info("Migrated {} {} documents so far", total, collection);
+        }
+    }
+
+    private Map<String, String> loadNames(RefField field, List<Document> batch) {
+        Map<String, String> names = new HashMap<>();
+        if (field.targetCollection == null) {
+            return names;
+        }
+        Set<Object> ids = new HashSet<>();
+        for (Document document : batch) {
+            String id = refId(document.get(field.refField));
+            if (id != null) {
+                ids.add(ObjectId.isValid(id) ? new ObjectId(id) : id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return names;
+        }
+        Query query = new Query(Criteria.where("_id").in(new ArrayList<>(ids)));
+        query.fields().include("name");
+        for (Document target : mongoTemplate.find(query, Document.class, field.targetCollection)) {
+            names.put(idString(target.get("_id")), target.getString("name"));
+        }
+        return names;
+    }
+
+    private String refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return idString(dbRef.getId());
+        }
+        if (ref instanceof Document document) {
+            return idString(document.get("$id"));
+        }
+        return null;
+    }
+
+    private String idString(Object id) {
+        if (id == null) {
+            return null;
+        }
+        return id instanceof ObjectId objectId ? objectId.toHexString() : id.toString();
+    }
+
+    @AllArgsConstructor
+    private static class RefField {
+        private final String refField;
+        private final String idField;
+        private final String nameField;
+        private final String targetCollection;
+    }
+}
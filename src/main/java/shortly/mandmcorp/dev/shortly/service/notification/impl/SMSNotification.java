@@ -1,18 +1,12 @@
 package shortly.mandmcorp.dev.shortly.service.notification.impl;
 
-import java.util.List;
-import java.util.Map;
-
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import shortly.mandmcorp.dev.shortly.config.MNotifyConfig;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationInterface;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationRequestTemplate;
-import shortly.mandmcorp.dev.shortly.utils.WebRequestUtil;
 
 @Service
 @Qualifier("smsNotification")
@@ -20,43 +14,16 @@ import shortly.mandmcorp.dev.shortly.utils.WebRequestUtil;
 @Slf4j
 public class SMSNotification implements NotificationInterface {
 
-    private final MNotifyConfig mNotifyConfig;
-    private final WebRequestUtil webRequestUtil;
+    private final SmsDispatchQueue smsDispatchQueue;
     
    
-    @Async("taskExecutor")
+    /**
+     * Queues the SMS for batched delivery through mNotify.
+     * Returns as soon as the message is queued; delivery happens on the dispatcher thread.
+     */
     public void send(NotificationRequestTemplate notify) {
-        log.info("Attempting to send SMS to: {}", notify.getTo());
-        try {
-            boolean result = sendMessage(notify);
-            log.info("SMS send result: {}", result);
-        } catch (Exception e) {
-            log.error("Error sending SMS: ", e);
-        }
-    }
-
-    private boolean sendMessage(NotificationRequestTemplate notify) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                "recipient", List.of(notify.getTo()),
-                "sender", mNotifyConfig.getSender(),
-                "message", notify.getBody(),
-                "is_schedule", false,
-                "schedule_date", ""
-            );
-           String uri = mNotifyConfig.getBaseUrl() + "/quick?key=" + mNotifyConfig.getAccessKey();
-           log.info("Sending SMS request to: {}", uri);
-           log.info("Request body: {}", requestBody);
-           boolean result = webRequestUtil.postRequst(uri, requestBody);
-           log.info("WebRequestUtil response: {}", result);
-           return result;
-        } catch (Exception e) {
-            log.error("Exception in sendMessage: ", e);
-            return false;
-        }
+        log.info("Queueing SMS to: {}", notify.getTo());
+        smsDispatchQueue.enqueue(notify);
     }
 
-    
-     
-
 }
@@ -0,0 +1,197 @@
+package shortly.mandmcorp.dev.shortly.service.notification.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shortly.mandmcorp.dev.shortly.config.MNotifyConfig;
+import shortly.mandmcorp.dev.shortly.service.notification.NotificationRequestTemplate;
+import shortly.mandmcorp.dev.shortly.utils.WebRequestUtil;
+
+/**
+ * Bounded outbound SMS queue drained by a single dispatcher thread.
+ * Messages are accumulated for {@code mnotify.batchWindowMs} and messages sharing the same body
+ * are sent as one mNotify request with a multi-recipient list. At most
+ * {@code mnotify.maxInFlight} requests run at once and the dispatcher waits for a drained
+ * batch to finish before taking the next one, so a burst backs up in the bounded queue
+ * instead of overrunning the outbound connection pool.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class SmsDispatchQueue {
+
+    private final MNotifyConfig mNotifyConfig;
+    private final WebRequestUtil webRequestUtil;
+    private final BlockingQueue<NotificationRequestTemplate> queue;
+
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public SmsDispatchQueue(MNotifyConfig mNotifyConfig, WebRequestUtil webRequestUtil, MeterRegistry meterRegistry) {
+        this.mNotifyConfig = mNotifyConfig;
+        this.webRequestUtil = webRequestUtil;
+        this.queue = new ArrayBlockingQueue<>(mNotifyConfig.getQueueCapacity());
+        this.batchTimer = Timer.builder("sms.dispatch.batch").description("Latency of one mNotify batch request").register(meterRegistry);
+        this.sentCounter = Counter.builder("sms.dispatch.sent").description("SMS messages accepted by mNotify").register(meterRegistry);
+        this.failedCounter = Counter.builder("sms.dispatch.failed").description("SMS messages in failed batches").register(meterRegistry);
+        this.droppedCounter = Counter.builder("sms.dispatch.dropped").description("SMS messages dropped because the queue stayed full").register(meterRegistry);
+        meterRegistry.gauge("sms.dispatch.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::drainLoop, "sms-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stops the dispatcher and sends whatever is still queued, waiting up to
+     * {@code mnotify.shutdownTimeoutMs} for those requests to complete.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        // the loop polls with a one second timeout, so it exits after its current batch
+        dispatcher.join(mNotifyConfig.getShutdownTimeoutMs());
+        if (dispatcher.isAlive()) {
+            dispatcher.interrupt();
+        }
+        List<NotificationRequestTemplate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} queued SMS messages on shutdown", remaining.size());
+            try {
+                dispatch(remaining).block(Duration.ofMillis(mNotifyConfig.getShutdownTimeoutMs()));
+            } catch (IllegalStateException e) {
+                log.error("SMS flush did not complete within {} ms", mNotifyConfig.getShutdownTimeoutMs());
+            }
+        }
+    }
+
+    /**
+     * Queues a message for the next batch. When the queue is full the caller waits up to
+     * {@code mnotify.enqueueTimeoutMs} for space before the message is dropped.
+     *
+     * @param notify the notification to send
+     * @return true if the message was queued
+     */
+    public boolean enqueue(NotificationRequestTemplate notify) {
+        try {
+            if (queue.offer(notify, mNotifyConfig.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCounter.increment();
+        log.error("SMS queue full, dropping message to: {}", notify.getTo());
+        return false;
+    }
+
+    private void drainLoop() {
+        List<NotificationRequestTemplate> batch = new ArrayList<>();
+        while (running) {
+            try {
+                NotificationRequestTemplate first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mNotifyConfig.getBatchWindowMs());
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    NotificationRequestTemplate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch).block();
+            } catch (InterruptedException e) {
+                // stop() drains and flushes the queue; return what was taken so it is not lost
+                batch.forEach(queue::offer);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error dispatching SMS batch: ", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Groups messages by body and sends each group in chunks of {@code mnotify.maxBatchSize},
+     * with at most {@code mnotify.maxInFlight} requests outstanding.
+     *
+     * @return completes when every request has finished, successfully or not
+     */
+    private Mono<Void> dispatch(List<NotificationRequestTemplate> batch) {
+        Map<String, List<String>> recipientsByBody = new LinkedHashMap<>();
+        for (NotificationRequestTemplate notify : batch) {
+            if (notify.getTo() == null || notify.getTo().isBlank()) {
+                continue;
+            }
+            recipientsByBody.computeIfAbsent(notify.getBody(), body -> new ArrayList<>()).add(notify.getTo());
+        }
+
+        int maxBatchSize = Math.max(1, mNotifyConfig.getMaxBatchSize());
+        List<Map.Entry<String, List<String>>> requests = new ArrayList<>();
+        recipientsByBody.forEach((body, recipients) -> {
+            for (int from = 0; from < recipients.size(); from += maxBatchSize) {
+                List<String> chunk = List.copyOf(recipients.subList(from, Math.min(from + maxBatchSize, recipients.size())));
+                requests.add(Map.entry(body, chunk));
+            }
+        });
+        return Flux.fromIterable(requests)
+            .flatMap(request -> sendBatch(request.getKey(), request.getValue()), Math.max(1, mNotifyConfig.getMaxInFlight()))
+            .then();
+    }
+
+    private Mono<Boolean> sendBatch(String body, List<String> recipients) {
+        Map<String, Object> requestBody = Map.of(
+            "recipient", recipients,
+            "sender", mNotifyConfig.getSender(),
+            "message", body,
+            "is_schedule", false,
+            "schedule_date", ""
+        );
+        String uri = mNotifyConfig.getBaseUrl() + "/quick?key=" + mNotifyConfig.getAccessKey();
+        long start = System.nanoTime();
+        return webRequestUtil.postRequest(uri, requestBody).doOnNext(result -> {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (result) {
+                sentCounter.increment(recipients.size());
+            } else {
+                failedCounter.increment(recipients.size());
+            }
+            log.info("SMS batch of {} recipients sent: {}", recipients.size(), result);
+        });
+    }
+}
@@ -1,9 +1,16 @@
 package shortly.mandmcorp.dev.shortly.service.office.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -30,6 +37,8 @@ import shortly.mandmcorp.dev.shortly.repository.ShelfRepository;
 import shortly.mandmcorp.dev.shortly.repository.UserRepository;
 import shortly.mandmcorp.dev.shortly.service.office.OfficeServiceInterface;
 import shortly.mandmcorp.dev.shortly.utils.OfficeMapper;
+import shortly.mandmcorp.dev.shortly.utils.OfficeTreeCache;
+import shortly.mandmcorp.dev.shortly.utils.ShelfRegistry;
 
 @Service
 @Slf4j
@@ -41,6 +50,9 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
     private final LocationRepository locationRepository;
     private final OfficeMapper officeMapper;
     private final ShelfRepository shelfRepository;
+    private final MongoTemplate mongoTemplate;
+    private final OfficeTreeCache officeTreeCache;
+    private final ShelfRegistry shelfRegistry;
     
     @Override
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -53,21 +65,25 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
                 return new EntityNotFound("Location not found with ID: " + officeRequest.getLocationId());
             });
         
-        officeRepository.findFirstByNameAndLocation(officeRequest.getName(), location)
+        officeRepository.findFirstByNameAndLocationId(officeRequest.getName(), location.getId())
             .ifPresent(office -> {
                 throw new EntityAlreadyExist("Office with this name already exists in this location");
             });
         
         Office office = officeMapper.toEntity(officeRequest);
         office.setCode(generateOfficeCode());
-        office.setLocation(location);
+        office.setLocationId(location.getId());
+        office.setLocationName(location.getName());
         
         if(officeRequest.getManagerId() != null) {
-            User manager = userRepository.findById(officeRequest.getManagerId()).orElse(null);
-            office.setManager(manager);
+            userRepository.findById(officeRequest.getManagerId()).ifPresent(manager -> {
+                office.setManagerId(manager.getUserId());
+                office.setManagerName(manager.getName());
+            });
         }
 
         Office savedOffice = officeRepository.save(office);
+        officeTreeCache.invalidate();
         log.info("Office saved successfully with ID: {} and code: {}", savedOffice.getId(), savedOffice.getCode());
         
         return officeMapper.toResponse(savedOffice);
@@ -90,6 +106,7 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
             location.setCountry(locationRequest.getCountry());
             
             Location savedLocation = locationRepository.save(location);
+            officeTreeCache.invalidate();
             log.info("Location saved successfully with ID: {}", savedLocation.getId());
             
             LocationResponse response = new LocationResponse();
@@ -113,22 +130,33 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
         Office office = officeRepository.findById(officeId)
             .orElseThrow(() -> new EntityNotFound("Office not found"));
         
+        boolean renamed = updateRequest.getName() != null && !updateRequest.getName().equals(office.getName());
         if(updateRequest.getName() != null) office.setName(updateRequest.getName());
         if(updateRequest.getAddress() != null) office.setAddress(updateRequest.getAddress());
+        if(updateRequest.getLatitude() != null) office.setLatitude(updateRequest.getLatitude());
+        if(updateRequest.getLongitude() != null) office.setLongitude(updateRequest.getLongitude());
         
         if(updateRequest.getLocationId() != null) {
             Location location = locationRepository.findById(updateRequest.getLocationId())
                 .orElseThrow(() -> new EntityNotFound("Location not found"));
-            office.setLocation(location);
+            office.setLocationId(location.getId());
+            office.setLocationName(location.getName());
         }
         
         if(updateRequest.getManagerId() != null) {
             User manager = userRepository.findById(updateRequest.getManagerId())
                 .orElseThrow(() -> new EntityNotFound("Manager not found"));
-            office.setManager(manager);
+            office.setManagerId(manager.getUserId());
+            office.setManagerName(manager.getName());
         }
         
         Office updatedOffice = officeRepository.save(office);
+        if(renamed) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("officeId").is(officeId)),
+                new Update().set("officeName", updatedOffice.getName()), Shelf.class);
+            shelfRegistry.invalidate(officeId);
+        }
+        officeTreeCache.invalidate();
         log.info("Office updated successfully with ID: {}", updatedOffice.getId());
         
         return officeMapper.toResponse(updatedOffice);
@@ -147,6 +175,11 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
         if(updateRequest.getCountry() != null) location.setCountry(updateRequest.getCountry());
         
         Location updatedLocation = locationRepository.save(location);
+        if(updateRequest.getName() != null) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("locationId").is(locationId)),
+                new Update().set("locationName", updatedLocation.getName()), Office.class);
+        }
+        officeTreeCache.invalidate();
         log.info("Location updated successfully with ID: {}", updatedLocation.getId());
         
         LocationResponse response = new LocationResponse();
@@ -158,32 +191,22 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
         return response;
     }
     
+    /**
+     * Builds the location/office tree with two queries regardless of its size: one for the
+     * locations and one for all of their offices. Name filters are applied in Mongo and results
+     * are served from a snapshot until the next office or location write.
+     */
     @Override
     public List<LocationWithOfficesResponse> getAllLocationsWithOffices(String locationName, String officeName) {
         log.info("Getting all locations with offices. Filters - locationName: {}, officeName: {}", locationName, officeName);
-        
-        List<Location> locations = (locationName != null && !locationName.isEmpty()) 
-            ? locationRepository.findByNameContainingIgnoreCase(locationName)
-            : locationRepository.findAll();
-        
-        return locations.stream().map(location -> {
-            List<Office> offices = officeRepository.findByLocation(location);
-            
-            if(officeName != null && !officeName.isEmpty()) {
-                offices = offices.stream()
-                    .filter(office -> office.getName().toLowerCase().contains(officeName.toLowerCase()))
-                    .collect(Collectors.toList());
+
+        return officeTreeCache.get(locationName, officeName, (location, office) -> {
+            Query locationQuery = new Query();
+            if(location != null) {
+                locationQuery.addCriteria(Criteria.where("name").regex(Pattern.quote(location), "i"));
             }
-            
-            LocationWithOfficesResponse response = new LocationWithOfficesResponse();
-            response.setId(location.getId());
-            response.setName(location.getName());
-            response.setRegion(location.getRegion());
-            response.setCountry(location.getCountry());
-            response.setOffices(offices.stream().map(officeMapper::toResponse).collect(Collectors.toList()));
-            
-            return response;
-        }).collect(Collectors.toList());
+            return buildLocationTree(mongoTemplate.find(locationQuery, Location.class), office);
+        });
     }
     
     @Override
@@ -193,16 +216,35 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
         Location location = locationRepository.findById(locationId)
             .orElseThrow(() -> new EntityNotFound("Location not found"));
         
-        List<Office> offices = officeRepository.findByLocation(location);
-        
-        LocationWithOfficesResponse response = new LocationWithOfficesResponse();
-        response.setId(location.getId());
-        response.setName(location.getName());
-        response.setRegion(location.getRegion());
-        response.setCountry(location.getCountry());
-        response.setOffices(offices.stream().map(officeMapper::toResponse).collect(Collectors.toList()));
+        return buildLocationTree(List.of(location), null).get(0);
+    }
 
-        return response;
+    private List<LocationWithOfficesResponse> buildLocationTree(List<Location> locations, String officeName) {
+        Map<String, LocationWithOfficesResponse> tree = new LinkedHashMap<>();
+        for(Location location : locations) {
+            LocationWithOfficesResponse response = new LocationWithOfficesResponse();
+            response.setId(location.getId());
+            response.setName(location.getName());
+            response.setRegion(location.getRegion());
+            response.setCountry(location.getCountry());
+            response.setOffices(new ArrayList<>());
+            tree.put(location.getId(), response);
+        }
+        if(tree.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Query officeQuery = new Query(Criteria.where("locationId").in(tree.keySet()));
+        if(officeName != null && !officeName.isEmpty()) {
+            officeQuery.addCriteria(Criteria.where("name").regex(Pattern.quote(officeName), "i"));
+        }
+        for(Office office : mongoTemplate.find(officeQuery, Office.class)) {
+            LocationWithOfficesResponse location = tree.get(office.getLocationId());
+            if(location != null) {
+                location.getOffices().add(officeMapper.toResponse(office));
+            }
+        }
+        return new ArrayList<>(tree.values());
     }
 
     @Override
@@ -210,22 +252,25 @@ public class OfficeServiceImplementation implements OfficeServiceInterface {
     public UserResponse addShelf(ShelfRequest shelf ) {
         Office office = officeRepository.findById(shelf.getOfficeId())
             .orElseThrow(() -> new EntityNotFound("Office not found"));
-        Shelf savedShelf = shelfRepository.findByNameAndOffice(shelf.getName(), office);
+        Shelf savedShelf = shelfRepository.findByNameAndOfficeId(shelf.getName(), office.getId());
         if(savedShelf != null) {
             throw new EntityAlreadyExist("Shelf with the same name already exist");
         }
         Shelf shelfEntity = new Shelf();
         shelfEntity.setName(shelf.getName());
-        shelfEntity.setOffice(office);
+        shelfEntity.setOfficeId(office.getId());
+        shelfEntity.setOfficeName(office.getName());
         shelfRepository.save(shelfEntity);
+        shelfRegistry.invalidate(office.getId());
         return new UserResponse("shelf saved successfully", shelfEntity.getId() );
     }
 
     @Override
     public List<Shelf> getOfficeShelf(String officeId) {
-        Office office = officeRepository.findById(officeId)
-            .orElseThrow(() -> new EntityNotFound("Office not found"));
-        return shelfRepository.findByOffice(office);
+        if(!officeRepository.existsById(officeId)) {
+            throw new EntityNotFound("Office not found");
+        }
+        return shelfRepository.findByOfficeId(officeId);
     }
     
     private String generateOfficeCode() {
@@ -1,22 +1,59 @@
 package shortly.mandmcorp.dev.shortly.service.parcel;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import shortly.mandmcorp.dev.shortly.dto.request.CancelationReasonRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelUpdateRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.model.CancelationReason;
 import shortly.mandmcorp.dev.shortly.model.Parcel;
 
 public interface ParcelServiceInterface {
     Parcel addParcel(ParcelRequest parcelRequest);
+
+    /**
+     * Adds parcels streamed from an upload, one per line, inserting them in chunks.
+     *
+     * @param input NDJSON body, or CSV with a header row
+     * @param csv true if the body is CSV
+     * @param idempotencyKey optional client-chosen key for the upload; resending the same
+     *        upload with the same key reports already stored rows instead of inserting them again
+     * @return per-row result report, marked incomplete if the body could not be read to the end
+     */
+    BulkIntakeResponse bulkAddParcels(InputStream input, boolean csv, String idempotencyKey);
     Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest);
     Page<Parcel> searchParcels(Boolean isPOD, Boolean isDelivered, Boolean isParcelAssigned,
                                       String officeId, String driverId, Boolean hasCalled, Pageable pageable, boolean isFrontDesk);
+
+    /**
+     * Searches parcels with keyset pagination, newest first.
+     *
+     * @param cursor opaque token from the previous page, or null for the first page
+     * @param size page size
+     * @param withTotal if true, also counts all matching parcels
+     * @return CursorPage of parcels with the cursor for the next page
+     */
+    CursorPage<Parcel> searchParcels(Boolean isPOD, Boolean isDelivered, Boolean isParcelAssigned,
+                                      String officeId, String driverId, Boolean hasCalled, String cursor, int size, boolean withTotal, boolean isFrontDesk);
+
+    /**
+     * Exports every parcel matching the search filters, streamed from a Mongo cursor.
+     *
+     * @param isFrontDesk true to scope the export to the caller's office; false exports every office and requires ADMIN
+     * @param format NDJSON or CSV
+     * @return response body that writes the parcels in _id order
+     */
+    StreamingResponseBody exportParcels(Boolean isPOD, Boolean isDelivered, Boolean isParcelAssigned,
+                                      String officeId, String driverId, Boolean hasCalled, boolean isFrontDesk, ExportFormat format);
     
     /**
      * Gets all parcels for a specific driver with POD and inbound payment filters.
@@ -47,4 +84,14 @@ public interface ParcelServiceInterface {
      * @return Page of parcels that are uncalled in the user's office
      */
     Page<Parcel> getUncalledParcels(Pageable pageable);
+
+    /**
+     * Gets uncalled parcels in the user's office with keyset pagination, newest first.
+     *
+     * @param cursor opaque token from the previous page, or null for the first page
+     * @param size page size
+     * @param withTotal if true, also counts all matching parcels
+     * @return CursorPage of uncalled parcels with the cursor for the next page
+     */
+    CursorPage<Parcel> getUncalledParcels(String cursor, int size, boolean withTotal);
 }
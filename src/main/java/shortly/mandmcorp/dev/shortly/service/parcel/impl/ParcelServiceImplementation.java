@@ -1,13 +1,29 @@
 package shortly.mandmcorp.dev.shortly.service.parcel.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -15,15 +31,26 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteError;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
 import shortly.mandmcorp.dev.shortly.dto.request.CancelationReasonRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ParcelUpdateRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeRowResult;
+import shortly.mandmcorp.dev.shortly.dto.response.CachedCountPage;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.exceptions.EntityNotFound;
 import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
 import shortly.mandmcorp.dev.shortly.model.CancelationReason;
@@ -34,35 +61,249 @@ import shortly.mandmcorp.dev.shortly.model.User;
 import shortly.mandmcorp.dev.shortly.repository.CancelationReasonRepository;
 import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
 import shortly.mandmcorp.dev.shortly.repository.ParcelRepository;
-import shortly.mandmcorp.dev.shortly.repository.ShelfRepository;
 import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
 import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
+import shortly.mandmcorp.dev.shortly.utils.CsvUtil;
+import shortly.mandmcorp.dev.shortly.utils.CursorPageUtil;
+import shortly.mandmcorp.dev.shortly.utils.ExportWriter;
 import shortly.mandmcorp.dev.shortly.utils.ParcelMapper;
+import shortly.mandmcorp.dev.shortly.utils.QueryCountCache;
+import shortly.mandmcorp.dev.shortly.utils.ShelfRegistry;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 public class ParcelServiceImplementation implements ParcelServiceInterface {
 
+    private static final int BULK_INTAKE_CHUNK_SIZE = 500;
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private static final Map<String, Function<Parcel, Object>> PARCEL_EXPORT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        PARCEL_EXPORT_COLUMNS.put("parcelId", Parcel::getParcelId);
+        PARCEL_EXPORT_COLUMNS.put("officeId", Parcel::getOfficeId);
+        PARCEL_EXPORT_COLUMNS.put("parcelDescription", Parcel::getParcelDescription);
+        PARCEL_EXPORT_COLUMNS.put("senderName", Parcel::getSenderName);
+        PARCEL_EXPORT_COLUMNS.put("senderPhoneNumber", Parcel::getSenderPhoneNumber);
+        PARCEL_EXPORT_COLUMNS.put("receiverName", Parcel::getReceiverName);
+        PARCEL_EXPORT_COLUMNS.put("recieverPhoneNumber", Parcel::getRecieverPhoneNumber);
+        PARCEL_EXPORT_COLUMNS.put("receiverAddress", Parcel::getReceiverAddress);
+        PARCEL_EXPORT_COLUMNS.put("driverName", Parcel::getDriverName);
+        PARCEL_EXPORT_COLUMNS.put("driverPhoneNumber", Parcel::getDriverPhoneNumber);
+        PARCEL_EXPORT_COLUMNS.put("vehicleNumber", Parcel::getVehicleNumber);
+        PARCEL_EXPORT_COLUMNS.put("shelfName", Parcel::getShelfName);
+        PARCEL_EXPORT_COLUMNS.put("isPOD", Parcel::isPOD);
+        PARCEL_EXPORT_COLUMNS.put("isDelivered", Parcel::isDelivered);
+        PARCEL_EXPORT_COLUMNS.put("isParcelAssigned", Parcel::isParcelAssigned);
+        PARCEL_EXPORT_COLUMNS.put("hasCalled", Parcel::isHasCalled);
+        PARCEL_EXPORT_COLUMNS.put("homeDelivery", Parcel::isHomeDelivery);
+        PARCEL_EXPORT_COLUMNS.put("isFragile", Parcel::isFragile);
+        PARCEL_EXPORT_COLUMNS.put("inboundCost", Parcel::getInboundCost);
+        PARCEL_EXPORT_COLUMNS.put("pickUpCost", Parcel::getPickUpCost);
+        PARCEL_EXPORT_COLUMNS.put("deliveryCost", Parcel::getDeliveryCost);
+        PARCEL_EXPORT_COLUMNS.put("storageCost", Parcel::getStorageCost);
+        PARCEL_EXPORT_COLUMNS.put("inboudPayed", Parcel::isInboudPayed);
+        PARCEL_EXPORT_COLUMNS.put("cancelationCount", Parcel::getCancelationCount);
+        PARCEL_EXPORT_COLUMNS.put("createdAt", Parcel::getCreatedAt);
+        PARCEL_EXPORT_COLUMNS.put("updatedAt", Parcel::getUpdatedAt);
+    }
+
     private final ParcelRepository parcelRepository;
     private final ParcelMapper parcelMapper;
     private final OfficeRepository officeRepository;
     private final UserRepository userRepository;
-    private final ShelfRepository shelfRepository;
+    private final ShelfRegistry shelfRegistry;
     private final MongoTemplate mongoTemplate;
     private final CancelationReasonRepository cancelationsReasonRepository;
+    private final QueryCountCache countCache;
+    private final PrincipalCache principalCache;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
 
     @Override
     @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
     public Parcel addParcel(ParcelRequest parcelRequest) {
-      
+        Parcel parcel = prepareParcel(parcelRequest, new HashSet<>());
+        Parcel savedParcel = parcelRepository.save(parcel);
+        countCache.invalidate(savedParcel.getOfficeId());
+        return savedParcel;
+    }
+
+    /**
+     * Streams parcels from an NDJSON or CSV body and inserts them in chunks of
+     * {@value #BULK_INTAKE_CHUNK_SIZE} with unordered bulk writes. Each row gets the same
+     * office and shelf checks as {@link #addParcel}; a failing row is reported and skipped
+     * without stopping the upload. CSV bodies start with a header row of ParcelRequest field names.
+     * If the body cannot be read to the end, the rows of the pending chunk are not inserted and
+     * the report is returned marked incomplete. With an idempotency key each row's parcel id is
+     * derived from the uploader, the key and the row number, so a resent upload skips the rows
+     * that were already stored.
+     */
+    @Override
+    @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
+    public BulkIntakeResponse bulkAddParcels(InputStream input, boolean csv, String idempotencyKey) {
+        List<BulkIntakeRowResult> rows = new ArrayList<>();
+        List<Parcel> chunk = new ArrayList<>(BULK_INTAKE_CHUNK_SIZE);
+        List<BulkIntakeRowResult> chunkRows = new ArrayList<>(BULK_INTAKE_CHUNK_SIZE);
+        Set<String> knownOffices = new HashSet<>();
+        Set<String> touchedOffices = new HashSet<>();
+        String rowIdPrefix = rowIdPrefix(idempotencyKey);
+        boolean complete = true;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            int rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = CsvUtil.parseLine(line);
+                    continue;
+                }
+                BulkIntakeRowResult row = BulkIntakeRowResult.builder().row(++rowNumber).build();
+                rows.add(row);
+                try {
+                    ParcelRequest parcelRequest = csv
+                        ? jsonMapper.convertValue(toCsvRecord(header, CsvUtil.parseLine(line)), ParcelRequest.class)
+                        : jsonMapper.readValue(line, ParcelRequest.class);
+                    Set<ConstraintViolation<ParcelRequest>> violations = validator.validate(parcelRequest);
+                    if (!violations.isEmpty()) {
+                        row.setError(violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining("; ")));
+                        continue;
+                    }
+                    Parcel parcel = prepareParcel(parcelRequest, knownOffices);
+                    parcel.setParcelId(rowIdPrefix == null ? new ObjectId().toHexString() : rowParcelId(rowIdPrefix, rowNumber));
+                    chunk.add(parcel);
+                    chunkRows.add(row);
+                } catch (Exception e) {
+                    row.setError(e.getMessage());
+                }
+                if (chunk.size() >= BULK_INTAKE_CHUNK_SIZE) {
+                    insertChunk(chunk, chunkRows, touchedOffices, rowIdPrefix != null);
+                }
+            }
+            insertChunk(chunk, chunkRows, touchedOffices, rowIdPrefix != null);
+        } catch (IOException e) {
+            // the client may have gone away; store nothing more than what was already committed
+            log.warn("Bulk intake interrupted after {} rows: {}", rows.size(), e.getMessage());
+            complete = false;
+            chunkRows.forEach(row -> row.setError("Upload interrupted before this row was stored"));
+            chunk.clear();
+            chunkRows.clear();
+        } finally {
+            touchedOffices.forEach(countCache::invalidate);
+        }
+
+        int inserted = (int) rows.stream().filter(BulkIntakeRowResult::isInserted).count();
+        int alreadyInserted = (int) rows.stream().filter(BulkIntakeRowResult::isAlreadyInserted).count();
+        log.info("Bulk intake finished: {} rows, {} inserted, {} already inserted", rows.size(), inserted, alreadyInserted);
+        return BulkIntakeResponse.builder()
+            .total(rows.size())
+            .inserted(inserted)
+            .alreadyInserted(alreadyInserted)
+            .failed(rows.size() - inserted - alreadyInserted)
+            .complete(complete)
+            .rows(rows)
+            .build();
+    }
+
+    private void insertChunk(List<Parcel> chunk, List<BulkIntakeRowResult> chunkRows, Set<String> touchedOffices,
+            boolean derivedIds) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Integer> failed = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Parcel.class).insert(chunk).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                BulkIntakeRowResult row = chunkRows.get(error.getIndex());
+                if (derivedIds && isDuplicateId(error)) {
+                    row.setAlreadyInserted(true);
+                    row.setParcelId(chunk.get(error.getIndex()).getParcelId());
+                } else {
+                    row.setError(error.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error inserting bulk intake chunk: ", e);
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(i);
+                chunkRows.get(i).setError("Insert failed");
+            }
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!failed.contains(i)) {
+                chunkRows.get(i).setInserted(true);
+                chunkRows.get(i).setParcelId(chunk.get(i).getParcelId());
+                touchedOffices.add(chunk.get(i).getOfficeId());
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private boolean isDuplicateId(BulkWriteError error) {
+        return error.getCode() == DUPLICATE_KEY_CODE && error.getMessage() != null && error.getMessage().contains("_id_");
+    }
+
+    /**
+     * Scopes an upload's idempotency key to the uploading user, or returns null without a key.
+     */
+    private String rowIdPrefix(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        String userId = "";
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user) {
+            userId = user.getUserId();
+        }
+        return userId + "\n" + idempotencyKey.trim() + "\n";
+    }
+
+    /**
+     * Derives a stable 24 character hex parcel id, the same shape as a generated ObjectId.
+     */
+    private String rowParcelId(String rowIdPrefix, int rowNumber) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest((rowIdPrefix + rowNumber).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Map<String, String> toCsvRecord(List<String> header, List<String> values) {
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                record.put(header.get(i), values.get(i));
+            }
+        }
+        return record;
+    }
 
+    /**
+     * Maps an intake request to a parcel and resolves its office and shelf.
+     *
+     * @param knownOffices office ids already confirmed to exist, extended as offices are checked
+     */
+    private Parcel prepareParcel(ParcelRequest parcelRequest, Set<String> knownOffices) {
         Parcel parcel = parcelMapper.toEntity(parcelRequest,  null);
 
         if (parcelRequest.getOfficeId() != null) {
-            Office office = officeRepository.findById(parcelRequest.getOfficeId())
-                    .orElseThrow(() -> new EntityNotFound("Office not found"));
-            parcel.setOfficeId(office.getId());
+            if (!knownOffices.contains(parcelRequest.getOfficeId())) {
+                Office office = officeRepository.findById(parcelRequest.getOfficeId())
+                        .orElseThrow(() -> new EntityNotFound("Office not found"));
+                knownOffices.add(office.getId());
+            }
+            parcel.setOfficeId(parcelRequest.getOfficeId());
         } else {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth != null && auth.getPrincipal() instanceof User user) {
@@ -72,16 +313,15 @@ public class ParcelServiceImplementation implements ParcelServiceInterface {
         if(parcelRequest.isHasCalled()) {
             parcel.setHasCalled(true);
         } 
-        Shelf shelf = shelfRepository.findById(parcelRequest.getShelfNumber())
+        Shelf shelf = shelfRegistry.find(parcel.getOfficeId(), parcelRequest.getShelfNumber())
                 .orElseThrow(() -> new EntityNotFound("Shelf not found"));
 
-        if( !shelf.getOffice().getId().equals(parcel.getOfficeId())) {
+        if( !shelf.getOfficeId().equals(parcel.getOfficeId())) {
             throw new WrongCredentialsException("Shelf does not belong to the specified office");
         } 
         parcel.setShelfName(shelf.getName());
         parcel.setShelfId(shelf.getId());
-        Parcel savedParcel = parcelRepository.save(parcel);
-        return savedParcel;
+        return parcel;
     }
 
     @Override
@@ -167,13 +407,15 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
     }
 
     if (updateRequest.getShelfNumber() != null) {
-        Shelf shelf = shelfRepository.findById(updateRequest.getShelfNumber())
+        Shelf shelf = shelfRegistry.find(parcel.getOfficeId(), updateRequest.getShelfNumber())
                 .orElseThrow(() -> new EntityNotFound("Shelf not found"));
         parcel.setShelfId(shelf.getId());
         parcel.setShelfName(shelf.getName());
     }
 
-    return parcelRepository.save(parcel);
+    Parcel savedParcel = parcelRepository.save(parcel);
+    countCache.invalidate(savedParcel.getOfficeId());
+    return savedParcel;
 }
 
     @Override
@@ -200,14 +442,69 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
         Pageable pageable,
         boolean isFrontDesk) {
 
-    if (isFrontDesk) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.getPrincipal() instanceof User user) {
-            if (user.getOfficeId() != null) {
-                officeId = user.getOfficeId();
-            }
-        }
+    officeId = resolveOfficeId(officeId, isFrontDesk);
+    Query query = searchParcelsQuery(isPOD, isDelivered, isParcelAssigned, officeId, driverPhoneNumber, hasCalled, false);
+
+    // Apply default sorting BEFORE counting and pagination
+    org.springframework.data.domain.Sort sort;
+    if (pageable.getSort().isSorted()) {
+        sort = pageable.getSort();
+    } else {
+        sort = org.springframework.data.domain.Sort.by(
+            org.springframework.data.domain.Sort.Direction.DESC, "createdAt");
+    }
+    query.with(sort);
+
+    // Count (cached per office for a few seconds), paginate and fetch
+    return countCache.find(query, Parcel.class, officeId, pageable);
+}
+
+    @Override
+    public CursorPage<Parcel> searchParcels(
+        Boolean isPOD,
+        Boolean isDelivered,
+        Boolean isParcelAssigned,
+        String officeId,
+        String driverPhoneNumber,
+        Boolean hasCalled,
+        String cursor,
+        int size,
+        boolean withTotal,
+        boolean isFrontDesk) {
+
+        Query query = searchParcelsQuery(isPOD, isDelivered, isParcelAssigned, officeId, driverPhoneNumber, hasCalled, isFrontDesk);
+        return CursorPageUtil.find(mongoTemplate, query, Parcel.class, "createdAt", "parcelId",
+            Parcel::getCreatedAt, Parcel::getParcelId, cursor, size, withTotal);
     }
+
+    @Override
+    @PreAuthorize("#isFrontDesk ? hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN') : hasRole('ADMIN')")
+    public StreamingResponseBody exportParcels(
+        Boolean isPOD,
+        Boolean isDelivered,
+        Boolean isParcelAssigned,
+        String officeId,
+        String driverPhoneNumber,
+        Boolean hasCalled,
+        boolean isFrontDesk,
+        ExportFormat format) {
+
+        Query query = searchParcelsQuery(isPOD, isDelivered, isParcelAssigned, officeId, driverPhoneNumber, hasCalled, isFrontDesk);
+        // _id order walks the primary key index, so the server never sorts the full result in memory
+        query.with(org.springframework.data.domain.Sort.by("parcelId"));
+        return ExportWriter.stream(mongoTemplate, jsonMapper, query, Parcel.class, format, PARCEL_EXPORT_COLUMNS);
+    }
+
+    private Query searchParcelsQuery(
+        Boolean isPOD,
+        Boolean isDelivered,
+        Boolean isParcelAssigned,
+        String officeId,
+        String driverPhoneNumber,
+        Boolean hasCalled,
+        boolean isFrontDesk) {
+
+    officeId = resolveOfficeId(officeId, isFrontDesk);
     Query query = new Query();
     List<Criteria> criteria = new ArrayList<>();
 
@@ -239,29 +536,23 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
     if (!criteria.isEmpty()) {
         query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
     }
+    return query;
+}
 
-    // Apply default sorting BEFORE counting and pagination
-    org.springframework.data.domain.Sort sort;
-    if (pageable.getSort().isSorted()) {
-        sort = pageable.getSort();
-    } else {
-        sort = org.springframework.data.domain.Sort.by(
-            org.springframework.data.domain.Sort.Direction.DESC, "createdAt");
+    /**
+     * Front desk searches and exports are always scoped to the caller's own office; a caller
+     * without one is refused rather than falling back to the requested or every office.
+     */
+    private String resolveOfficeId(String officeId, boolean isFrontDesk) {
+        if (!isFrontDesk) {
+            return officeId;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user && user.getOfficeId() != null) {
+            return user.getOfficeId();
+        }
+        throw new WrongCredentialsException("User has no office assigned");
     }
-    query.with(sort);
-
-    // Count total documents matching criteria
-    long total = mongoTemplate.count(query, Parcel.class);
-
-    // Apply pagination
-    query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
-    query.limit(pageable.getPageSize());
-
-    // Execute query
-    List<Parcel> parcels = mongoTemplate.find(query, Parcel.class);
-
-    return new PageImpl<>(parcels, pageable, total);
-}
 
     /**
      * Extracts the ObjectId (as hex string) from a DBRef or a nested Document representation.
@@ -305,6 +596,7 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
 
         user.setOfficeId(office.getId());
         userRepository.save(user);
+        principalCache.invalidate(user.getPhoneNumber());
 
         return new UserResponse("Office changed successfully", user.getPhoneNumber());
     }
@@ -351,7 +643,7 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
         query.with(sort);
 
         // Count total documents matching criteria
-        long total = mongoTemplate.count(query, Parcel.class);
+        QueryCountCache.Count count = countCache.count(query, Parcel.class, officeId);
 
         // Apply pagination
         //query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
@@ -360,12 +652,35 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
         // Execute query
         List<Parcel> parcels = mongoTemplate.find(query, Parcel.class);
 
-        return new PageImpl<>(parcels, pageable, total);
+        return new CachedCountPage<>(parcels, pageable, count.getTotal(), count.isCached());
     }
 
     @Override
     public Page<Parcel> getUncalledParcels(Pageable pageable) {
 
+        String officeId = currentOfficeId();
+        Query query = uncalledParcelsQuery(officeId);
+
+        org.springframework.data.domain.Sort sort;
+        if (pageable.getSort().isSorted()) {
+            sort = pageable.getSort();
+        } else {
+            sort = org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC, "createdAt");
+        }
+        query.with(sort);
+
+        // Count (cached per office for a few seconds), paginate and fetch
+        return countCache.find(query, Parcel.class, officeId, pageable);
+    }
+
+    @Override
+    public CursorPage<Parcel> getUncalledParcels(String cursor, int size, boolean withTotal) {
+        return CursorPageUtil.find(mongoTemplate, uncalledParcelsQuery(currentOfficeId()), Parcel.class, "createdAt", "parcelId",
+            Parcel::getCreatedAt, Parcel::getParcelId, cursor, size, withTotal);
+    }
+
+    private String currentOfficeId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof User user)) {
             throw new WrongCredentialsException("User not authenticated");
@@ -375,8 +690,10 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
         if (officeId == null) {
             throw new WrongCredentialsException("User has no office assigned");
         }
+        return officeId;
+    }
 
-
+    private Query uncalledParcelsQuery(String officeId) {
         Query query = new Query();
         List<Criteria> criteria = new ArrayList<>();
 
@@ -385,26 +702,6 @@ public Parcel updateParcel(String parcelId, ParcelUpdateRequest updateRequest) {
         criteria.add(Criteria.where("officeId").is(officeId));
 
         query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
-
-        org.springframework.data.domain.Sort sort;
-        if (pageable.getSort().isSorted()) {
-            sort = pageable.getSort();
-        } else {
-            sort = org.springframework.data.domain.Sort.by(
-                org.springframework.data.domain.Sort.Direction.DESC, "createdAt");
-        }
-        query.with(sort);
-
-        // Count total documents matching criteria
-        long total = mongoTemplate.count(query, Parcel.class);
-
-        // Apply pagination
-        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
-        query.limit(pageable.getPageSize());
-
-        // Execute query
-        List<Parcel> parcels = mongoTemplate.find(query, Parcel.class);
-
-        return new PageImpl<>(parcels, pageable, total);
+        return query;
     }
 }
\ No newline at end of file
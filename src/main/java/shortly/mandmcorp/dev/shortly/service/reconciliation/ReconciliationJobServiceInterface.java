@@ -0,0 +1,27 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation;
+
+import shortly.mandmcorp.dev.shortly.dto.request.ReconcilationRiderRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationJobResponse;
+
+public interface ReconciliationJobServiceInterface {
+
+    /**
+     * Queues a reconciliation to run in the background in checkpointed chunks.
+     * Submitting the same idempotency key again returns the existing job instead of starting a new one.
+     *
+     * @param reconcilationRiderRequest assignment IDs to reconcile and optional reconciliation time
+     * @param idempotencyKey client-chosen key, unique per submitting user
+     * @return the job and its current progress
+     * @throws shortly.mandmcorp.dev.shortly.exceptions.EntityAlreadyExist if the key was used for a different request
+     */
+    ReconciliationJobResponse submit(ReconcilationRiderRequest reconcilationRiderRequest, String idempotencyKey);
+
+    /**
+     * Gets the progress of a reconciliation job.
+     *
+     * @param jobId job to look up
+     * @return the job and its current progress
+     * @throws shortly.mandmcorp.dev.shortly.exceptions.EntityNotFound if the job does not exist or belongs to another office
+     */
+    ReconciliationJobResponse getJob(String jobId);
+}
@@ -0,0 +1,34 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation;
+
+import java.util.Collection;
+
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
+import shortly.mandmcorp.dev.shortly.model.Reconcilations;
+
+public interface ReconciliationTotalsServiceInterface {
+
+    /**
+     * Applies reconciliation rows to the per office, per day rollup with a single bulk upsert.
+     *
+     * @param created rows that were just inserted
+     * @param completed rows that were just flipped to completed
+     */
+    void increment(Collection<Reconcilations> created, Collection<Reconcilations> completed);
+
+    /**
+     * Sums the rollup for an office over whole days after {@code afterDay}, or the raw
+     * reconciliations while the rollup has not been built yet.
+     *
+     * @param officeId office to sum
+     * @param afterDay exclusive epoch day lower bound, or null for all days
+     * @return totals for the matching days
+     */
+    ReconciliationStatsResponse sum(String officeId, Long afterDay);
+
+    /**
+     * Recomputes the whole rollup from the raw reconcilations collection.
+     *
+     * @return number of office/day rows written
+     */
+    int rebuild();
+}
@@ -0,0 +1,159 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.ReconciliationJobConfig;
+import shortly.mandmcorp.dev.shortly.dto.request.ReconcilationRiderRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationJobResponse;
+import shortly.mandmcorp.dev.shortly.enums.ReconciliationJobStatus;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.exceptions.EntityAlreadyExist;
+import shortly.mandmcorp.dev.shortly.exceptions.EntityNotFound;
+import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationJob;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.ReconciliationJobRepository;
+import shortly.mandmcorp.dev.shortly.service.reconciliation.ReconciliationJobServiceInterface;
+
+/**
+ * Accepts large reconciliations as persisted jobs so the HTTP request returns immediately.
+ * The job id is a hash of the submitter and their idempotency key, so a retried submission
+ * collides on {@code _id} and resolves to the original job. Processing is done by
+ * {@link ReconciliationJobWorker}.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class ReconciliationJobServiceImplementation implements ReconciliationJobServiceInterface {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final ReconciliationJobRepository jobRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ReconciliationJobConfig config;
+    private final ReconciliationJobWorker worker;
+
+    @Override
+    @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
+    public ReconciliationJobResponse submit(ReconcilationRiderRequest reconcilationRiderRequest, String idempotencyKey) {
+        User user = currentUser();
+        String key = idempotencyKey == null ? "" : idempotencyKey.trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new ActionNotAllowed("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        List<String> assignmentIds = reconcilationRiderRequest.getAssignmentIds() == null
+            ? new ArrayList<>()
+            : new ArrayList<>(new LinkedHashSet<>(reconcilationRiderRequest.getAssignmentIds()));
+        if (assignmentIds.isEmpty()) {
+            throw new ActionNotAllowed("No assignments to reconcile");
+        }
+        if (assignmentIds.size() > config.getMaxAssignmentIds()) {
+            throw new ActionNotAllowed("A job can reconcile at most " + config.getMaxAssignmentIds() + " assignments");
+        }
+
+        String jobId = sha256(user.getUserId() + ":" + key);
+        String requestHash = sha256(String.join(",", assignmentIds) + "|" + reconcilationRiderRequest.getReconciledAt());
+
+        ReconciliationJob existing = jobRepository.findById(jobId).orElse(null);
+        if (existing != null) {
+            return replay(existing, requestHash);
+        }
+
+        long now = System.currentTimeMillis();
+        ReconciliationJob job = new ReconciliationJob();
+        job.setId(jobId);
+        job.setIdempotencyKey(key);
+        job.setRequestHash(requestHash);
+        job.setSubmittedBy(user.getUserId());
+        job.setOfficeId(user.getOfficeId());
+        job.setAssignmentIds(assignmentIds);
+        job.setReconciledAt(reconcilationRiderRequest.getReconciledAt() != null ? reconcilationRiderRequest.getReconciledAt() : now);
+        job.setStatus(ReconciliationJobStatus.PENDING);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+
+        try {
+            mongoTemplate.insert(job);
+        } catch (DuplicateKeyException e) {
+            // A concurrent retry with the same key got there first
+            return replay(jobRepository.findById(jobId).orElseThrow(() -> e), requestHash);
+        }
+        log.info("Queued reconciliation job {} for {} assignments", jobId, assignmentIds.size());
+        worker.wakeUp();
+        return toResponse(job);
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
+    public ReconciliationJobResponse getJob(String jobId) {
+        User user = currentUser();
+        ReconciliationJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new EntityNotFound("Reconciliation job not found"));
+        if (user.getRole() != UserRole.ADMIN && !Objects.equals(user.getOfficeId(), job.getOfficeId())) {
+            throw new EntityNotFound("Reconciliation job not found");
+        }
+        return toResponse(job);
+    }
+
+    private ReconciliationJobResponse replay(ReconciliationJob existing, String requestHash) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new EntityAlreadyExist("Idempotency key already used for a different reconciliation");
+        }
+        return toResponse(existing);
+    }
+
+    private ReconciliationJobResponse toResponse(ReconciliationJob job) {
+        return ReconciliationJobResponse.builder()
+            .jobId(job.getId())
+            .status(job.getStatus())
+            .total(job.getAssignmentIds().size())
+            .processed(job.getProcessed())
+            .reconciled(job.getReconciled())
+            .missing(job.getMissing())
+            .notEligible(job.getNotEligible())
+            .error(job.getError())
+            .createdAt(job.getCreatedAt())
+            .updatedAt(job.getUpdatedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+
+    private User currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            throw new WrongCredentialsException("User not authenticated");
+        }
+        return user;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
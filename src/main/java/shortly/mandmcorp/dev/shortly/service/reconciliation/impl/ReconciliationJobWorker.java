@@ -0,0 +1,199 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation.impl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.ReconciliationJobConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
+import shortly.mandmcorp.dev.shortly.enums.ReconciliationJobStatus;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationJob;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+
+/**
+ * Background worker that runs queued reconciliation jobs one chunk at a time.
+ * A job is claimed with a lease ({@code reconciliation-jobs.leaseMs}) and the checkpoint is
+ * advanced after each chunk of {@code reconciliation-jobs.chunkSize} assignments, guarded by
+ * the lease owner and the previous checkpoint so a stale worker can never advance it twice.
+ * If the process dies mid-job the lease lapses and the job resumes from its checkpoint on the
+ * next poll, here or on another instance. Re-running the interrupted chunk is safe because
+ * reconciliation is idempotent.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class ReconciliationJobWorker {
+
+    private final MongoTemplate mongoTemplate;
+    private final RiderServiceInterface riderService;
+    private final ReconciliationJobConfig config;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private final Counter chunksCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ReconciliationJobWorker(MongoTemplate mongoTemplate, RiderServiceInterface riderService,
+            ReconciliationJobConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.riderService = riderService;
+        this.config = config;
+        this.chunksCounter = Counter.builder("reconciliation.jobs.chunks").description("Reconciliation job chunks processed").register(meterRegistry);
+        this.completedCounter = Counter.builder("reconciliation.jobs.completed").description("Reconciliation jobs completed").register(meterRegistry);
+        this.failedCounter = Counter.builder("reconciliation.jobs.failed").description("Reconciliation jobs that exhausted their attempts").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::pollLoop, "reconciliation-job-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        // Hand unfinished jobs back straight away instead of waiting for the lease to lapse
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("leaseOwner").is(instanceId).and("status").is(ReconciliationJobStatus.RUNNING)),
+            new Update().set("leaseUntil", 0L).unset("leaseOwner"),
+            ReconciliationJob.class);
+    }
+
+    /**
+     * Signals that a job was queued so it starts without waiting for the next poll.
+     */
+    public void wakeUp() {
+        wakeUp.release();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                ReconciliationJob job = claim();
+                if (job == null) {
+                    wakeUp.tryAcquire(config.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                    continue;
+                }
+                process(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error polling reconciliation jobs: ", e);
+            }
+        }
+    }
+
+    private ReconciliationJob claim() {
+        long now = System.currentTimeMillis();
+        Query query = Query.query(Criteria.where("status").in(ReconciliationJobStatus.PENDING, ReconciliationJobStatus.RUNNING)
+            .and("leaseUntil").lt(now));
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        Update update = new Update()
+            .set("status", ReconciliationJobStatus.RUNNING)
+            .set("leaseOwner", instanceId)
+            .set("leaseUntil", now + config.getLeaseMs())
+            .set("updatedAt", now);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), ReconciliationJob.class);
+    }
+
+    private void process(ReconciliationJob job) {
+        List<String> assignmentIds = job.getAssignmentIds();
+        int processed = job.getProcessed();
+        if (processed > 0) {
+            log.info("Resuming reconciliation job {} at {}/{}", job.getId(), processed, assignmentIds.size());
+        }
+
+        while (running && processed < assignmentIds.size()) {
+            int end = Math.min(processed + Math.max(1, config.getChunkSize()), assignmentIds.size());
+            ReconciliationResponse result;
+            try {
+                result = riderService.reconcileAssignments(assignmentIds.subList(processed, end), job.getSubmittedBy(), job.getReconciledAt());
+            } catch (Exception e) {
+                recordFailure(job, e);
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            boolean done = end == assignmentIds.size();
+            Update update = new Update()
+                .set("processed", end)
+                .inc("reconciled", result.getReconciled().size())
+                .set("leaseUntil", now + config.getLeaseMs())
+                .set("updatedAt", now);
+            if (!result.getMissing().isEmpty()) {
+                update.push("missing").each(result.getMissing().toArray());
+            }
+            if (!result.getNotEligible().isEmpty()) {
+                update.push("notEligible").each(result.getNotEligible().toArray());
+            }
+            if (done) {
+                update.set("status", ReconciliationJobStatus.COMPLETED).set("finishedAt", now).unset("error");
+            }
+
+            if (!advance(job, processed, update)) {
+                log.warn("Lost the lease on reconciliation job {} at {}; another worker took over", job.getId(), processed);
+                return;
+            }
+            chunksCounter.increment();
+            processed = end;
+        }
+        if (processed == assignmentIds.size()) {
+            completedCounter.increment();
+            log.info("Reconciliation job {} completed: {} assignments", job.getId(), assignmentIds.size());
+        }
+    }
+
+    private boolean advance(ReconciliationJob job, int checkpoint, Update update) {
+        Query query = Query.query(Criteria.where("id").is(job.getId())
+            .and("leaseOwner").is(instanceId)
+            .and("processed").is(checkpoint));
+        return mongoTemplate.updateFirst(query, update, ReconciliationJob.class).getModifiedCount() > 0;
+    }
+
+    private void recordFailure(ReconciliationJob job, Exception e) {
+        int attempts = job.getAttempts() + 1;
+        long now = System.currentTimeMillis();
+        Update update = new Update()
+            .set("attempts", attempts)
+            .set("error", e.getMessage())
+            .set("updatedAt", now);
+        if (attempts >= config.getMaxAttempts()) {
+            update.set("status", ReconciliationJobStatus.FAILED).set("finishedAt", now).unset("leaseOwner");
+            failedCounter.increment();
+            log.error("Reconciliation job {} failed after {} attempts: ", job.getId(), attempts, e);
+        } else {
+            // Retry from the checkpoint once the backoff has passed
+            update.set("leaseUntil", now + config.getPollIntervalMs() * attempts);
+            log.warn("Reconciliation job {} attempt {} failed, will retry: {}", job.getId(), attempts, e.getMessage());
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(job.getId()).and("leaseOwner").is(instanceId)),
+            update, ReconciliationJob.class);
+    }
+}
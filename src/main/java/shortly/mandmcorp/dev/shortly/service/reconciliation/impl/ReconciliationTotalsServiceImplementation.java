@@ -0,0 +1,262 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.RenameCollectionOptions;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.MigrationConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationDailyTotal;
+import shortly.mandmcorp.dev.shortly.model.Reconcilations;
+import shortly.mandmcorp.dev.shortly.repository.ReconciliationDailyTotalRepository;
+import shortly.mandmcorp.dev.shortly.service.reconciliation.ReconciliationTotalsServiceInterface;
+
+/**
+ * Maintains the {@code reconciliation_daily_totals} rollup so reconciliation statistics can be
+ * served from at most one small document per office and day instead of scanning raw rows.
+ * The rollup only counts once it has been built from the raw rows: a full rebuild writes a
+ * {@value #SEEDED_ID} marker document along with the totals, the first startup without that
+ * marker runs the rebuild, and until the marker exists {@link #sum} aggregates the raw rows.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReconciliationTotalsServiceImplementation implements ReconciliationTotalsServiceInterface {
+
+    static final String SEEDED_ID = "_seeded";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReconciliationDailyTotalRepository dailyTotalRepository;
+    private final MigrationConfig migrationConfig;
+
+    // the marker is never removed once written, so only its absence is re-checked
+    private volatile boolean seeded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (!migrationConfig.isReconciliationTotalsOnStartup() || isSeeded()) {
+            return;
+        }
+        try {
+            rebuildAll();
+        } catch (RuntimeException e) {
+            // statistics keep coming from the raw rows until a rebuild succeeds
+            log.error("Could not seed reconciliation daily totals; serving statistics from raw reconciliations", e);
+        }
+    }
+
+    @Override
+    public void increment(Collection<Reconcilations> created, Collection<Reconcilations> completed) {
+        Map<String, Update> updates = new LinkedHashMap<>();
+        for (Reconcilations reconcilation : created) {
+            update(updates, reconcilation).inc("totalCount", 1).inc("totalAmount", reconcilation.getAmount());
+        }
+        for (Reconcilations reconcilation : completed) {
+            update(updates, reconcilation).inc("completedCount", 1).inc("completedAmount", reconcilation.getAmount());
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReconciliationDailyTotal.class);
+        updates.forEach((id, update) -> bulk.upsert(Query.query(Criteria.where("id").is(id)), update));
+        bulk.execute();
+    }
+
+    private Update update(Map<String, Update> updates, Reconcilations reconcilation) {
+        long day = ReconciliationDailyTotal.toDay(reconcilation.getCreatedAt());
+        String officeId = reconcilation.getOfficeId();
+        return updates.computeIfAbsent(officeId + "_" + day, id -> new Update()
+            .setOnInsert("officeId", officeId)
+            .setOnInsert("day", day));
+    }
+
+    @Override
+    public ReconciliationStatsResponse sum(String officeId, Long afterDay) {
+        List<ReconciliationDailyTotal> totals = isSeeded()
+            ? afterDay == null
+                ? dailyTotalRepository.findByOfficeId(officeId)
+                : dailyTotalRepository.findByOfficeIdAndDayGreaterThan(officeId, afterDay)
+            : aggregateRaw(officeId, afterDay);
+
+        long completedCount = 0;
+        long totalCount = 0;
+        double completedAmount = 0.0;
+        double totalAmount = 0.0;
+        for (ReconciliationDailyTotal total : totals) {
+            completedCount += total.getCompletedCount();
+            totalCount += total.getTotalCount();
+            completedAmount += total.getCompletedAmount();
+            totalAmount += total.getTotalAmount();
+        }
+
+        return ReconciliationStatsResponse.builder()
+            .completedCount(completedCount)
+            .notCompletedCount(totalCount - completedCount)
+            .completedAmount(completedAmount)
+            .notCompletedAmount(totalAmount - completedAmount)
+            .totalAmount(totalAmount)
+            .totalCount(totalCount)
+            .build();
+    }
+
+    private boolean isSeeded() {
+        if (!seeded) {
+            seeded = mongoTemplate.exists(Query.query(Criteria.where("_id").is(SEEDED_ID)),
+                mongoTemplate.getCollectionName(ReconciliationDailyTotal.class));
+        }
+        return seeded;
+    }
+
+    /**
+     * Computes the rollup rows for one office straight from the raw reconciliations.
+     */
+    private List<ReconciliationDailyTotal> aggregateRaw(String officeId, Long afterDay) {
+        Document match = new Document("officeId", officeId);
+        if (afterDay != null) {
+            match.append("createdAt", new Document("$gte", (afterDay + 1) * ReconciliationDailyTotal.MILLIS_IN_DAY));
+        }
+        List<ReconciliationDailyTotal> totals = new ArrayList<>();
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reconcilations.class))
+                .aggregate(totalsPipeline(match))
+                .allowDiskUse(true)) {
+            totals.add(mongoTemplate.getConverter().read(ReconciliationDailyTotal.class, row));
+        }
+        return totals;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public int rebuild() {
+        return rebuildAll();
+    }
+
+    /**
+     * Recomputes the rollup from raw reconciliations without touching the live collection:
+     * the aggregation writes a staging collection with {@code $out}, which then replaces the
+     * rollup in one {@code renameCollection}. Increments that land on the live collection
+     * while the aggregation runs are lost with it, so the office/days whose rows were
+     * created or reconciled after the rebuild started are recomputed once more afterwards.
+     * The seeded marker goes into the staging collection so it appears together with the totals.
+     */
+    private int rebuildAll() {
+        log.info("Rebuilding reconciliation daily totals");
+        long startedAt = System.currentTimeMillis();
+        String target = mongoTemplate.getCollectionName(ReconciliationDailyTotal.class);
+        String staging = target + "_rebuild";
+
+        List<Document> pipeline = new ArrayList<>(totalsPipeline(new Document("officeId", new Document("$ne", null))));
+        pipeline.add(new Document("$out", staging));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reconcilations.class))
+            .aggregate(pipeline)
+            .allowDiskUse(true)
+            .toCollection();
+
+        IndexOperations stagingIndexes = mongoTemplate.indexOps(staging);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+            .resolveIndexFor(ReconciliationDailyTotal.class)
+            .forEach(stagingIndexes::createIndex);
+
+        MongoCollection<Document> stagingCollection = mongoTemplate.getCollection(staging);
+        stagingCollection.insertOne(new Document("_id", SEEDED_ID).append("seededAt", startedAt));
+        stagingCollection.renameCollection(
+            new MongoNamespace(mongoTemplate.getDb().getName(), target),
+            new RenameCollectionOptions().dropTarget(true));
+
+        seeded = true;
+
+        int caughtUp = catchUp(startedAt);
+        int written = (int) mongoTemplate.getCollection(target).estimatedDocumentCount() - 1;
+        log.info("Rebuilt {} reconciliation daily totals ({} recomputed after the swap)", written, caughtUp);
+        return written;
+    }
+
+    /**
+     * Recomputes, in place, the office/days touched by reconciliations created or reconciled
+     * since {@code since}.
+     *
+     * @return number of office/day rows recomputed
+     */
+    int catchUp(long since) {
+        Query touched = Query.query(new Criteria().orOperator(
+            Criteria.where("createdAt").gte(since),
+            Criteria.where("reconciledAt").gte(since)));
+        touched.fields().include("officeId", "createdAt");
+        Set<String> seen = new HashSet<>();
+        List<Document> keys = new ArrayList<>();
+        for (Reconcilations reconcilation : mongoTemplate.find(touched, Reconcilations.class)) {
+            if (reconcilation.getOfficeId() == null) {
+                continue;
+            }
+            long day = ReconciliationDailyTotal.toDay(reconcilation.getCreatedAt());
+            if (seen.add(reconcilation.getOfficeId() + "_" + day)) {
+                keys.add(new Document("officeId", reconcilation.getOfficeId())
+                    .append("createdAt", new Document("$gte", day * ReconciliationDailyTotal.MILLIS_IN_DAY)
+                        .append("$lt", (day + 1) * ReconciliationDailyTotal.MILLIS_IN_DAY)));
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        List<Document> pipeline = new ArrayList<>(totalsPipeline(new Document("$or", keys)));
+        pipeline.add(new Document("$merge", new Document("into", mongoTemplate.getCollectionName(ReconciliationDailyTotal.class))
+            .append("on", "_id")
+            .append("whenMatched", "replace")
+            .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reconcilations.class))
+            .aggregate(pipeline)
+            .allowDiskUse(true)
+            .toCollection();
+        return keys.size();
+    }
+
+    /**
+     * Groups matching reconciliations into rollup documents keyed {@code officeId_day}.
+     */
+    private static List<Document> totalsPipeline(Document match) {
+        Document day = new Document("$toLong", new Document("$floor", new Document("$divide",
+            List.of(new Document("$ifNull", List.of("$createdAt", 0L)), ReconciliationDailyTotal.MILLIS_IN_DAY))));
+        Document group = new Document("$group", new Document("_id", new Document("officeId", "$officeId").append("day", day))
+            .append("totalCount", new Document("$sum", 1L))
+            .append("totalAmount", new Document("$sum", "$amount"))
+            .append("completedCount", new Document("$sum", new Document("$cond", List.of("$isCompleted", 1L, 0L))))
+            .append("completedAmount", new Document("$sum", new Document("$cond", List.of("$isCompleted", "$amount", 0)))));
+        Document project = new Document("$project", new Document("_id",
+                new Document("$concat", List.of("$_id.officeId", "_", new Document("$toString", "$_id.day"))))
+            .append("officeId", "$_id.officeId")
+            .append("day", "$_id.day")
+            .append("totalCount", 1)
+            .append("totalAmount", new Document("$toDouble", "$totalAmount"))
+            .append("completedCount", 1)
+            .append("completedAmount", new Document("$toDouble", "$completedAmount")));
+        return List.of(new Document("$match", match), group, project);
+    }
+}
@@ -1,28 +1,35 @@
 package shortly.mandmcorp.dev.shortly.service.rider;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import shortly.mandmcorp.dev.shortly.dto.request.DeliveryAssignmentRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.DeliveryStatusUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ReconcilationRiderRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
 import shortly.mandmcorp.dev.shortly.dto.response.DeliveryAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ParcelAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
 import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
 import shortly.mandmcorp.dev.shortly.model.Reconcilations;
 
 public interface RiderServiceInterface {
     /**
      * Assigns multiple parcels to a rider and sends SMS notification.
+     * Parcels that are missing or have not been called are reported instead of failing the batch.
      * 
      * @param assignmentRequest contains rider ID and list of parcel IDs
-     * @return UserResponse with success message
+     * @return ParcelAssignmentResponse with per-parcel outcome
      */
-    UserResponse assignParcelsToRider(DeliveryAssignmentRequest assignmentRequest);
+    ParcelAssignmentResponse assignParcelsToRider(DeliveryAssignmentRequest assignmentRequest);
     
     /**
      * Retrieves delivery assignments for authenticated rider.
@@ -31,6 +38,15 @@ public interface RiderServiceInterface {
      * @return List of delivery assignments with full parcel details
      */
     List<DeliveryAssignmentResponse> getRiderAssignments(boolean onlyUndelivered);
+
+    /**
+     * Retrieves a page of delivery assignments for authenticated rider, sorted by assignedAt descending.
+     * 
+     * @param onlyUndelivered if true, returns only non-delivered assignments
+     * @param pageable pagination parameters
+     * @return Page of delivery assignments with full parcel details
+     */
+    Page<DeliveryAssignmentResponse> getRiderAssignments(boolean onlyUndelivered, Pageable pageable);
     
     /**
      * Updates delivery assignment status with automatic timestamp tracking.
@@ -69,12 +85,25 @@ public interface RiderServiceInterface {
     
     /**
      * Marks multiple delivery assignments as paid for reconciliation.
-     * Uses bulk operations for performance. Non-existent assignment IDs are silently skipped.
+     * Uses set-based bulk operations, so the number of round trips does not grow with the
+     * number of ids. Non-existent assignment IDs are skipped and reported as missing; assignments
+     * that are not delivered yet are skipped and reported as not eligible.
      * 
      * @param reconcilationRiderRequest contains rider ID and list of assignment IDs to reconcile
-     * @return UserResponse with success message
+     * @return ReconciliationResponse listing reconciled, missing and not eligible assignment IDs
      */
-    UserResponse reconcilation(ReconcilationRiderRequest reconcilationRiderRequest);
+    ReconciliationResponse reconcilation(ReconcilationRiderRequest reconcilationRiderRequest);
+
+    /**
+     * Reconciles assignments without reading the security context. Idempotent for the same ids.
+     * Callers must already be authorized.
+     *
+     * @param assignmentIds assignments to reconcile
+     * @param payedTo user id the payments were made to
+     * @param reconciledAt reconciliation timestamp (epoch millis)
+     * @return ReconciliationResponse listing reconciled, missing and not eligible assignment IDs
+     */
+    ReconciliationResponse reconcileAssignments(Collection<String> assignmentIds, String payedTo, long reconciledAt);
 
     /**
      * get all assignment by status with pagination
@@ -84,6 +113,16 @@ public interface RiderServiceInterface {
      */
     Page<DeliveryAssignments> getOrderAssignmentByStatus(DeliveryStatus status, Pageable pageable);
 
+    /**
+     * get assignments by status with keyset pagination, newest first
+     * @param status delivery status to filter
+     * @param cursor opaque token from the previous page, or null for the first page
+     * @param size page size
+     * @param withTotal if true, also counts all matching assignments
+     * @return CursorPage of delivery assignments
+     */
+    CursorPage<DeliveryAssignments> getOrderAssignmentByStatus(DeliveryStatus status, String cursor, int size, boolean withTotal);
+
     /**
      * resend confirmation code to receiver
      * @param assignmentId
@@ -98,6 +137,16 @@ public interface RiderServiceInterface {
      */
     Page<DeliveryAssignments> getAcitveAssignments(Pageable pageable, boolean payed);
 
+    /**
+     * get active assignments in an office with keyset pagination, newest first
+     * @param payed : a toggle for choosing weather we shold return all payed all not
+     * @param cursor opaque token from the previous page, or null for the first page
+     * @param size page size
+     * @param withTotal if true, also counts all matching assignments
+     * @return CursorPage of delivery assignments
+     */
+    CursorPage<DeliveryAssignments> getAcitveAssignments(boolean payed, String cursor, int size, boolean withTotal);
+
     /**
      * Gets all cancelled delivery assignments in the user's office.
      *
@@ -106,6 +155,16 @@ public interface RiderServiceInterface {
      */
     Page<DeliveryAssignments> getCancelledDeliveryAssignments(Pageable pageable);
 
+    /**
+     * Gets cancelled delivery assignments in the user's office with keyset pagination.
+     *
+     * @param cursor opaque token from the previous page, or null for the first page
+     * @param size page size
+     * @param withTotal if true, also counts all matching assignments
+     * @return CursorPage of cancelled delivery assignments sorted by assignedAt descending
+     */
+    CursorPage<DeliveryAssignments> getCancelledDeliveryAssignments(String cursor, int size, boolean withTotal);
+
     /**
      * Gets reconciliation statistics for the user's office.
      *
@@ -121,4 +180,33 @@ public interface RiderServiceInterface {
      */
     List<Reconcilations> getRiderReconciliations();
 
+    /**
+     * Exports delivery assignments streamed from a Mongo cursor.
+     *
+     * @param status optional status filter
+     * @param payed optional payment filter
+     * @param officeId office to export; ignored for front desk callers, who always get their own office
+     * @param from optional inclusive lower bound on assignedAt (epoch millis)
+     * @param to optional exclusive upper bound on assignedAt (epoch millis)
+     * @param isFrontDesk true to scope the export to the caller's office; false exports every office and requires ADMIN
+     * @param format NDJSON or CSV
+     * @return response body that writes the assignments in _id order
+     */
+    StreamingResponseBody exportAssignments(DeliveryStatus status, Boolean payed, String officeId, Long from, Long to,
+                                            boolean isFrontDesk, ExportFormat format);
+
+    /**
+     * Exports reconciliations streamed from a Mongo cursor.
+     *
+     * @param isCompleted optional completion filter
+     * @param officeId office to export; ignored for front desk callers, who always get their own office
+     * @param from optional inclusive lower bound on createdAt (epoch millis)
+     * @param to optional exclusive upper bound on createdAt (epoch millis)
+     * @param isFrontDesk true to scope the export to the caller's office; false exports every office and requires ADMIN
+     * @param format NDJSON or CSV
+     * @return response body that writes the reconciliations in _id order
+     */
+    StreamingResponseBody exportReconciliations(Boolean isCompleted, String officeId, Long from, Long to,
+                                                boolean isFrontDesk, ExportFormat format);
+
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package shortly.mandmcorp.dev.shortly.service.rider.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -17,21 +29,35 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
 
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
 import shortly.mandmcorp.dev.shortly.dto.request.DeliveryAssignmentRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.DeliveryStatusUpdateRequest;
 import shortly.mandmcorp.dev.shortly.dto.request.ReconcilationRiderRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.CachedCountPage;
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
 import shortly.mandmcorp.dev.shortly.dto.response.DeliveryAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ParcelAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
 import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
 import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
 import shortly.mandmcorp.dev.shortly.enums.ReconcilationType;
 import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
 import shortly.mandmcorp.dev.shortly.exceptions.EntityNotFound;
 import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
 import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
 import shortly.mandmcorp.dev.shortly.model.Parcel;
 import shortly.mandmcorp.dev.shortly.model.ParcelInfo;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationDailyTotal;
 import shortly.mandmcorp.dev.shortly.model.Reconcilations;
 import shortly.mandmcorp.dev.shortly.model.RiderInfo;
 import shortly.mandmcorp.dev.shortly.model.User;
@@ -42,10 +68,15 @@ import shortly.mandmcorp.dev.shortly.repository.ReconcilationRepository;
 import shortly.mandmcorp.dev.shortly.repository.UserRepository;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationInterface;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationRequestTemplate;
+import shortly.mandmcorp.dev.shortly.service.reconciliation.ReconciliationTotalsServiceInterface;
 import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+import shortly.mandmcorp.dev.shortly.service.routing.RouteSequencingServiceInterface;
+import shortly.mandmcorp.dev.shortly.utils.CursorPageUtil;
+import shortly.mandmcorp.dev.shortly.utils.ExportWriter;
 import shortly.mandmcorp.dev.shortly.utils.NotificationUtil;
 import shortly.mandmcorp.dev.shortly.utils.OtpUtil;
 import shortly.mandmcorp.dev.shortly.utils.ParcelMapper;
+import shortly.mandmcorp.dev.shortly.utils.QueryCountCache;
 
 
 /**
@@ -69,10 +100,55 @@ public class RiderServiceImplementation implements RiderServiceInterface {
     private final CancelationReasonRepository cancelationReasonRepo;
     private final DeliveryAssignmentsRepository deliveryRepository;
     private final ReconcilationRepository reconcilationRepository;
+    private final ReconciliationTotalsServiceInterface reconciliationTotals;
+    private final QueryCountCache countCache;
+    private final JsonMapper jsonMapper;
+    private final RouteSequencingServiceInterface routeSequencing;
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private static final Map<String, Function<DeliveryAssignments, Object>> ASSIGNMENT_EXPORT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Reconcilations, Object>> RECONCILIATION_EXPORT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ASSIGNMENT_EXPORT_COLUMNS.put("assignmentId", DeliveryAssignments::getAssignmentId);
+        ASSIGNMENT_EXPORT_COLUMNS.put("officeId", DeliveryAssignments::getOfficeId);
+        ASSIGNMENT_EXPORT_COLUMNS.put("status", DeliveryAssignments::getStatus);
+        ASSIGNMENT_EXPORT_COLUMNS.put("riderId", a -> a.getRiderInfo() != null ? a.getRiderInfo().getRiderId() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("riderName", a -> a.getRiderInfo() != null ? a.getRiderInfo().getRiderName() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("riderPhoneNumber", a -> a.getRiderInfo() != null ? a.getRiderInfo().getRiderPhoneNumber() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("parcelId", a -> a.getParcelInfo() != null ? a.getParcelInfo().getParcelId() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("receiverName", a -> a.getParcelInfo() != null ? a.getParcelInfo().getReceiverName() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("receiverPhoneNumber", a -> a.getParcelInfo() != null ? a.getParcelInfo().getReceiverPhoneNumber() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("receiverAddress", a -> a.getParcelInfo() != null ? a.getParcelInfo().getReceiverAddress() : null);
+        ASSIGNMENT_EXPORT_COLUMNS.put("payementMethod", DeliveryAssignments::getPayementMethod);
+        ASSIGNMENT_EXPORT_COLUMNS.put("payed", DeliveryAssignments::isPayed);
+        ASSIGNMENT_EXPORT_COLUMNS.put("cancelationReason", DeliveryAssignments::getCancelationReason);
+        ASSIGNMENT_EXPORT_COLUMNS.put("assignedAt", DeliveryAssignments::getAssignedAt);
+        ASSIGNMENT_EXPORT_COLUMNS.put("acceptedAt", DeliveryAssignments::getAcceptedAt);
+        ASSIGNMENT_EXPORT_COLUMNS.put("completedAt", DeliveryAssignments::getCompletedAt);
+
+        RECONCILIATION_EXPORT_COLUMNS.put("id", Reconcilations::getId);
+        RECONCILIATION_EXPORT_COLUMNS.put("assignmentId", Reconcilations::getAssignmentId);
+        RECONCILIATION_EXPORT_COLUMNS.put("parcelId", Reconcilations::getParcelId);
+        RECONCILIATION_EXPORT_COLUMNS.put("officeId", Reconcilations::getOfficeId);
+        RECONCILIATION_EXPORT_COLUMNS.put("type", Reconcilations::getType);
+        RECONCILIATION_EXPORT_COLUMNS.put("amount", Reconcilations::getAmount);
+        RECONCILIATION_EXPORT_COLUMNS.put("isCompleted", Reconcilations::isCompleted);
+        RECONCILIATION_EXPORT_COLUMNS.put("riderId", Reconcilations::getRiderId);
+        RECONCILIATION_EXPORT_COLUMNS.put("riderName", Reconcilations::getRiderName);
+        RECONCILIATION_EXPORT_COLUMNS.put("riderPhoneNumber", Reconcilations::getRiderPhoneNumber);
+        RECONCILIATION_EXPORT_COLUMNS.put("payer", Reconcilations::getPayer);
+        RECONCILIATION_EXPORT_COLUMNS.put("payedTo", Reconcilations::getPayedTo);
+        RECONCILIATION_EXPORT_COLUMNS.put("createdAt", Reconcilations::getCreatedAt);
+        RECONCILIATION_EXPORT_COLUMNS.put("reconciledAt", Reconcilations::getReconciledAt);
+    }
 
     public RiderServiceImplementation(DeliveryAssignmentsRepository deliveryAssignmentsRepository, UserRepository userRepository, ParcelRepository parcelRepository, 
         @Qualifier("smsNotification") NotificationInterface notification, ParcelMapper parcelMapper, MongoTemplate mongoTemplate, 
-        CancelationReasonRepository cancelationReasonRepo, DeliveryAssignmentsRepository deliveryRepo, ReconcilationRepository reconcilationRepository  ) {
+        CancelationReasonRepository cancelationReasonRepo, DeliveryAssignmentsRepository deliveryRepo, ReconcilationRepository reconcilationRepository,
+        ReconciliationTotalsServiceInterface reconciliationTotals, QueryCountCache countCache, JsonMapper jsonMapper,
+        RouteSequencingServiceInterface routeSequencing) {
         this.deliveryAssignmentsRepository = deliveryAssignmentsRepository;
         this.userRepository = userRepository;
         this.parcelRepository = parcelRepository;
@@ -82,19 +158,25 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         this.cancelationReasonRepo = cancelationReasonRepo;
         this.deliveryRepository = deliveryRepo;
         this.reconcilationRepository = reconcilationRepository;
+        this.reconciliationTotals = reconciliationTotals;
+        this.countCache = countCache;
+        this.jsonMapper = jsonMapper;
+        this.routeSequencing = routeSequencing;
     }
     
     /**
      * Assigns multiple parcels to a rider.
-     * Creates delivery assignments and sends SMS notification to rider.
+     * Loads all requested parcels with a single query, builds the delivery assignments and
+     * reconciliation rows in memory and writes each collection in one round trip.
+     * Sends SMS notification to the receivers and the rider.
      * 
      * @param assignmentRequest contains rider ID and list of parcel IDs
-     * @return UserResponse with success message
-     * @throws EntityNotFound if rider or parcel not found
+     * @return ParcelAssignmentResponse listing assigned, not called and not found parcel IDs
+     * @throws EntityNotFound if rider not found
      */
     @Override
     @PreAuthorize("hasRole('FRONTDESK') or hasRole('ADMIN') or hasRole('MANAGER')")
-    public UserResponse assignParcelsToRider(DeliveryAssignmentRequest assignmentRequest) {
+    public ParcelAssignmentResponse assignParcelsToRider(DeliveryAssignmentRequest assignmentRequest) {
         log.info("Assigning {} parcels to rider: {}", assignmentRequest.getParcelIds().size(), assignmentRequest.getRiderId());
         
         User rider = userRepository.findById(assignmentRequest.getRiderId())
@@ -106,25 +188,37 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         } else {
             officeManager = rider;
         }
+
+        Set<String> parcelIds = new LinkedHashSet<>(assignmentRequest.getParcelIds());
+        Map<String, Parcel> parcelsById = new HashMap<>();
+        for(Parcel parcel : parcelRepository.findAllById(parcelIds)) {
+            parcelsById.put(parcel.getParcelId(), parcel);
+        }
+
+        RiderInfo riderInfo = RiderInfo.builder()
+            .riderId(rider.getUserId())
+            .riderName(rider.getName())
+            .riderPhoneNumber(rider.getPhoneNumber())
+            .build();
+
         long assignedAt = System.currentTimeMillis();
-        String confirmationCode = "";
-        for(String parcelId : assignmentRequest.getParcelIds()) {
-            Parcel parcel = parcelRepository.findById(parcelId)
-                .orElseThrow(() -> new EntityNotFound("Parcel not found: " + parcelId));
+        List<String> notFound = new ArrayList<>();
+        List<String> notCalled = new ArrayList<>();
+        List<Parcel> assignedParcels = new ArrayList<>();
+        List<DeliveryAssignments> assignments = new ArrayList<>();
+        for(String parcelId : parcelIds) {
+            Parcel parcel = parcelsById.get(parcelId);
+            if(parcel == null) {
+                log.warn("Parcel {} not found. Skipping assignment.", parcelId);
+                notFound.add(parcelId);
+                continue;
+            }
             if(!parcel.isHasCalled() ||!parcel.isHomeDelivery()) {
                 log.warn("Parcel {} has not been called. Skipping assignment.", parcelId);
+                notCalled.add(parcelId);
                 continue;
             }
-            confirmationCode = OtpUtil.generateOtp();
 
-            // Create embedded RiderInfo
-            RiderInfo riderInfo = RiderInfo.builder()
-                .riderId(rider.getUserId())
-                .riderName(rider.getName())
-                .riderPhoneNumber(rider.getPhoneNumber())
-                .build();
-
-            // Create embedded ParcelInfo
             ParcelInfo parcelInfo = ParcelInfo.builder()
                 .parcelId(parcel.getParcelId())
                 .parcelDescription(parcel.getParcelDescription())
@@ -140,36 +234,63 @@ public class RiderServiceImplementation implements RiderServiceInterface {
             assignment.setOfficeId(rider.getOfficeId());
             assignment.setParcelInfo(parcelInfo);
             assignment.setStatus(DeliveryStatus.ASSIGNED);
-            assignment.setConfirmationCode(confirmationCode);
+            assignment.setConfirmationCode(OtpUtil.generateOtp());
             assignment.setAssignedAt(assignedAt);
-            parcel.setParcelAssigned(true);
-            deliveryAssignmentsRepository.save(assignment);
-            parcelRepository.save(parcel);
-
-            Reconcilations reconcilation = new Reconcilations();
-            reconcilation.setAssignmentId(assignment.getAssignmentId());
-            double amount = parcel.getDeliveryCost() + parcel.getInboundCost();
-            reconcilation.setAmount(amount);
-            reconcilation.setOfficeId(rider.getOfficeId());
-            reconcilation.setRiderName(rider.getName());
-            reconcilation.setRiderId(rider.getUserId());
-            reconcilation.setRiderPhoneNumber(rider.getPhoneNumber());
-            reconcilation.setParcelId(parcel.getParcelId());
-            reconcilation.setCreatedAt(System.currentTimeMillis());
-            reconcilationRepository.save(reconcilation);
-        
-        String notifyReceiverSmsMessage = NotificationUtil.generateAssignmentMessgeCustomer(officeManager.getPhoneNumber(), rider.getName(), confirmationCode, parcel.getReceiverName(), parcel.getParcelId());
-        NotificationRequestTemplate notify = NotificationRequestTemplate.builder().body(notifyReceiverSmsMessage)
-        .to(parcel.getRecieverPhoneNumber()).build();
-        notification.send(notify);
-            
+            assignments.add(assignment);
+            assignedParcels.add(parcel);
+        }
+
+        List<String> assigned = assignedParcels.stream().map(Parcel::getParcelId).collect(Collectors.toList());
+        if(!assignments.isEmpty()) {
+            // insertAll populates the generated ids, which the reconciliation rows reference
+            mongoTemplate.insertAll(assignments);
+
+            mongoTemplate.updateMulti(
+                Query.query(Criteria.where("parcelId").in(assigned)),
+                new Update().set("isParcelAssigned", true).set("updatedAt", assignedAt),
+                Parcel.class);
+
+            List<Reconcilations> reconcilations = new ArrayList<>(assignments.size());
+            for(int i = 0; i < assignments.size(); i++) {
+                Parcel parcel = assignedParcels.get(i);
+                Reconcilations reconcilation = new Reconcilations();
+                reconcilation.setAssignmentId(assignments.get(i).getAssignmentId());
+                reconcilation.setAmount(parcel.getDeliveryCost() + parcel.getInboundCost());
+                reconcilation.setOfficeId(rider.getOfficeId());
+                reconcilation.setRiderName(rider.getName());
+                reconcilation.setRiderId(rider.getUserId());
+                reconcilation.setRiderPhoneNumber(rider.getPhoneNumber());
+                reconcilation.setParcelId(parcel.getParcelId());
+                reconcilation.setCreatedAt(assignedAt);
+                reconcilations.add(reconcilation);
+            }
+            mongoTemplate.insertAll(reconcilations);
+            reconciliationTotals.increment(reconcilations, List.of());
+            countCache.invalidate(rider.getOfficeId());
+            routeSequencing.assignmentsAdded(rider.getUserId(), assignments);
+        }
+
+        for(int i = 0; i < assignments.size(); i++) {
+            Parcel parcel = assignedParcels.get(i);
+            String notifyReceiverSmsMessage = NotificationUtil.generateAssignmentMessgeCustomer(officeManager.getPhoneNumber(), rider.getName(), assignments.get(i).getConfirmationCode(), parcel.getReceiverName(), parcel.getParcelId());
+            NotificationRequestTemplate notify = NotificationRequestTemplate.builder().body(notifyReceiverSmsMessage)
+            .to(parcel.getRecieverPhoneNumber()).build();
+            notification.send(notify);
         }
         
-        log.info("Successfully assigned {} parcels to rider: {}", assignmentRequest.getParcelIds().size(), rider.getName());
-        NotificationRequestTemplate notify = NotificationRequestTemplate.builder().body(NotificationUtil.genrateRiderAssMsg(rider.getName(), assignmentRequest.getParcelIds().size()))
-        .to(rider.getPhoneNumber()).build();
-        notification.send(notify);
-        return new UserResponse("Parcels assigned successfully", rider.getPhoneNumber());
+        log.info("Assigned {} parcels to rider: {} ({} not called, {} not found)", assigned.size(), rider.getName(), notCalled.size(), notFound.size());
+        if(!assigned.isEmpty()) {
+            NotificationRequestTemplate notify = NotificationRequestTemplate.builder().body(NotificationUtil.genrateRiderAssMsg(rider.getName(), assigned.size()))
+            .to(rider.getPhoneNumber()).build();
+            notification.send(notify);
+        }
+        return ParcelAssignmentResponse.builder()
+            .message("Parcels assigned successfully")
+            .id(rider.getPhoneNumber())
+            .assigned(assigned)
+            .notCalled(notCalled)
+            .notFound(notFound)
+            .build();
     }
 
     /**
@@ -191,7 +312,46 @@ public class RiderServiceImplementation implements RiderServiceInterface {
             ? deliveryAssignmentsRepository.findByRiderInfoRiderIdAndStatusNot(rider.getUserId(), DeliveryStatus.DELIVERED)
             : deliveryAssignmentsRepository.findByRiderInfoRiderId(rider.getUserId());
 
-        return assignments.stream().map(this::toDeliveryAssignmentResponse).collect(Collectors.toList());
+        return toDeliveryAssignmentResponses(assignments);
+    }
+
+    /**
+     * Retrieves a page of assignments for authenticated rider, newest first.
+     * 
+     * @param onlyUndelivered if true, returns only non-delivered assignments
+     * @param pageable pagination parameters
+     * @return Page of delivery assignments with full parcel details
+     * @throws WrongCredentialsException if user not authenticated
+     */
+    @Override
+    public Page<DeliveryAssignmentResponse> getRiderAssignments(boolean onlyUndelivered, Pageable pageable) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if(auth == null || !(auth.getPrincipal() instanceof User)) {
+            throw new WrongCredentialsException("User not authenticated");
+        }
+
+        User rider = (User) auth.getPrincipal();
+        Query query = new Query(Criteria.where("riderInfo.riderId").is(rider.getUserId()));
+        if(onlyUndelivered) {
+            query.addCriteria(Criteria.where("status").ne(DeliveryStatus.DELIVERED));
+        }
+
+        org.springframework.data.domain.Sort sort;
+        if (pageable.getSort().isSorted()) {
+            sort = pageable.getSort();
+        } else {
+            sort = org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC, "assignedAt");
+        }
+        query.with(sort);
+
+        QueryCountCache.Count count = countCache.count(query, DeliveryAssignments.class, rider.getOfficeId());
+
+        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
+        query.limit(pageable.getPageSize());
+
+        List<DeliveryAssignments> assignments = mongoTemplate.find(query, DeliveryAssignments.class);
+        return new CachedCountPage<>(toDeliveryAssignmentResponses(assignments), pageable, count.getTotal(), count.isCached());
     }
 
     /**
@@ -203,6 +363,7 @@ public class RiderServiceImplementation implements RiderServiceInterface {
      * @return UserResponse with success message
      * @throws EntityNotFound if assignment not found
      * @throws WrongCredentialsException if not authorized
+     * @throws ActionNotAllowed if the assignment cannot move to the requested status
      */
     @Override
     public UserResponse updateDeliveryStatus(String assignmentId, DeliveryStatusUpdateRequest statusRequest) {
@@ -212,59 +373,7 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         }
         
         User rider = (User) auth.getPrincipal();
-        DeliveryAssignments assignment = deliveryAssignmentsRepository.findById(assignmentId)
-            .orElseThrow(() -> new EntityNotFound("Assignment not found"));
-
-        // Check if rider is authorized using embedded RiderInfo
-        String assignedRiderId = assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderId() : null;
-        if(assignedRiderId == null || !assignedRiderId.equals(rider.getUserId())) {
-            throw new WrongCredentialsException("Not authorized to update this assignment");
-        }
-
-        assignment.setStatus(statusRequest.getStatus());
-        if(statusRequest.getStatus() == DeliveryStatus.DELIVERED) {
-            assignment.setCompletedAt(System.currentTimeMillis());
-           /* if( !statusRequest.getConfirmationCode().equals(assignment.getConfirmationCode())) {
-                throw new ActionNotAllowed("Invalid  confirmation code");
-            } */
-
-            // Fetch and update the parcel using parcelId from embedded ParcelInfo
-            String parcelId = assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null;
-            if(parcelId != null) {
-                Parcel parcel = parcelRepository.findById(parcelId)
-                    .orElseThrow(() -> new EntityNotFound("Parcel not found"));
-
-                parcel.setDelivered(true);
-                parcelRepository.save(parcel);
-
-                String message = NotificationUtil.generateParcelStatusUpdateMsg(parcel.getParcelId(), "DELIVERED");
-                NotificationRequestTemplate notify = NotificationRequestTemplate.builder()
-                    .body(message)
-                    .to(parcel.getDriverPhoneNumber())
-                    .build();
-                notification.send(notify);
-            }
-
-            assignment.setStatus(DeliveryStatus.DELIVERED);
-            assignment.setPayed(true);
-            assignment.setPayementMethod(statusRequest.getPayementMethod());
-        }
-        else if(statusRequest.getStatus() == DeliveryStatus.CANCELLED) {
-            // Fetch and update the parcel using parcelId from embedded ParcelInfo
-            String parcelId = assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null;
-            if(parcelId != null) {
-                Parcel parcel = parcelRepository.findById(parcelId)
-                    .orElseThrow(() -> new EntityNotFound("Parcel not found"));
-
-                assignment.setCancelationReason(statusRequest.getCancelationReason());
-                assignment.setStatus(DeliveryStatus.CANCELLED);
-                parcel.setCancelationCount(parcel.getCancelationCount() + 1);
-                parcel.setDelivered(false);
-                parcel.setParcelAssigned(false);
-                parcelRepository.save(parcel);
-            }
-        }
-        deliveryAssignmentsRepository.save(assignment);
+        transitionStatus(assignmentId, statusRequest, rider.getUserId());
         return new UserResponse("Delivery status updated successfully", rider.getPhoneNumber());
     }
 
@@ -277,6 +386,7 @@ public class RiderServiceImplementation implements RiderServiceInterface {
      * @return UserResponse with success message
      * @throws EntityNotFound if assignment not found
      * @throws WrongCredentialsException if not authorized
+     * @throws ActionNotAllowed if the assignment cannot move to the requested status
      */
     @Override
     //manager or admin
@@ -286,55 +396,116 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         if(auth == null || !(auth.getPrincipal() instanceof User)) {
             throw new WrongCredentialsException("User not authenticated");
         }
-        
-        User manager = (User) auth.getPrincipal();
-        DeliveryAssignments assignment = deliveryAssignmentsRepository.findById(assignmentId)
-            .orElseThrow(() -> new EntityNotFound("Assignment not found"));
 
-        assignment.setStatus(statusRequest.getStatus());
-        if(statusRequest.getStatus() == DeliveryStatus.DELIVERED) {
-            assignment.setCompletedAt(System.currentTimeMillis());
-
-            // Fetch and update the parcel using parcelId from embedded ParcelInfo
-            String parcelId = assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null;
-            if(parcelId != null) {
-                Parcel parcel = parcelRepository.findById(parcelId)
-                    .orElseThrow(() -> new EntityNotFound("Parcel not found"));
-
-                parcel.setDelivered(true);
-                parcelRepository.save(parcel);
-
-                String message = NotificationUtil.generateParcelStatusUpdateMsg(parcel.getParcelId(), "DELIVERED");
-                NotificationRequestTemplate notify = NotificationRequestTemplate.builder()
-                    .body(message)
-                    .to(parcel.getDriverPhoneNumber())
-                    .build();
-                notification.send(notify);
+        DeliveryAssignments assignment = transitionStatus(assignmentId, statusRequest, null);
+
+        // Get rider phone from embedded RiderInfo
+        String riderPhone = assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderPhoneNumber() : "";
+        return new UserResponse("Delivery status updated successfully", riderPhone);
+    }
+
+    /**
+     * Moves an assignment to the requested status with a single conditional findAndModify.
+     * The update only matches while the assignment is in a status allowed to move to the target
+     * (see {@link DeliveryStatus#canMoveTo}), so when a rider and a manager act at once exactly
+     * one of them wins and the other gets a conflict instead of overwriting it. A request for the
+     * status the assignment is already in returns it unchanged, so retries are harmless. Only the
+     * changed fields are written; the parcel is then updated in place without being read first.
+     *
+     * @param riderId if set, the assignment must belong to this rider; riders cannot reset an
+     *        assignment to ASSIGNED or mark it COMPLETED
+     * @return the assignment after the update
+     */
+    private DeliveryAssignments transitionStatus(String assignmentId, DeliveryStatusUpdateRequest statusRequest, String riderId) {
+        DeliveryStatus target = statusRequest.getStatus();
+        long now = System.currentTimeMillis();
+        if (target == DeliveryStatus.ASSIGNED && riderId != null) {
+            throw new ActionNotAllowed("Only a manager can reset an assignment to ASSIGNED");
+        }
+        // completion means the cash was handed in, which only the office can confirm
+        if (target == DeliveryStatus.COMPLETED && riderId != null) {
+            throw new ActionNotAllowed("Only a manager or reconciliation can complete an assignment");
+        }
+
+        Criteria guard = Criteria.where("assignmentId").is(assignmentId).and("status").in(target.previousStatuses());
+        if (riderId != null) {
+            guard.and("riderInfo.riderId").is(riderId);
+        }
+
+        Update update = new Update().set("status", target).set("updatedAt", now);
+        if (target == DeliveryStatus.ASSIGNED) {
+            update.set("acceptedAt", 0L);
+        } else if (target == DeliveryStatus.ACCEPTED) {
+            update.set("acceptedAt", now);
+        } else if (target == DeliveryStatus.DELIVERED) {
+            update.set("completedAt", now).set("payed", true);
+            // Riders record how the receiver paid; manager overrides leave it untouched
+            if (riderId != null) {
+                update.set("payementMethod", statusRequest.getPayementMethod());
             }
+        } else if (target == DeliveryStatus.CANCELLED) {
+            update.set("cancelationReason", statusRequest.getCancelationReason());
+        }
 
-            assignment.setStatus(DeliveryStatus.DELIVERED);
-            assignment.setPayed(true);
+        DeliveryAssignments assignment = mongoTemplate.findAndModify(Query.query(guard), update,
+            FindAndModifyOptions.options().returnNew(true), DeliveryAssignments.class);
+        if (assignment == null) {
+            return unchangedOrRejected(assignmentId, target, riderId);
         }
-        else if(statusRequest.getStatus() == DeliveryStatus.CANCELLED) {
-            // Fetch and update the parcel using parcelId from embedded ParcelInfo
-            String parcelId = assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null;
-            if(parcelId != null) {
-                Parcel parcel = parcelRepository.findById(parcelId)
-                    .orElseThrow(() -> new EntityNotFound("Parcel not found"));
 
-                assignment.setCancelationReason(statusRequest.getCancelationReason());
-                parcel.setDelivered(false);
-                parcel.setParcelAssigned(false);
-                parcelRepository.save(parcel);
+        String parcelId = assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null;
+        if (parcelId != null && target == DeliveryStatus.DELIVERED) {
+            Parcel parcel = updateParcel(parcelId, new Update().set("isDelivered", true));
+            String message = NotificationUtil.generateParcelStatusUpdateMsg(parcel.getParcelId(), "DELIVERED");
+            NotificationRequestTemplate notify = NotificationRequestTemplate.builder()
+                .body(message)
+                .to(parcel.getDriverPhoneNumber())
+                .build();
+            notification.send(notify);
+        } else if (parcelId != null && target == DeliveryStatus.CANCELLED) {
+            Update parcelUpdate = new Update().set("isDelivered", false).set("isParcelAssigned", false);
+            if (riderId != null) {
+                parcelUpdate.inc("cancelationCount", 1);
             }
+            updateParcel(parcelId, parcelUpdate);
         }
-        deliveryAssignmentsRepository.save(assignment);
 
-        // Get rider phone from embedded RiderInfo
-        String riderPhone = assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderPhoneNumber() : "";
-        return new UserResponse("Delivery status updated successfully", riderPhone);
+        if (target == DeliveryStatus.DELIVERED || target == DeliveryStatus.CANCELLED) {
+            routeSequencing.assignmentClosed(assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderId() : null, assignmentId);
+        }
+        countCache.invalidate(assignment.getOfficeId());
+        return assignment;
+    }
+
+    private Parcel updateParcel(String parcelId, Update update) {
+        Query query = Query.query(Criteria.where("parcelId").is(parcelId));
+        query.fields().include("parcelId", "driverPhoneNumber");
+        Parcel parcel = mongoTemplate.findAndModify(query, update.set("updatedAt", System.currentTimeMillis()),
+            FindAndModifyOptions.options().returnNew(true), Parcel.class);
+        if (parcel == null) {
+            throw new EntityNotFound("Parcel not found");
+        }
+        return parcel;
     }
 
+    /**
+     * Works out why the guarded update matched nothing. An assignment already in the target
+     * status is returned as is, without repeating the side effects of the first request.
+     */
+    private DeliveryAssignments unchangedOrRejected(String assignmentId, DeliveryStatus target, String riderId) {
+        DeliveryAssignments current = deliveryAssignmentsRepository.findById(assignmentId).orElse(null);
+        if (current == null) {
+            throw new EntityNotFound("Assignment not found");
+        }
+        String assignedRiderId = current.getRiderInfo() != null ? current.getRiderInfo().getRiderId() : null;
+        if (riderId != null && !riderId.equals(assignedRiderId)) {
+            throw new WrongCredentialsException("Not authorized to update this assignment");
+        }
+        if (current.getStatus() == target) {
+            return current;
+        }
+        throw new ActionNotAllowed("Cannot change assignment status from " + current.getStatus() + " to " + target);
+    }
 
     /**
      * Searches rider's undelivered assignments by receiver phone number.
@@ -356,14 +527,39 @@ public class RiderServiceImplementation implements RiderServiceInterface {
 
     }
 
+    /**
+     * Converts DeliveryAssignments entities to response DTOs.
+     * Loads every referenced parcel with a single query and joins them in memory.
+     * 
+     * @param assignments delivery assignment entities
+     * @return DeliveryAssignmentResponse list in the same order as the assignments
+     */
+    private List<DeliveryAssignmentResponse> toDeliveryAssignmentResponses(List<DeliveryAssignments> assignments) {
+        Set<String> parcelIds = assignments.stream()
+            .filter(assignment -> assignment.getParcelInfo() != null && assignment.getParcelInfo().getParcelId() != null)
+            .map(assignment -> assignment.getParcelInfo().getParcelId())
+            .collect(Collectors.toSet());
+
+        Map<String, Parcel> parcelsById = new HashMap<>();
+        if(!parcelIds.isEmpty()) {
+            for(Parcel parcel : parcelRepository.findAllById(parcelIds)) {
+                parcelsById.put(parcel.getParcelId(), parcel);
+            }
+        }
+
+        return assignments.stream()
+            .map(assignment -> toDeliveryAssignmentResponse(assignment, parcelsById))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Converts DeliveryAssignments entity to response DTO.
-     * Populates full parcel details using ParcelMapper.
      * 
      * @param assignment delivery assignment entity
+     * @param parcelsById preloaded parcels keyed by parcel ID
      * @return DeliveryAssignmentResponse with populated data
      */
-    private DeliveryAssignmentResponse toDeliveryAssignmentResponse(DeliveryAssignments assignment) {
+    private DeliveryAssignmentResponse toDeliveryAssignmentResponse(DeliveryAssignments assignment, Map<String, Parcel> parcelsById) {
         DeliveryAssignmentResponse response = new DeliveryAssignmentResponse();
         response.setAssignmentId(assignment.getAssignmentId());
 
@@ -373,10 +569,8 @@ public class RiderServiceImplementation implements RiderServiceInterface {
             response.setRiderId(assignment.getRiderInfo().getRiderId());
         }
 
-        // Fetch and set the full Parcel object if needed by the response
         if (assignment.getParcelInfo() != null && assignment.getParcelInfo().getParcelId() != null) {
-            Parcel parcel = parcelRepository.findById(assignment.getParcelInfo().getParcelId()).orElse(null);
-            response.setParcel(parcel);
+            response.setParcel(parcelsById.get(assignment.getParcelInfo().getParcelId()));
         }
 
         response.setStatus(assignment.getStatus());
@@ -415,6 +609,27 @@ public class RiderServiceImplementation implements RiderServiceInterface {
     @Override
     @PreAuthorize("hasRole('FRONTDESK') or hasRole('MANAGER') or hasRole('ADMIN')")
     public Page<DeliveryAssignments> getOrderAssignmentByStatus(DeliveryStatus status, Pageable pageable) {
+        Query query = orderAssignmentByStatusQuery(status);
+
+        org.springframework.data.domain.Sort sort;
+        if (pageable.getSort().isSorted()) {
+            sort = pageable.getSort();
+        } else {
+            sort = org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC, "assignedAt");
+        }
+        query.with(sort);
+
+        return countCache.find(query, DeliveryAssignments.class, principalOfficeId(), pageable);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('FRONTDESK') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public CursorPage<DeliveryAssignments> getOrderAssignmentByStatus(DeliveryStatus status, String cursor, int size, boolean withTotal) {
+        return findAssignmentsByCursor(orderAssignmentByStatusQuery(status), cursor, size, withTotal);
+    }
+
+    private Query orderAssignmentByStatusQuery(DeliveryStatus status) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if(auth == null || !(auth.getPrincipal() instanceof User)) {
             throw new WrongCredentialsException("User not authenticated");
@@ -429,35 +644,32 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         criteria.add(Criteria.where("officeId").is(frontDesk.getOfficeId()));
 
         query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        return query;
+    }
 
-        org.springframework.data.domain.Sort sort;
-        if (pageable.getSort().isSorted()) {
-            sort = pageable.getSort();
-        } else {
-            sort = org.springframework.data.domain.Sort.by(
-                org.springframework.data.domain.Sort.Direction.DESC, "assignedAt");
-        }
-        query.with(sort);
-
-        long total = mongoTemplate.count(query, DeliveryAssignments.class);
-
-        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
-        query.limit(pageable.getPageSize());
+    private String principalOfficeId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof User user ? user.getOfficeId() : null;
+    }
 
-        List<DeliveryAssignments> assignments = mongoTemplate.find(query, DeliveryAssignments.class);
-        return new PageImpl<>(assignments, pageable, total);
+    private CursorPage<DeliveryAssignments> findAssignmentsByCursor(Query query, String cursor, int size, boolean withTotal) {
+        return CursorPageUtil.find(mongoTemplate, query, DeliveryAssignments.class, "assignedAt", "assignmentId",
+            DeliveryAssignments::getAssignedAt, DeliveryAssignments::getAssignmentId, cursor, size, withTotal);
     }
 
     /**
      * Marks multiple delivery assignments as paid for reconciliation.
-     * Uses MongoDB bulk operations for efficient batch updates.
-     * Non-existent assignment IDs are silently skipped without errors.
+     * Runs as a fixed number of set-based operations whatever the number of ids: one {@code $in}
+     * fetch of the assignments, one of their existing reconciliations (needed to keep the daily
+     * totals exact), one bulk upsert of reconciliations keyed by the unique assignmentId and one
+     * multi-document assignment update.
+     * Non-existent assignment IDs are skipped and reported as missing.
      * 
      * @param reconcilationRiderRequest contains rider ID and list of assignment IDs
-     * @return UserResponse with success message
+     * @return ReconciliationResponse listing reconciled and missing assignment IDs
      */
     @Override
-    public UserResponse reconcilation(ReconcilationRiderRequest reconcilationRiderRequest) {
+    public ReconciliationResponse reconcilation(ReconcilationRiderRequest reconcilationRiderRequest) {
         log.info("Starting reconciliation for rider");
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -471,41 +683,137 @@ public class RiderServiceImplementation implements RiderServiceInterface {
             ? reconcilationRiderRequest.getReconciledAt()
             : System.currentTimeMillis();
 
-    BulkOperations bulk =
-        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeliveryAssignments.class);
-
-    for (String id : reconcilationRiderRequest.getAssignmentIds()) {
+        return reconcileAssignments(reconcilationRiderRequest.getAssignmentIds(), frontDesk.getUserId(), reconciledAtTimestamp);
+    }
 
-    Update update = new Update()
-            .set("status", DeliveryStatus.COMPLETED.name())
-            .set("payed", true);
-    bulk.updateOne(
-            Query.query(Criteria.where("assignmentId").is(id)),
-            update
-    );
+    /**
+     * Reconciles a set of assignments on behalf of {@code payedTo}. Safe to re-run for the same
+     * ids, also concurrently: reconciliations are upserted only while not completed, and the daily
+     * totals only count the rows this call's upserts inserted or completed.
+     * Only assignments that may move to COMPLETED (see {@link DeliveryStatus#canMoveTo}), or that
+     * already are completed, are reconciled; the rest are reported as not eligible.
+     * Callers must already be authorized; reconciliation jobs call this from a background worker.
+     */
+    @Override
+    public ReconciliationResponse reconcileAssignments(Collection<String> assignmentIds, String payedTo, long reconciledAtTimestamp) {
+        Set<String> requestedIds = assignmentIds != null
+            ? new LinkedHashSet<>(assignmentIds)
+            : new LinkedHashSet<>();
+        if (requestedIds.isEmpty()) {
+            return ReconciliationResponse.builder()
+                .message("No assignments to reconcile")
+                .reconciled(List.of())
+                .missing(List.of())
+                .notEligible(List.of())
+                .build();
+        }
 
-    Reconcilations reconcilation = reconcilationRepository.findByAssignmentId(id)
-            .orElse(new Reconcilations());
+        Query assignmentsQuery = Query.query(Criteria.where("assignmentId").in(requestedIds));
+        assignmentsQuery.fields().include("assignmentId", "officeId", "status", "parcelInfo.parcelId", "riderInfo");
+        Map<String, DeliveryAssignments> assignmentsById = mongoTemplate.find(assignmentsQuery, DeliveryAssignments.class)
+            .stream()
+            .collect(Collectors.toMap(DeliveryAssignments::getAssignmentId, a -> a));
+
+        List<DeliveryStatus> completable = DeliveryStatus.COMPLETED.previousStatuses();
+        List<String> reconciled = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<String> notEligible = new ArrayList<>();
+        for (String id : requestedIds) {
+            DeliveryAssignments assignment = assignmentsById.get(id);
+            if (assignment == null) {
+                missing.add(id);
+            } else if (assignment.getStatus() == DeliveryStatus.COMPLETED || completable.contains(assignment.getStatus())) {
+                reconciled.add(id);
+            } else {
+                notEligible.add(id);
+            }
+        }
+        if (reconciled.isEmpty()) {
+            return ReconciliationResponse.builder()
+                .message("No matching assignments found")
+                .reconciled(reconciled)
+                .missing(missing)
+                .notEligible(notEligible)
+                .build();
+        }
 
-    DeliveryAssignments assignment = deliveryAssignmentsRepository.findById(id).orElse(null);
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reconcilations.class);
+        Set<String> offices = new HashSet<>();
+
+        for (String id : reconciled) {
+            DeliveryAssignments assignment = assignmentsById.get(id);
+            RiderInfo riderInfo = assignment.getRiderInfo();
+            Update update = new Update()
+                .set("payedTo", payedTo)
+                .set("type", ReconcilationType.RIDER)
+                .set("parcelId", assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null)
+                .set("riderId", riderInfo != null ? riderInfo.getRiderId() : null)
+                .set("riderName", riderInfo != null ? riderInfo.getRiderName() : null)
+                .set("riderPhoneNumber", riderInfo != null ? riderInfo.getRiderPhoneNumber() : null)
+                .set("officeId", assignment.getOfficeId())
+                .set("isCompleted", true)
+                .set("reconciledAt", reconciledAtTimestamp)
+                .setOnInsert("createdAt", reconciledAtTimestamp)
+                .setOnInsert("amount", 0.0);
+            // A completed row does not match, so its upsert hits the unique assignmentId index
+            upserts.upsert(Query.query(Criteria.where("assignmentId").is(id).and("isCompleted").ne(true)), update);
+            offices.add(assignment.getOfficeId());
+        }
 
-    if (assignment != null) {
-        reconcilation.setAssignmentId(id);
-        reconcilation.setPayedTo(frontDesk.getUserId());
-        reconcilation.setType(ReconcilationType.RIDER);
-        reconcilation.setParcelId(assignment.getParcelInfo() != null ? assignment.getParcelInfo().getParcelId() : null);
-        reconcilation.setRiderId(assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderId() : null);
-        reconcilation.setRiderName(assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderName() : null);
-        reconcilation.setRiderPhoneNumber(assignment.getRiderInfo() != null ? assignment.getRiderInfo().getRiderPhoneNumber() : null);
-        reconcilation.setOfficeId(assignment.getOfficeId());
-        reconcilation.setCompleted(true);
-        reconcilation.setReconciledAt(reconciledAtTimestamp);
+        // Daily totals only see the rows this call inserted or flipped to completed, so
+        // concurrent reconciles of the same ids count each row once
+        Set<Integer> alreadyCompleted = new HashSet<>();
+        BulkWriteResult result;
+        try {
+            result = upserts.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_CODE) {
+                    throw e;
+                }
+                alreadyCompleted.add(error.getIndex());
+            }
+            result = e.getResult();
+        }
+        Set<Integer> inserted = result.getUpserts().stream().map(BulkWriteUpsert::getIndex).collect(Collectors.toSet());
+
+        List<Reconcilations> created = new ArrayList<>();
+        List<Reconcilations> completed = new ArrayList<>();
+        List<String> flipped = new ArrayList<>();
+        for (int i = 0; i < reconciled.size(); i++) {
+            String id = reconciled.get(i);
+            if (inserted.contains(i)) {
+                Reconcilations row = new Reconcilations();
+                row.setAssignmentId(id);
+                row.setOfficeId(assignmentsById.get(id).getOfficeId());
+                row.setCreatedAt(reconciledAtTimestamp);
+                created.add(row);
+                completed.add(row);
+            } else if (!alreadyCompleted.contains(i)) {
+                flipped.add(id);
+            }
+        }
+        if (!flipped.isEmpty()) {
+            // amount and createdAt are never changed by reconciliation, so reading them afterwards is safe
+            Query flippedQuery = Query.query(Criteria.where("assignmentId").in(flipped));
+            flippedQuery.fields().include("assignmentId", "amount", "officeId", "createdAt");
+            completed.addAll(mongoTemplate.find(flippedQuery, Reconcilations.class));
+        }
 
-        reconcilationRepository.save(reconcilation);
-    }
-    }
-    bulk.execute();
-    return new UserResponse("Reconciliation completed successfully", null);
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("assignmentId").in(reconciled).and("status").in(completable)),
+            new Update().set("status", DeliveryStatus.COMPLETED).set("payed", true).set("updatedAt", System.currentTimeMillis()),
+            DeliveryAssignments.class);
+
+        reconciliationTotals.increment(created, completed);
+        offices.forEach(countCache::invalidate);
+        log.info("Reconciled {} assignments, {} missing, {} not eligible", reconciled.size(), missing.size(), notEligible.size());
+        return ReconciliationResponse.builder()
+            .message("Reconciliation completed successfully")
+            .reconciled(reconciled)
+            .missing(missing)
+            .notEligible(notEligible)
+            .build();
     }
 
 
@@ -529,14 +837,27 @@ public class RiderServiceImplementation implements RiderServiceInterface {
 
     @Override
     public Page<DeliveryAssignments> getAcitveAssignments(Pageable pageable, boolean payed) {
-        /*Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if(auth == null || !(auth.getPrincipal() instanceof User)) {
-            throw new WrongCredentialsException("User not authenticated");
+        Query query = activeAssignmentsQuery(payed);
+
+        org.springframework.data.domain.Sort sort;
+        if (pageable.getSort().isSorted()) {
+            sort = pageable.getSort();
+        } else {
+            sort = org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC, "assignedAt");
         }
-        User frontDesk = (User) auth.getPrincipal();
+        query.with(sort);
+
+        // Count (cached per office for a few seconds), paginate and fetch
+        return countCache.find(query, DeliveryAssignments.class, principalOfficeId(), pageable);
+    }
+
+    @Override
+    public CursorPage<DeliveryAssignments> getAcitveAssignments(boolean payed, String cursor, int size, boolean withTotal) {
+        return findAssignmentsByCursor(activeAssignmentsQuery(payed), cursor, size, withTotal);
+    }
 
-        return this.deliveryRepository.findByPayedAndOfficeId(payed, frontDesk.getOfficeId());
-        */
+    private Query activeAssignmentsQuery(boolean payed) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof User user)) {
             throw new WrongCredentialsException("User not authenticated");
@@ -556,6 +877,12 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         criteria.add(Criteria.where("officeId").is(officeId));
 
         query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        return query;
+    }
+
+    @Override
+    public Page<DeliveryAssignments> getCancelledDeliveryAssignments(Pageable pageable) {
+        Query query = cancelledAssignmentsQuery();
 
         org.springframework.data.domain.Sort sort;
         if (pageable.getSort().isSorted()) {
@@ -566,21 +893,16 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         }
         query.with(sort);
 
-        // Count total documents matching criteria
-        long total = mongoTemplate.count(query, DeliveryAssignments.class);
-
-        // Apply pagination
-        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
-        query.limit(pageable.getPageSize());
-
-        // Execute query
-        List<DeliveryAssignments> assignments = mongoTemplate.find(query, DeliveryAssignments.class);
-
-        return new PageImpl<>(assignments, pageable, total);
+        // Count (cached per office for a few seconds), paginate and fetch
+        return countCache.find(query, DeliveryAssignments.class, principalOfficeId(), pageable);
     }
 
     @Override
-    public Page<DeliveryAssignments> getCancelledDeliveryAssignments(Pageable pageable) {
+    public CursorPage<DeliveryAssignments> getCancelledDeliveryAssignments(String cursor, int size, boolean withTotal) {
+        return findAssignmentsByCursor(cancelledAssignmentsQuery(), cursor, size, withTotal);
+    }
+
+    private Query cancelledAssignmentsQuery() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof User user)) {
             throw new WrongCredentialsException("User not authenticated");
@@ -599,31 +921,11 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         criteria.add(Criteria.where("officeId").is(officeId));
 
         query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
-
-        org.springframework.data.domain.Sort sort;
-        if (pageable.getSort().isSorted()) {
-            sort = pageable.getSort();
-        } else {
-            sort = org.springframework.data.domain.Sort.by(
-                org.springframework.data.domain.Sort.Direction.DESC, "assignedAt");
-        }
-        query.with(sort);
-
-        // Count total documents matching criteria
-        long total = mongoTemplate.count(query, DeliveryAssignments.class);
-
-        // Apply pagination
-        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
-        query.limit(pageable.getPageSize());
-
-        // Execute query
-        List<DeliveryAssignments> assignments = mongoTemplate.find(query, DeliveryAssignments.class);
-
-        return new PageImpl<>(assignments, pageable, total);
+        return query;
     }
 
     @Override
-    public shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse getReconciliationStats(String period) {
+    public ReconciliationStatsResponse getReconciliationStats(String period) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof User user)) {
             throw new WrongCredentialsException("User not authenticated");
@@ -637,32 +939,52 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         // Calculate time range based on period
         Long startTime = calculateStartTime(period);
 
-        Query query = new Query();
-        query.addCriteria(Criteria.where("officeId").is(officeId));
-
-        if (startTime != null) {
-            query.addCriteria(Criteria.where("createdAt").gte(startTime));
+        if (startTime == null) {
+            return reconciliationTotals.sum(officeId, null);
         }
 
-        List<shortly.mandmcorp.dev.shortly.model.Reconcilations> reconciliations =
-            mongoTemplate.find(query, shortly.mandmcorp.dev.shortly.model.Reconcilations.class);
+        // Whole days come from the daily rollup; only the partial first day is aggregated from raw rows
+        long startDay = ReconciliationDailyTotal.toDay(startTime);
+        ReconciliationStatsResponse fullDays = reconciliationTotals.sum(officeId, startDay);
+        ReconciliationStatsResponse partialDay = aggregateReconciliations(Criteria.where("officeId").is(officeId)
+            .and("createdAt").gte(startTime).lt((startDay + 1) * ReconciliationDailyTotal.MILLIS_IN_DAY));
+
+        return ReconciliationStatsResponse.builder()
+            .completedCount(fullDays.getCompletedCount() + partialDay.getCompletedCount())
+            .notCompletedCount(fullDays.getNotCompletedCount() + partialDay.getNotCompletedCount())
+            .completedAmount(fullDays.getCompletedAmount() + partialDay.getCompletedAmount())
+            .notCompletedAmount(fullDays.getNotCompletedAmount() + partialDay.getNotCompletedAmount())
+            .totalAmount(fullDays.getTotalAmount() + partialDay.getTotalAmount())
+            .totalCount(fullDays.getTotalCount() + partialDay.getTotalCount())
+            .build();
+    }
+
+    private ReconciliationStatsResponse aggregateReconciliations(Criteria match) {
+        // Grouped server side on office_created_idx; only one row per completion state comes back
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(match),
+            Aggregation.group("isCompleted").count().as("count").sum("amount").as("amount")
+        );
+        AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, Reconcilations.class, Document.class);
 
         long completedCount = 0;
         long notCompletedCount = 0;
         double completedAmount = 0.0;
         double notCompletedAmount = 0.0;
 
-        for (shortly.mandmcorp.dev.shortly.model.Reconcilations reconciliation : reconciliations) {
-            if (reconciliation.isCompleted()) {
-                completedCount++;
-                completedAmount += reconciliation.getAmount();
+        for (Document group : results.getMappedResults()) {
+            long count = ((Number) group.get("count")).longValue();
+            double amount = group.get("amount") != null ? ((Number) group.get("amount")).doubleValue() : 0.0;
+            if (Boolean.TRUE.equals(group.get("_id"))) {
+                completedCount += count;
+                completedAmount += amount;
             } else {
-                notCompletedCount++;
-                notCompletedAmount += reconciliation.getAmount();
+                notCompletedCount += count;
+                notCompletedAmount += amount;
             }
         }
 
-        return shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse.builder()
+        return ReconciliationStatsResponse.builder()
             .completedCount(completedCount)
             .notCompletedCount(notCompletedCount)
             .completedAmount(completedAmount)
@@ -702,6 +1024,73 @@ public class RiderServiceImplementation implements RiderServiceInterface {
         return reconcilationRepository.findByRiderId(user.getUserId(), sort);
     }
 
+    @Override
+    @PreAuthorize("#isFrontDesk ? hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN') : hasRole('ADMIN')")
+    public StreamingResponseBody exportAssignments(DeliveryStatus status, Boolean payed, String officeId, Long from, Long to,
+            boolean isFrontDesk, ExportFormat format) {
+        List<Criteria> criteria = new ArrayList<>();
+        String scopedOfficeId = exportOfficeId(officeId, isFrontDesk);
+        if (scopedOfficeId != null) {
+            criteria.add(Criteria.where("officeId").is(scopedOfficeId));
+        }
+        if (status != null) {
+            criteria.add(Criteria.where("status").is(status));
+        }
+        if (payed != null) {
+            criteria.add(Criteria.where("payed").is(payed));
+        }
+        addRange(criteria, "assignedAt", from, to);
 
+        Query query = exportQuery(criteria, "assignmentId");
+        return ExportWriter.stream(mongoTemplate, jsonMapper, query, DeliveryAssignments.class, format, ASSIGNMENT_EXPORT_COLUMNS);
+    }
 
-}
\ No newline at end of file
+    @Override
+    @PreAuthorize("#isFrontDesk ? hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN') : hasRole('ADMIN')")
+    public StreamingResponseBody exportReconciliations(Boolean isCompleted, String officeId, Long from, Long to,
+            boolean isFrontDesk, ExportFormat format) {
+        List<Criteria> criteria = new ArrayList<>();
+        String scopedOfficeId = exportOfficeId(officeId, isFrontDesk);
+        if (scopedOfficeId != null) {
+            criteria.add(Criteria.where("officeId").is(scopedOfficeId));
+        }
+        if (isCompleted != null) {
+            criteria.add(Criteria.where("isCompleted").is(isCompleted));
+        }
+        addRange(criteria, "createdAt", from, to);
+
+        Query query = exportQuery(criteria, "id");
+        return ExportWriter.stream(mongoTemplate, jsonMapper, query, Reconcilations.class, format, RECONCILIATION_EXPORT_COLUMNS);
+    }
+
+    private String exportOfficeId(String officeId, boolean isFrontDesk) {
+        if (!isFrontDesk) {
+            return officeId;
+        }
+        String principalOffice = principalOfficeId();
+        if (principalOffice == null) {
+            throw new WrongCredentialsException("User has no office assigned");
+        }
+        return principalOffice;
+    }
+
+    private void addRange(List<Criteria> criteria, String field, Long from, Long to) {
+        if (from != null && to != null) {
+            criteria.add(Criteria.where(field).gte(from).lt(to));
+        } else if (from != null) {
+            criteria.add(Criteria.where(field).gte(from));
+        } else if (to != null) {
+            criteria.add(Criteria.where(field).lt(to));
+        }
+    }
+
+    private Query exportQuery(List<Criteria> criteria, String idField) {
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+        // _id order walks the primary key index, so the server never sorts the full result in memory
+        query.with(org.springframework.data.domain.Sort.by(idField));
+        return query;
+    }
+}
@@ -0,0 +1,41 @@
+package shortly.mandmcorp.dev.shortly.service.routing;
+
+import java.util.List;
+
+import shortly.mandmcorp.dev.shortly.dto.response.RouteResponse;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+
+public interface RouteSequencingServiceInterface {
+
+    /**
+     * Returns the authenticated rider's open assignments in visiting order.
+     * The route is cached per rider and patched as assignments are added or closed.
+     *
+     * @param refresh if true, recompute from the rider's current position instead of the cache
+     * @return ordered stops, plus stops whose address is not in the geocode table
+     */
+    RouteResponse getMyRoute(boolean refresh);
+
+    /**
+     * Inserts newly created assignments into the rider's cached route, if one is cached.
+     *
+     * @param riderId rider the assignments were given to
+     * @param assignments the inserted assignments
+     */
+    void assignmentsAdded(String riderId, List<DeliveryAssignments> assignments);
+
+    /**
+     * Removes a delivered or cancelled assignment from the rider's cached route, if one is cached.
+     *
+     * @param riderId rider the assignment belonged to
+     * @param assignmentId the closed assignment
+     */
+    void assignmentClosed(String riderId, String assignmentId);
+
+    /**
+     * Reloads the geocode table and drops every cached route.
+     *
+     * @return number of places loaded
+     */
+    int reloadGeocodes();
+}
@@ -0,0 +1,131 @@
+package shortly.mandmcorp.dev.shortly.service.routing.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.RouteSequencingConfig;
+
+/**
+ * In-memory address geocode table loaded from {@code route-sequencing.geocodeTable}.
+ * Each line is {@code latitude,longitude,place}; the place may itself contain commas and is
+ * matched case and whitespace insensitively. An address resolves to its full text if listed,
+ * otherwise to its most specific listed suffix ("12 Oxford St, Osu, Accra" falls back to
+ * "Osu, Accra" and then "Accra"). The table is swapped atomically on reload.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class GeocodeTable {
+
+    private final RouteSequencingConfig config;
+    private final ResourceLoader resourceLoader;
+
+    private volatile Map<String, double[]> places = Map.of();
+
+    public GeocodeTable(RouteSequencingConfig config, ResourceLoader resourceLoader) {
+        this.config = config;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (IOException e) {
+            log.warn("Geocode table {} could not be loaded, routes will list stops unlocated: {}", config.getGeocodeTable(), e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the configured table file and replaces the current table.
+     *
+     * @return number of places loaded
+     * @throws IOException if the file cannot be read
+     */
+    public int reload() throws IOException {
+        Resource resource = resourceLoader.getResource(config.getGeocodeTable());
+        Map<String, double[]> loaded = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",", 3);
+                if (parts.length < 3 || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    double latitude = Double.parseDouble(parts[0].trim());
+                    double longitude = Double.parseDouble(parts[1].trim());
+                    String key = normalize(parts[2]);
+                    if (!key.isEmpty() && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180) {
+                        loaded.put(key, new double[] {latitude, longitude});
+                    } else {
+                        skipped++;
+                    }
+                } catch (NumberFormatException e) {
+                    // header row or malformed line
+                    skipped++;
+                }
+            }
+        }
+        places = Map.copyOf(loaded);
+        log.info("Loaded {} geocodes from {} ({} lines skipped)", loaded.size(), config.getGeocodeTable(), skipped);
+        return loaded.size();
+    }
+
+    /**
+     * @param address receiver address as captured at intake
+     * @return {@code [latitude, longitude]}, or null if neither the address nor any suffix is listed
+     */
+    public double[] lookup(String address) {
+        if (address == null) {
+            return null;
+        }
+        Map<String, double[]> table = places;
+        String key = normalize(address);
+        while (!key.isEmpty()) {
+            double[] point = table.get(key);
+            if (point != null) {
+                return point;
+            }
+            int comma = key.indexOf(',');
+            if (comma < 0) {
+                return null;
+            }
+            key = key.substring(comma + 1).trim();
+        }
+        return null;
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    static String normalize(String place) {
+        StringBuilder key = new StringBuilder(place.length());
+        for (String segment : place.toLowerCase(Locale.ROOT).split(",")) {
+            String trimmed = segment.trim().replaceAll("\\s+", " ");
+            if (!trimmed.isEmpty()) {
+                if (key.length() > 0) {
+                    key.append(", ");
+                }
+                key.append(trimmed);
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package shortly.mandmcorp.dev.shortly.service.routing.impl;
+
+/**
+ * Open-path stop ordering: nearest neighbour construction followed by 2-opt improvement.
+ * Points are {@code [latitude, longitude]} and are projected once onto a local plane
+ * (equirectangular around the first point), which is accurate to well under a percent at
+ * city scale and keeps each distance to a multiply-add. Index 0 is the fixed start
+ * (the rider or office position) and the path does not return to it.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+final class RouteSequencer {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double EPSILON = 1e-9;
+
+    private final double[] x;
+    private final double[] y;
+
+    RouteSequencer(double[][] points) {
+        int n = points.length;
+        x = new double[n];
+        y = new double[n];
+        double cosLat = n > 0 ? Math.cos(Math.toRadians(points[0][0])) : 1;
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.toRadians(points[i][1]) * cosLat * EARTH_RADIUS_KM;
+            y[i] = Math.toRadians(points[i][0]) * EARTH_RADIUS_KM;
+        }
+    }
+
+    /**
+     * Full sequencing from scratch, O(n^2) per 2-opt pass.
+     *
+     * @return visiting order over all point indices, starting with 0
+     */
+    int[] sequence(int maxPasses) {
+        int[] order = nearestNeighbour();
+        twoOpt(order, 1, order.length - 1, maxPasses);
+        return order;
+    }
+
+    int[] nearestNeighbour() {
+        int n = x.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        if (n == 0) {
+            return order;
+        }
+        visited[0] = true;
+        for (int step = 1; step < n; step++) {
+            int from = order[step - 1];
+            int best = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate]) {
+                    double d = distance(from, candidate);
+                    if (d < bestDistance) {
+                        bestDistance = d;
+                        best = candidate;
+                    }
+                }
+            }
+            order[step] = best;
+            visited[best] = true;
+        }
+        return order;
+    }
+
+    /**
+     * Position at which inserting {@code point} into the open path {@code order} adds the
+     * least distance; the point goes before the returned position.
+     */
+    int cheapestInsertion(int[] order, int point) {
+        int bestPosition = order.length;
+        double bestCost = distance(order[order.length - 1], point);
+        for (int position = 1; position < order.length; position++) {
+            int previous = order[position - 1];
+            int next = order[position];
+            double cost = distance(previous, point) + distance(point, next) - distance(previous, next);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestPosition = position;
+            }
+        }
+        return bestPosition;
+    }
+
+    /**
+     * First-improvement 2-opt over segment reversals whose first edge starts in
+     * {@code [from, to]}. Passing the whole range gives the classic O(n^2) pass; passing a
+     * window around a changed stop repairs the route locally in O(window x n).
+     *
+     * @return true if the order changed
+     */
+    boolean twoOpt(int[] order, int from, int to, int maxPasses) {
+        int last = order.length - 1;
+        from = Math.max(1, from);
+        to = Math.min(last, to);
+        boolean changed = false;
+        boolean improved = true;
+        for (int pass = 0; improved && pass < maxPasses; pass++) {
+            improved = false;
+            for (int i = from; i <= to; i++) {
+                int a = order[i - 1];
+                int b = order[i];
+                double ab = distance(a, b);
+                for (int j = i + 1; j <= last; j++) {
+                    int c = order[j];
+                    // open path: reversing a suffix only swaps one edge
+                    double delta = distance(a, c) - ab;
+                    if (j < last) {
+                        int d = order[j + 1];
+                        delta += distance(b, d) - distance(c, d);
+                    }
+                    if (delta < -EPSILON) {
+                        reverse(order, i, j);
+                        b = order[i];
+                        ab = distance(a, b);
+                        improved = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    double length(int[] order) {
+        double total = 0;
+        for (int i = 1; i < order.length; i++) {
+            total += distance(order[i - 1], order[i]);
+        }
+        return total;
+    }
+
+    private double distance(int a, int b) {
+        double dx = x[a] - x[b];
+        double dy = y[a] - y[b];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static void reverse(int[] order, int i, int j) {
+        while (i < j) {
+            int swap = order[i];
+            order[i++] = order[j];
+            order[j--] = swap;
+        }
+    }
+
+    static double haversineKm(double[] from, double[] to) {
+        double dLat = Math.toRadians(to[0] - from[0]);
+        double dLng = Math.toRadians(to[1] - from[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(from[0])) * Math.cos(Math.toRadians(to[0])) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+}
@@ -0,0 +1,336 @@
+package shortly.mandmcorp.dev.shortly.service.routing.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.RiderLocationConfig;
+import shortly.mandmcorp.dev.shortly.config.RouteSequencingConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.RouteResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.RouteStopResponse;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+import shortly.mandmcorp.dev.shortly.model.Office;
+import shortly.mandmcorp.dev.shortly.model.ParcelInfo;
+import shortly.mandmcorp.dev.shortly.model.RiderLocation;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
+import shortly.mandmcorp.dev.shortly.service.routing.RouteSequencingServiceInterface;
+
+/**
+ * Orders a rider's open assignments into a delivery route.
+ * Receiver addresses are resolved through the local {@link GeocodeTable}; the route starts at
+ * the rider's last fresh position, falling back to the office coordinates. A full computation
+ * runs nearest neighbour plus 2-opt and is cached per rider for
+ * {@code route-sequencing.cacheTtlMs}. Added assignments are placed by cheapest insertion and
+ * closed ones removed, each followed by a 2-opt repair limited to
+ * {@code route-sequencing.incrementalWindow} positions around the change.
+ * The cache is per instance; the TTL bounds how stale a route can get when assignments
+ * change through another instance.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class RouteSequencingServiceImplementation implements RouteSequencingServiceInterface {
+
+    private static final List<DeliveryStatus> OPEN_STATUSES =
+        List.of(DeliveryStatus.ASSIGNED, DeliveryStatus.ACCEPTED, DeliveryStatus.PICKED_UP);
+
+    private final MongoTemplate mongoTemplate;
+    private final OfficeRepository officeRepository;
+    private final GeocodeTable geocodeTable;
+    private final RouteSequencingConfig config;
+    private final RiderLocationConfig locationConfig;
+
+    private final ConcurrentHashMap<String, CachedRoute> routes = new ConcurrentHashMap<>();
+    // Bumped on every change so a computation that raced with one is not cached
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    public RouteSequencingServiceImplementation(MongoTemplate mongoTemplate, OfficeRepository officeRepository,
+            GeocodeTable geocodeTable, RouteSequencingConfig config, RiderLocationConfig locationConfig) {
+        this.mongoTemplate = mongoTemplate;
+        this.officeRepository = officeRepository;
+        this.geocodeTable = geocodeTable;
+        this.config = config;
+        this.locationConfig = locationConfig;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('RIDER')")
+    public RouteResponse getMyRoute(boolean refresh) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User rider)) {
+            throw new WrongCredentialsException("User not authenticated");
+        }
+
+        CachedRoute route = routes.get(rider.getUserId());
+        if (refresh || route == null || route.computedAt() + config.getCacheTtlMs() < System.currentTimeMillis()) {
+            route = compute(rider);
+        }
+        return toResponse(rider.getUserId(), route);
+    }
+
+    @Override
+    public void assignmentsAdded(String riderId, List<DeliveryAssignments> assignments) {
+        if (riderId == null || assignments.isEmpty()) {
+            return;
+        }
+        generations.merge(riderId, 1L, Long::sum);
+        routes.computeIfPresent(riderId, (id, route) -> {
+            for (DeliveryAssignments assignment : assignments) {
+                route = withAdded(route, toStop(assignment));
+            }
+            return route;
+        });
+    }
+
+    @Override
+    public void assignmentClosed(String riderId, String assignmentId) {
+        if (riderId == null) {
+            return;
+        }
+        generations.merge(riderId, 1L, Long::sum);
+        routes.computeIfPresent(riderId, (id, route) -> withRemoved(route, assignmentId));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public int reloadGeocodes() {
+        try {
+            int loaded = geocodeTable.reload();
+            routes.clear();
+            return loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read geocode table " + config.getGeocodeTable(), e);
+        }
+    }
+
+    private CachedRoute compute(User rider) {
+        String riderId = rider.getUserId();
+        Long generation = generations.get(riderId);
+
+        Query query = Query.query(Criteria.where("riderInfo.riderId").is(riderId).and("status").in(OPEN_STATUSES));
+        query.fields().include("assignmentId", "parcelInfo", "assignedAt");
+        query.with(org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.ASC, "assignedAt"));
+        List<Stop> located = new ArrayList<>();
+        List<Stop> unlocated = new ArrayList<>();
+        for (DeliveryAssignments assignment : mongoTemplate.find(query, DeliveryAssignments.class)) {
+            Stop stop = toStop(assignment);
+            (stop.point() != null ? located : unlocated).add(stop);
+        }
+
+        Origin origin = origin(rider);
+        long start = System.nanoTime();
+        List<Stop> ordered = located;
+        double[][] points = points(origin.point(), located);
+        if (points.length > 2) {
+            int offset = origin.point() != null ? 1 : 0;
+            int[] order = new RouteSequencer(points).sequence(config.getMaxPasses());
+            ordered = new ArrayList<>(located.size());
+            for (int index : order) {
+                if (index >= offset) {
+                    ordered.add(located.get(index - offset));
+                }
+            }
+        }
+        log.debug("Sequenced {} stops for rider {} in {} us", located.size(), riderId, (System.nanoTime() - start) / 1000);
+
+        CachedRoute route = new CachedRoute(origin.source(), origin.point(), List.copyOf(ordered), List.copyOf(unlocated), System.currentTimeMillis());
+        routes.compute(riderId, (id, current) -> Objects.equals(generations.get(riderId), generation) ? route : current);
+        return route;
+    }
+
+    private CachedRoute withAdded(CachedRoute route, Stop stop) {
+        if (contains(route.stops(), stop.assignmentId()) || contains(route.unlocated(), stop.assignmentId())) {
+            return route;
+        }
+        if (stop.point() == null) {
+            List<Stop> unlocated = new ArrayList<>(route.unlocated());
+            unlocated.add(stop);
+            return route.withStops(route.stops(), unlocated);
+        }
+        List<Stop> stops = new ArrayList<>(route.stops());
+        stops.add(stop);
+        int offset = route.origin() != null ? 1 : 0;
+        double[][] points = points(route.origin(), stops);
+        if (points.length <= 2) {
+            return route.withStops(stops, route.unlocated());
+        }
+
+        // path over the existing stops in their current order, then place the new one
+        RouteSequencer sequencer = new RouteSequencer(points);
+        int newPoint = points.length - 1;
+        int[] path = identity(newPoint);
+        int position = sequencer.cheapestInsertion(path, newPoint);
+        int[] order = new int[points.length];
+        System.arraycopy(path, 0, order, 0, position);
+        order[position] = newPoint;
+        System.arraycopy(path, position, order, position + 1, path.length - position);
+        repair(sequencer, order, position);
+        return route.withStops(reorder(stops, order, offset), route.unlocated());
+    }
+
+    private CachedRoute withRemoved(CachedRoute route, String assignmentId) {
+        int index = indexOf(route.stops(), assignmentId);
+        if (index < 0) {
+            int unlocatedIndex = indexOf(route.unlocated(), assignmentId);
+            if (unlocatedIndex < 0) {
+                return route;
+            }
+            List<Stop> unlocated = new ArrayList<>(route.unlocated());
+            unlocated.remove(unlocatedIndex);
+            return route.withStops(route.stops(), unlocated);
+        }
+
+        List<Stop> stops = new ArrayList<>(route.stops());
+        stops.remove(index);
+        int offset = route.origin() != null ? 1 : 0;
+        double[][] points = points(route.origin(), stops);
+        if (points.length <= 3) {
+            return route.withStops(stops, route.unlocated());
+        }
+        RouteSequencer sequencer = new RouteSequencer(points);
+        int[] order = identity(points.length);
+        repair(sequencer, order, index + offset);
+        return route.withStops(reorder(stops, order, offset), route.unlocated());
+    }
+
+    private void repair(RouteSequencer sequencer, int[] order, int position) {
+        int window = config.getIncrementalWindow();
+        sequencer.twoOpt(order, position - window, position + window, config.getMaxPasses());
+    }
+
+    private Origin origin(User rider) {
+        RiderLocation location = mongoTemplate.findById(rider.getUserId(), RiderLocation.class);
+        if (location != null && location.getLocation() != null
+                && location.getUpdatedAt() >= System.currentTimeMillis() - locationConfig.getStaleAfterMs()) {
+            return new Origin("RIDER_LOCATION", new double[] {location.getLocation().getY(), location.getLocation().getX()});
+        }
+        if (rider.getOfficeId() != null) {
+            Office office = officeRepository.findById(rider.getOfficeId()).orElse(null);
+            if (office != null && office.getLatitude() != null && office.getLongitude() != null) {
+                return new Origin("OFFICE", new double[] {office.getLatitude(), office.getLongitude()});
+            }
+        }
+        return new Origin("FIRST_STOP", null);
+    }
+
+    private Stop toStop(DeliveryAssignments assignment) {
+        ParcelInfo parcel = assignment.getParcelInfo() != null ? assignment.getParcelInfo() : new ParcelInfo();
+        return new Stop(assignment.getAssignmentId(), parcel.getParcelId(), parcel.getReceiverName(),
+            parcel.getReceiverPhoneNumber(), parcel.getReceiverAddress(), geocodeTable.lookup(parcel.getReceiverAddress()));
+    }
+
+    private RouteResponse toResponse(String riderId, CachedRoute route) {
+        List<RouteStopResponse> stops = new ArrayList<>(route.stops().size());
+        double total = 0;
+        double[] previous = route.origin();
+        for (Stop stop : route.stops()) {
+            Double leg = null;
+            if (previous != null) {
+                leg = RouteSequencer.haversineKm(previous, stop.point());
+                total += leg;
+            }
+            stops.add(toStopResponse(stops.size() + 1, stop, leg));
+            previous = stop.point();
+        }
+        List<RouteStopResponse> unlocated = new ArrayList<>(route.unlocated().size());
+        for (Stop stop : route.unlocated()) {
+            unlocated.add(toStopResponse(stops.size() + unlocated.size() + 1, stop, null));
+        }
+        return RouteResponse.builder()
+            .riderId(riderId)
+            .originSource(route.originSource())
+            .originLatitude(route.origin() != null ? route.origin()[0] : null)
+            .originLongitude(route.origin() != null ? route.origin()[1] : null)
+            .stops(stops)
+            .unlocated(unlocated)
+            .totalDistanceKm(total)
+            .computedAt(route.computedAt())
+            .build();
+    }
+
+    private RouteStopResponse toStopResponse(int sequence, Stop stop, Double legDistanceKm) {
+        return RouteStopResponse.builder()
+            .sequence(sequence)
+            .assignmentId(stop.assignmentId())
+            .parcelId(stop.parcelId())
+            .receiverName(stop.receiverName())
+            .receiverPhoneNumber(stop.receiverPhoneNumber())
+            .receiverAddress(stop.receiverAddress())
+            .latitude(stop.point() != null ? stop.point()[0] : null)
+            .longitude(stop.point() != null ? stop.point()[1] : null)
+            .legDistanceKm(legDistanceKm)
+            .build();
+    }
+
+    private static double[][] points(double[] origin, List<Stop> stops) {
+        int offset = origin != null ? 1 : 0;
+        double[][] points = new double[stops.size() + offset][];
+        if (origin != null) {
+            points[0] = origin;
+        }
+        for (int i = 0; i < stops.size(); i++) {
+            points[i + offset] = stops.get(i).point();
+        }
+        return points;
+    }
+
+    private static List<Stop> reorder(List<Stop> stops, int[] order, int offset) {
+        List<Stop> ordered = new ArrayList<>(stops.size());
+        for (int index : order) {
+            if (index >= offset) {
+                ordered.add(stops.get(index - offset));
+            }
+        }
+        return List.copyOf(ordered);
+    }
+
+    private static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static boolean contains(List<Stop> stops, String assignmentId) {
+        return indexOf(stops, assignmentId) >= 0;
+    }
+
+    private static int indexOf(List<Stop> stops, String assignmentId) {
+        for (int i = 0; i < stops.size(); i++) {
+            if (Objects.equals(stops.get(i).assignmentId(), assignmentId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Stop(String assignmentId, String parcelId, String receiverName, String receiverPhoneNumber,
+            String receiverAddress, double[] point) {}
+
+    private record Origin(String source, double[] point) {}
+
+    private record CachedRoute(String originSource, double[] origin, List<Stop> stops, List<Stop> unlocated, long computedAt) {
+        CachedRoute withStops(List<Stop> newStops, List<Stop> newUnlocated) {
+            return new CachedRoute(originSource, origin, List.copyOf(newStops), List.copyOf(newUnlocated), computedAt);
+        }
+    }
+}
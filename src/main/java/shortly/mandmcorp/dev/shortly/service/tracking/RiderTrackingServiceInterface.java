@@ -0,0 +1,31 @@
+package shortly.mandmcorp.dev.shortly.service.tracking;
+
+import java.util.List;
+
+import shortly.mandmcorp.dev.shortly.dto.request.LocationPingRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.NearestRiderResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
+
+public interface RiderTrackingServiceInterface {
+
+    /**
+     * Accepts a batch of GPS pings from the authenticated rider. Only the most recent ping is
+     * kept, and it is written with the next location flush.
+     *
+     * @param pingRequest pings collected by the rider's device since the last upload
+     * @return UserResponse acknowledging the batch
+     */
+    UserResponse recordLocations(LocationPingRequest pingRequest);
+
+    /**
+     * Finds the available riders in the caller's office closest to a point, nearest first.
+     * Riders that have not reported a position recently are left out.
+     *
+     * @param latitude origin latitude, or null to use the caller's office
+     * @param longitude origin longitude, or null to use the caller's office
+     * @param limit maximum number of riders to return
+     * @param maxDistanceKm search radius in kilometres, or null for the configured default
+     * @return riders ordered by distance
+     */
+    List<NearestRiderResponse> nearestRiders(Double latitude, Double longitude, int limit, Double maxDistanceKm);
+}
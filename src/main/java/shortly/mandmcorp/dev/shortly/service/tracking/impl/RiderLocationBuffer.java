@@ -0,0 +1,151 @@
+package shortly.mandmcorp.dev.shortly.service.tracking.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.RiderLocationConfig;
+import shortly.mandmcorp.dev.shortly.model.RiderLocation;
+
+/**
+ * Coalesces rider GPS pings in memory and writes the latest position per rider once per
+ * {@code rider-locations.flushIntervalMs}. However often riders report, Mongo sees at most one
+ * upsert per rider per interval, sent together as one unordered bulk write.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class RiderLocationBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final RiderLocationConfig config;
+    private final Map<String, RiderLocation> pending = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public RiderLocationBuffer(MongoTemplate mongoTemplate, RiderLocationConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.receivedCounter = Counter.builder("rider.locations.received").description("GPS pings received from riders").register(meterRegistry);
+        this.writtenCounter = Counter.builder("rider.locations.written").description("Rider positions written to rider_locations").register(meterRegistry);
+        this.failedCounter = Counter.builder("rider.locations.failed").description("Rider positions lost in failed bulk writes").register(meterRegistry);
+        meterRegistry.gauge("rider.locations.pending", pending, Map::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::flushLoop, "rider-location-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    /**
+     * Nearest rider queries need the 2dsphere index; auto index creation is off, so create it here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureGeoIndex() {
+        try {
+            mongoTemplate.indexOps(RiderLocation.class)
+                .createIndex(new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+        } catch (Exception e) {
+            log.error("Error creating rider location 2dsphere index: ", e);
+        }
+    }
+
+    /**
+     * Records a rider's latest position, replacing any older position still waiting to be written.
+     *
+     * @param location latest position from the batch
+     * @param pings number of pings the position was taken from
+     */
+    public void offer(RiderLocation location, int pings) {
+        receivedCounter.increment(pings);
+        pending.merge(location.getRiderId(), location,
+            (current, next) -> next.getRecordedAt() >= current.getRecordedAt() ? next : current);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(config.getFlushIntervalMs());
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error flushing rider locations: ", e);
+            }
+        }
+    }
+
+    private void flush() {
+        List<RiderLocation> batch = new ArrayList<>(pending.size());
+        for (String riderId : pending.keySet()) {
+            RiderLocation location = pending.remove(riderId);
+            if (location != null) {
+                batch.add(location);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RiderLocation.class);
+        for (RiderLocation location : batch) {
+            Update update = new Update()
+                .set("officeId", location.getOfficeId())
+                .set("riderName", location.getRiderName())
+                .set("riderPhoneNumber", location.getRiderPhoneNumber())
+                .set("location", location.getLocation())
+                .set("accuracy", location.getAccuracy())
+                .set("heading", location.getHeading())
+                .set("speed", location.getSpeed())
+                .set("recordedAt", location.getRecordedAt())
+                .set("updatedAt", now);
+            bulk.upsert(Query.query(Criteria.where("riderId").is(location.getRiderId())), update);
+        }
+        try {
+            bulk.execute();
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Error writing {} rider locations: ", batch.size(), e);
+        }
+    }
+}
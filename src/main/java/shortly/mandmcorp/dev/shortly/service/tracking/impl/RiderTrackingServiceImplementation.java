@@ -0,0 +1,145 @@
+package shortly.mandmcorp.dev.shortly.service.tracking.impl;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.config.RiderLocationConfig;
+import shortly.mandmcorp.dev.shortly.dto.request.GpsPing;
+import shortly.mandmcorp.dev.shortly.dto.request.LocationPingRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.NearestRiderResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.UserResponse;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.exceptions.EntityNotFound;
+import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
+import shortly.mandmcorp.dev.shortly.model.Office;
+import shortly.mandmcorp.dev.shortly.model.RiderLocation;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
+import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+import shortly.mandmcorp.dev.shortly.service.tracking.RiderTrackingServiceInterface;
+
+/**
+ * Rider live location ingestion and nearest rider search.
+ * Pings are coalesced by {@link RiderLocationBuffer}; searches run a {@code $geoNear} over the
+ * {@code rider_locations} 2dsphere index restricted to the office's available riders.
+ *
+ * @author Shortly Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class RiderTrackingServiceImplementation implements RiderTrackingServiceInterface {
+
+    private final RiderLocationBuffer locationBuffer;
+    private final RiderLocationConfig config;
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final OfficeRepository officeRepository;
+
+    @Override
+    @PreAuthorize("hasRole('RIDER')")
+    public UserResponse recordLocations(LocationPingRequest pingRequest) {
+        User rider = currentUser();
+        List<GpsPing> pings = pingRequest.getPings();
+        if (pings.size() > config.getMaxPingsPerRequest()) {
+            throw new ActionNotAllowed("At most " + config.getMaxPingsPerRequest() + " pings per upload");
+        }
+
+        long now = System.currentTimeMillis();
+        GpsPing latest = pings.stream()
+            .max(Comparator.comparingLong(ping -> ping.getRecordedAt() != null ? ping.getRecordedAt() : now))
+            .orElseThrow();
+
+        RiderLocation location = new RiderLocation();
+        location.setRiderId(rider.getUserId());
+        location.setOfficeId(rider.getOfficeId());
+        location.setRiderName(rider.getName());
+        location.setRiderPhoneNumber(rider.getPhoneNumber());
+        location.setLocation(new GeoJsonPoint(latest.getLongitude(), latest.getLatitude()));
+        location.setAccuracy(latest.getAccuracy());
+        location.setHeading(latest.getHeading());
+        location.setSpeed(latest.getSpeed());
+        location.setRecordedAt(latest.getRecordedAt() != null ? latest.getRecordedAt() : now);
+        locationBuffer.offer(location, pings.size());
+
+        return new UserResponse("Location received", rider.getPhoneNumber());
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('FRONTDESK', 'MANAGER', 'ADMIN')")
+    public List<NearestRiderResponse> nearestRiders(Double latitude, Double longitude, int limit, Double maxDistanceKm) {
+        User user = currentUser();
+        if (user.getOfficeId() == null) {
+            throw new WrongCredentialsException("User has no office assigned");
+        }
+
+        if (latitude == null || longitude == null) {
+            Office office = officeRepository.findById(user.getOfficeId())
+                .orElseThrow(() -> new EntityNotFound("Office not found"));
+            if (office.getLatitude() == null || office.getLongitude() == null) {
+                throw new ActionNotAllowed("Office has no coordinates; pass latitude and longitude");
+            }
+            latitude = office.getLatitude();
+            longitude = office.getLongitude();
+        }
+
+        List<String> availableRiderIds = userRepository
+            .findByRoleAndOfficeIdAndAvailability(UserRole.RIDER, user.getOfficeId(), true)
+            .stream()
+            .map(User::getUserId)
+            .toList();
+        if (availableRiderIds.isEmpty()) {
+            return List.of();
+        }
+
+        long freshSince = System.currentTimeMillis() - config.getStaleAfterMs();
+        double radiusKm = maxDistanceKm != null ? maxDistanceKm : config.getDefaultMaxDistanceKm();
+        NearQuery nearQuery = NearQuery.near(new GeoJsonPoint(longitude, latitude))
+            .spherical(true)
+            .maxDistance(new Distance(radiusKm, Metrics.KILOMETERS))
+            .query(Query.query(Criteria.where("riderId").in(availableRiderIds).and("updatedAt").gte(freshSince)))
+            .limit(Math.max(1, Math.min(limit, config.getMaxNearestRiders())));
+
+        GeoResults<RiderLocation> results = mongoTemplate.geoNear(nearQuery, RiderLocation.class);
+        return results.getContent().stream()
+            .map(result -> {
+                RiderLocation location = result.getContent();
+                return NearestRiderResponse.builder()
+                    .riderId(location.getRiderId())
+                    .riderName(location.getRiderName())
+                    .riderPhoneNumber(location.getRiderPhoneNumber())
+                    .latitude(location.getLocation().getY())
+                    .longitude(location.getLocation().getX())
+                    .distanceKm(result.getDistance().in(Metrics.KILOMETERS).getValue())
+                    .lastSeenAt(location.getUpdatedAt())
+                    .build();
+            })
+            .toList();
+    }
+
+    private User currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            throw new WrongCredentialsException("User not authenticated");
+        }
+        return user;
+    }
+}
@@ -7,6 +7,10 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,10 +42,12 @@ import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
 import shortly.mandmcorp.dev.shortly.repository.RiderStatusRepository;
 import shortly.mandmcorp.dev.shortly.repository.UserRepository;
 import shortly.mandmcorp.dev.shortly.repository.VerificationTokenRepository;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationInterface;
 import shortly.mandmcorp.dev.shortly.service.notification.NotificationRequestTemplate;
 import shortly.mandmcorp.dev.shortly.service.user.UserServiceInterface;
 import shortly.mandmcorp.dev.shortly.utils.NotificationUtil;
+import shortly.mandmcorp.dev.shortly.utils.OfficeTreeCache;
 import shortly.mandmcorp.dev.shortly.utils.OtpUtil;
 import shortly.mandmcorp.dev.shortly.utils.UserMapper;
 
@@ -66,11 +72,15 @@ public class UserService implements UserServiceInterface {
     private final FrontEndServerConfig frontendConfig;
     private final RiderStatusRepository riderStatusRepository;
     private final OfficeRepository officeRepository;
+    private final PrincipalCache principalCache;
+    private final OfficeTreeCache officeTreeCache;
+    private final MongoTemplate mongoTemplate;
 
 
     public UserService(FrontEndServerConfig frontend,UserRepository userRepository, UserMapper userMapper, @Qualifier("smsNotification") NotificationInterface smsNotification, 
     PasswordEncoder passwordEncoder, JWTConfig jwtConfig, VerificationTokenRepository verificationTokenRepository, 
-    RiderStatusRepository riderStatusRepository, OfficeRepository officeRepository) {
+    RiderStatusRepository riderStatusRepository, OfficeRepository officeRepository, PrincipalCache principalCache, OfficeTreeCache officeTreeCache,
+    MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.notification = smsNotification;
@@ -80,6 +90,9 @@ public class UserService implements UserServiceInterface {
         this.frontendConfig = frontend;
         this.riderStatusRepository = riderStatusRepository;
         this.officeRepository = officeRepository;
+        this.principalCache = principalCache;
+        this.officeTreeCache = officeTreeCache;
+        this.mongoTemplate = mongoTemplate;
     }   
 
     /**
@@ -109,15 +122,18 @@ public class UserService implements UserServiceInterface {
         newUser.setOfficeId(office.getId());
     if(userRequestDetails.getRole() == UserRole.MANAGER) {
         userRepository.save(newUser);
-        office.setManager(newUser);
+        office.setManagerId(newUser.getUserId());
+        office.setManagerName(newUser.getName());
         officeRepository.save(office);
+        officeTreeCache.invalidate();
         } else {
         userRepository.save(newUser);
         }
         // Create rider status if user is a rider
         if(newUser.getRole() == UserRole.RIDER) {
             RiderStatusModel riderStatus = new RiderStatusModel();
-            riderStatus.setRider(newUser);
+            riderStatus.setRiderId(newUser.getUserId());
+            riderStatus.setRiderName(newUser.getName());
             riderStatus.setRiderStatus(shortly.mandmcorp.dev.shortly.enums.RiderStatus.OFFLINE);
             riderStatusRepository.save(riderStatus);
         }
@@ -168,7 +184,7 @@ public class UserService implements UserServiceInterface {
         String otp = OtpUtil.generateOtp();
 
         VerificationToken token = new VerificationToken();
-        token.setUserId(user);
+        token.setUserId(user.getUserId());
         token.setCreatedAt(LocalDateTime.now());
         token.setCode(otp);
         verificationTokenRepository.save(token);
@@ -206,9 +222,11 @@ public class UserService implements UserServiceInterface {
         if(token.getCreatedAt().plusMinutes(5).isBefore(LocalDateTime.now())) {
             throw new WrongCredentialsException("Token expired");
         }
-        User user = token.getUserId();
+        User user = userRepository.findById(token.getUserId())
+            .orElseThrow(() -> new WrongCredentialsException("Invalid token"));
         user.setPasswordHash(passwordEncoder.encode(fr.getNewPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getPhoneNumber());
         verificationTokenRepository.delete(token);
         return new UserResponse("Password reset successful", user.getPhoneNumber());
     }
@@ -228,6 +246,7 @@ public class UserService implements UserServiceInterface {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFound("User not found"));
         userRepository.delete(user);
+        principalCache.invalidate(user.getPhoneNumber());
         return new UserResponse("User deleted successfully", user.getPhoneNumber());
     }
 
@@ -249,6 +268,7 @@ public class UserService implements UserServiceInterface {
             UserStatusEnum newStatus = UserStatusEnum.valueOf(status.toUpperCase());
             user.setStatus(newStatus);
             userRepository.save(user);
+            principalCache.invalidate(user.getPhoneNumber());
         return new UserResponse("User status changed successfully", user.getPhoneNumber());
         } catch (Exception e) {
             return UserResponse.builder()
@@ -298,10 +318,21 @@ public class UserService implements UserServiceInterface {
             currentUser.setPhoneNumber(updateRequest.getPhoneNumber());
         }
         
+        boolean renamed = updateRequest.getName() != null && !updateRequest.getName().equals(currentUser.getName());
         if(updateRequest.getName() != null) currentUser.setName(updateRequest.getName());
         if(updateRequest.getEmail() != null) currentUser.setEmail(updateRequest.getEmail());
         
         userRepository.save(currentUser);
+        if(renamed) {
+            // keep the denormalized names on offices and rider status in step
+            mongoTemplate.updateMulti(Query.query(Criteria.where("managerId").is(currentUser.getUserId())),
+                new Update().set("managerName", currentUser.getName()), Office.class);
+            mongoTemplate.updateMulti(Query.query(Criteria.where("riderId").is(currentUser.getUserId())),
+                new Update().set("riderName", currentUser.getName()), RiderStatusModel.class);
+            officeTreeCache.invalidate();
+        }
+        principalCache.invalidate(user.getPhoneNumber());
+        principalCache.invalidate(currentUser.getPhoneNumber());
         return new UserResponse("Profile updated successfully", currentUser.getPhoneNumber());
     }
 
@@ -325,10 +356,11 @@ public class UserService implements UserServiceInterface {
             throw new WrongCredentialsException("Only riders can update status");
         }
         
-        RiderStatusModel riderStatus = riderStatusRepository.findByRider(user);
+        RiderStatusModel riderStatus = riderStatusRepository.findByRiderId(user.getUserId());
         if(riderStatus == null) {
             riderStatus = new RiderStatusModel();
-            riderStatus.setRider(user);
+            riderStatus.setRiderId(user.getUserId());
+            riderStatus.setRiderName(user.getName());
         }
         
         riderStatus.setRiderStatus(statusRequest.getRiderStatus());
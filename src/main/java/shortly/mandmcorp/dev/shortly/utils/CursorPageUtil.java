@@ -0,0 +1,100 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+
+/**
+ * Keyset pagination over a descending timestamp plus id.
+ * The cursor is an opaque token holding the timestamp and id of the last returned document,
+ * so each page seeks straight to its start instead of skipping over the previous pages.
+ */
+public class CursorPageUtil {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static <T> CursorPage<T> find(MongoTemplate mongoTemplate, Query query, Class<T> type,
+            String timestampField, String idField, Function<T, Long> timestamp, Function<T, String> id,
+            String cursor, int size, boolean withTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Long total = withTotal ? mongoTemplate.count(query, type) : null;
+
+        Query pageQuery = query;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decode(cursor);
+            Criteria seek = seek(timestampField, idField, position[0].isEmpty() ? null : Long.valueOf(position[0]), position[1]);
+            // the filters may already hold a top-level $and/$or, so wrap instead of adding a second one
+            Document filter = query.getQueryObject().isEmpty()
+                ? seek.getCriteriaObject()
+                : new Document("$and", List.of(query.getQueryObject(), seek.getCriteriaObject()));
+            pageQuery = new BasicQuery(filter, query.getFieldsObject());
+        }
+        pageQuery.with(Sort.by(Sort.Direction.DESC, timestampField).and(Sort.by(Sort.Direction.DESC, idField)));
+        pageQuery.limit(pageSize + 1);
+
+        List<T> results = mongoTemplate.find(pageQuery, type);
+        boolean hasNext = results.size() > pageSize;
+        List<T> content = hasNext ? results.subList(0, pageSize) : results;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = encode(timestamp.apply(last), id.apply(last));
+        }
+
+        return CursorPage.<T>builder()
+            .content(content)
+            .nextCursor(nextCursor)
+            .hasNext(hasNext)
+            .total(total)
+            .build();
+    }
+
+    /**
+     * Documents after the given position in descending (timestamp, id) order. Missing
+     * timestamps sort after every value in that order, so they follow the last timestamped page.
+     */
+    private static Criteria seek(String timestampField, String idField, Long lastTimestamp, String lastId) {
+        if (lastTimestamp == null) {
+            return Criteria.where(timestampField).is(null).and(idField).lt(lastId);
+        }
+        return new Criteria().orOperator(
+            Criteria.where(timestampField).lt(lastTimestamp),
+            Criteria.where(timestampField).is(lastTimestamp).and(idField).lt(lastId),
+            Criteria.where(timestampField).is(null));
+    }
+
+    private static String encode(Long timestamp, String id) {
+        // a missing timestamp is encoded as an empty position, not as 0
+        String raw = (timestamp == null ? "" : timestamp.toString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split(":", 2);
+            if (position.length != 2) {
+                throw new ActionNotAllowed("Invalid cursor");
+            }
+            if (!position[0].isEmpty()) {
+                Long.parseLong(position[0]);
+            }
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new ActionNotAllowed("Invalid cursor");
+        }
+    }
+}
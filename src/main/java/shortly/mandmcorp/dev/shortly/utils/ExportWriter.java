@@ -0,0 +1,94 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Streams query results to a response body straight from a Mongo cursor.
+ * Documents are fetched in cursor batches of {@value #CURSOR_BATCH_SIZE} and written one per line
+ * as NDJSON or CSV, so memory use stays flat regardless of how many documents match.
+ */
+@Slf4j
+public class ExportWriter {
+
+    public static final int CURSOR_BATCH_SIZE = 1000;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Builds a response body that runs the query when the response is written.
+     * The query must already carry every filter, including office scoping, because the body
+     * is written outside the request's security context.
+     *
+     * @param columns CSV column headers mapped to their value extractors; ignored for NDJSON
+     */
+    public static <T> StreamingResponseBody stream(MongoTemplate mongoTemplate, JsonMapper jsonMapper, Query query,
+            Class<T> type, ExportFormat format, Map<String, Function<T, Object>> columns) {
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return out -> write(mongoTemplate, jsonMapper, query, type, format, columns, out);
+    }
+
+    /**
+     * Sets the content type and attachment file name for an export response.
+     */
+    public static void prepareResponse(HttpServletResponse response, String name, ExportFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+
+    private static <T> void write(MongoTemplate mongoTemplate, JsonMapper jsonMapper, Query query, Class<T> type,
+            ExportFormat format, Map<String, Function<T, Object>> columns, OutputStream out) throws IOException {
+        long rows = 0;
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(String.join(",", columns.keySet()));
+                writer.write('\n');
+            }
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                T document = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, document, columns);
+                } else {
+                    writer.write(jsonMapper.writeValueAsString(document));
+                }
+                writer.write('\n');
+                rows++;
+            }
+        } finally {
+            writer.flush();
+            log.info("Exported {} {} rows as {} in {} ms", rows, type.getSimpleName(), format, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static <T> void writeCsvRow(Writer writer, T document, Map<String, Function<T, Object>> columns) throws IOException {
+        boolean first = true;
+        for (Function<T, Object> column : columns.values()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write(CsvUtil.escape(column.apply(document)));
+            first = false;
+        }
+    }
+}
@@ -14,6 +14,8 @@ public class OfficeMapper {
         office.setName(request.getName());
         office.setAddress(request.getAddress());
         office.setPhoneNumber(request.getPhoneNumber());
+        office.setLatitude(request.getLatitude());
+        office.setLongitude(request.getLongitude());
         office.setCreatedAt(System.currentTimeMillis());
         office.setUpdatedAt(System.currentTimeMillis());
         return office;
@@ -26,14 +28,12 @@ public class OfficeMapper {
         response.setCode(office.getCode());
         response.setAddress(office.getAddress());
         response.setPhoneNumber(office.getPhoneNumber());
+        response.setLatitude(office.getLatitude());
+        response.setLongitude(office.getLongitude());
         response.setCreatedAt(office.getCreatedAt());
         response.setUpdatedAt(office.getUpdatedAt());
-        if(office.getLocation() != null) {
-            response.setLocationName(office.getLocation().getName());
-        }
-        if(office.getManager() != null) {
-            response.setManagerName(office.getManager().getName());
-        }
+        response.setLocationName(office.getLocationName());
+        response.setManagerName(office.getManagerName());
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import shortly.mandmcorp.dev.shortly.config.LookupCacheConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.LocationWithOfficesResponse;
+
+/**
+ * Snapshot cache for the public location/office tree, keyed by the name filters.
+ * Filters are normalized once (trimmed, lower-cased, blank as absent) and the loader queries with
+ * the normalized values, so every request sharing an entry gets the same result. Office and
+ * location writes clear it; a load that overlaps a clear is returned but not cached. Entries also
+ * expire after {@code lookup-cache.officeTreeTtlMs} so changes made outside the office service
+ * (such as a manager renaming themselves) show up eventually.
+ */
+@Component
+public class OfficeTreeCache {
+
+    private final LookupCacheConfig config;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public OfficeTreeCache(LookupCacheConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @param loader builds the tree from the normalized location and office name filters (null when absent)
+     */
+    public List<LocationWithOfficesResponse> get(String locationName, String officeName,
+            BiFunction<String, String, List<LocationWithOfficesResponse>> loader) {
+        String location = normalize(locationName);
+        String office = normalize(officeName);
+        String key = (location == null ? "" : location) + "|" + (office == null ? "" : office);
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.expiresAt > now) {
+            return snapshot.tree;
+        }
+
+        long loadedAt = generation.get();
+        List<LocationWithOfficesResponse> tree = List.copyOf(loader.apply(location, office));
+        if (snapshots.size() >= config.getOfficeTreeMaxEntries()) {
+            snapshots.clear();
+        }
+        Snapshot loaded = new Snapshot(tree, now + config.getOfficeTreeTtlMs());
+        // invalidate() bumps the generation before clearing, so a load it overlapped is not kept
+        snapshots.compute(key, (k, current) -> generation.get() == loadedAt ? loaded : current);
+        return tree;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    static String normalize(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return null;
+        }
+        return filter.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final List<LocationWithOfficesResponse> tree;
+        private final long expiresAt;
+    }
+}
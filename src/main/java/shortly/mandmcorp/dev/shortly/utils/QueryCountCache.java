@@ -0,0 +1,115 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import shortly.mandmcorp.dev.shortly.config.CountCacheConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.CachedCountPage;
+
+/**
+ * Short-lived cache of {@code count} results for paginated office queries.
+ * Entries are grouped by office so parcel and assignment writes can drop every cached
+ * total for the office they touch. Queries without an office share the {@code *} scope,
+ * which is dropped on any write.
+ */
+@Component
+public class QueryCountCache {
+
+    private static final String ALL_OFFICES = "*";
+
+    private final MongoTemplate mongoTemplate;
+    private final CountCacheConfig config;
+    private final Map<String, Map<String, CachedCount>> countsByOffice = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer countTimer;
+
+    public QueryCountCache(MongoTemplate mongoTemplate, CountCacheConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.hits = Counter.builder("query.count.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("query.count.cache.misses").register(meterRegistry);
+        this.countTimer = Timer.builder("query.count.latency").description("Latency of uncached count queries").register(meterRegistry);
+        meterRegistry.gauge("query.count.cache.hit.ratio", this, cache -> {
+            double total = cache.hits.count() + cache.misses.count();
+            return total == 0 ? 0 : cache.hits.count() / total;
+        });
+    }
+
+    /**
+     * Counts the documents matching the query, reusing a recent result for the same criteria.
+     * Must be called before skip/limit are applied to the query.
+     */
+    public Count count(Query query, Class<?> type, String officeId) {
+        String scope = officeId == null ? ALL_OFFICES : officeId;
+        String key = type.getName() + query.getQueryObject().toJson();
+        Map<String, CachedCount> counts = countsByOffice.computeIfAbsent(scope, office -> new ConcurrentHashMap<>());
+
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return new Count(cached.total, true);
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        long total = mongoTemplate.count(query, type);
+        countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (counts.size() >= config.getMaxEntriesPerOffice()) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(total, now + config.getTtlMs()));
+        return new Count(total, false);
+    }
+
+    /**
+     * Counts (through the cache), applies the page window and fetches the page.
+     */
+    public <T> CachedCountPage<T> find(Query query, Class<T> type, String officeId, Pageable pageable) {
+        Count count = count(query, type, officeId);
+
+        query.skip((long) pageable.getPageNumber() * pageable.getPageSize());
+        query.limit(pageable.getPageSize());
+
+        List<T> content = mongoTemplate.find(query, type);
+        return new CachedCountPage<>(content, pageable, count.getTotal(), count.isCached());
+    }
+
+    /**
+     * Drops cached totals for an office after one of its parcels or assignments changed.
+     */
+    public void invalidate(String officeId) {
+        if (officeId != null) {
+            countsByOffice.remove(officeId);
+        }
+        countsByOffice.remove(ALL_OFFICES);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Count {
+        private final long total;
+        private final boolean cached;
+    }
+
+    @AllArgsConstructor
+    private static class CachedCount {
+        private final long total;
+        private final long expiresAt;
+    }
+}
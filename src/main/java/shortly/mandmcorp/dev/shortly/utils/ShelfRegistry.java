@@ -0,0 +1,86 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import shortly.mandmcorp.dev.shortly.config.LookupCacheConfig;
+import shortly.mandmcorp.dev.shortly.model.Shelf;
+import shortly.mandmcorp.dev.shortly.repository.ShelfRepository;
+
+/**
+ * Per-office shelf lookup for parcel intake.
+ * An office's shelves are loaded with one query the first time the office is seen and kept in
+ * memory until the office has been idle for {@code lookup-cache.shelfIdleExpiryMs}. A lookup that misses falls
+ * back to the database, so shelves added elsewhere are picked up and refresh the office entry.
+ */
+@Component
+public class ShelfRegistry {
+
+    private final ShelfRepository shelfRepository;
+    private final LookupCacheConfig config;
+    private final Map<String, OfficeShelves> offices = new ConcurrentHashMap<>();
+
+    public ShelfRegistry(ShelfRepository shelfRepository, LookupCacheConfig config) {
+        this.shelfRepository = shelfRepository;
+        this.config = config;
+    }
+
+    /**
+     * Looks up a shelf, preferring the in-memory shelves of the given office.
+     *
+     * @param officeId office the shelf is expected to belong to, may be null
+     * @param shelfId shelf id
+     * @return the shelf, which may belong to another office, or empty if it does not exist
+     */
+    public Optional<Shelf> find(String officeId, String shelfId) {
+        if (officeId != null) {
+            Shelf shelf = shelves(officeId).get(shelfId);
+            if (shelf != null) {
+                return Optional.of(shelf);
+            }
+        }
+        Optional<Shelf> shelf = shelfRepository.findById(shelfId);
+        shelf.filter(found -> found.getOfficeId() != null && found.getOfficeId().equals(officeId))
+            .ifPresent(found -> invalidate(found.getOfficeId()));
+        return shelf;
+    }
+
+    /**
+     * Drops an office's shelves so the next lookup reloads them.
+     */
+    public void invalidate(String officeId) {
+        if (officeId != null) {
+            offices.remove(officeId);
+        }
+    }
+
+    private Map<String, Shelf> shelves(String officeId) {
+        long now = System.currentTimeMillis();
+        OfficeShelves entry = offices.get(officeId);
+        if (entry == null) {
+            evictIdle(now);
+            entry = offices.computeIfAbsent(officeId, id -> new OfficeShelves(
+                shelfRepository.findByOfficeId(id).stream().collect(Collectors.toUnmodifiableMap(Shelf::getId, Function.identity()))));
+        }
+        entry.lastAccess = now;
+        return entry.shelves;
+    }
+
+    private void evictIdle(long now) {
+        offices.values().removeIf(entry -> now - entry.lastAccess > config.getShelfIdleExpiryMs());
+    }
+
+    private static class OfficeShelves {
+        private final Map<String, Shelf> shelves;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private OfficeShelves(Map<String, Shelf> shelves) {
+            this.shelves = shelves;
+        }
+    }
+}
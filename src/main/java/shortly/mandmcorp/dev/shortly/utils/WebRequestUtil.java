@@ -1,30 +1,59 @@
 package shortly.mandmcorp.dev.shortly.utils;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import java.util.Map;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import shortly.mandmcorp.dev.shortly.config.OutboundHttpConfig;
 
 @Component
 @AllArgsConstructor
+@Slf4j
 public class WebRequestUtil {
     
     private final WebClient webClient;
+    private final OutboundHttpConfig config;
+
+    /**
+     * Posts a JSON body without blocking the calling thread.
+     * Connection failures, timeouts and 5xx responses are retried with jittered exponential backoff.
+     *
+     * @param url target url
+     * @param body request body serialized as JSON
+     * @return Mono emitting true when the request eventually succeeded, false otherwise
+     */
+    public Mono<Boolean> postRequest(String url, Map<String,Object> body) {
+        return webClient.post()
+                .uri( url )
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(Retry.backoff(config.getMaxRetries(), Duration.ofMillis(config.getRetryBackoffMs()))
+                        .jitter(0.5)
+                        .filter(this::isRetryable))
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    log.warn("POST request failed: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+    }
 
-    public boolean postRequst(String url, Map<String,Object> body) {
-        try {
-            webClient.post()
-                    .uri( url )
-                    .header("Content-Type", "application/json")
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();      
-            return true;
-        } catch (Exception e) {
-            return false;
-        }   
+    private boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
     }
     
 }
@@ -0,0 +1,86 @@
+package shortly.mandmcorp.dev.shortly.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import shortly.mandmcorp.dev.shortly.annotation.TrackUserAction;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.model.UserAction;
+
+/**
+ * Weaves the aspect around a small annotated target through a Spring AOP proxy.
+ */
+class UserActionAspectTest {
+
+    private final UserActionWriter writer = mock(UserActionWriter.class);
+    private final Target target = proxy(new Target(), new UserActionAspect(writer));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void successfulCallIsHandedToTheWriter() {
+        User user = User.builder().userId("user-1").name("Ama").role(UserRole.ADMIN).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(writer.append(any(UserAction.class))).thenReturn(true);
+
+        assertThat(target.rotate()).isEqualTo("rotated");
+
+        ArgumentCaptor<UserAction> captor = ArgumentCaptor.forClass(UserAction.class);
+        verify(writer).append(captor.capture());
+        assertThat(captor.getValue().getUserId()).isEqualTo("user-1");
+        assertThat(captor.getValue().getAction()).isEqualTo("ROTATE");
+        assertThat(captor.getValue().getDescription()).isEqualTo("Rotated something");
+        assertThat(captor.getValue().getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void failedCallIsNotRecorded() {
+        assertThatThrownBy(target::fail).isInstanceOf(IllegalStateException.class);
+
+        verify(writer, never()).append(any(UserAction.class));
+    }
+
+    @Test
+    void fullBufferDoesNotFailTheCall() {
+        when(writer.append(any(UserAction.class))).thenReturn(false);
+
+        assertThat(target.rotate()).isEqualTo("rotated");
+        verify(writer).append(any(UserAction.class));
+    }
+
+    static class Target {
+        @TrackUserAction(action = "ROTATE", description = "Rotated something")
+        public String rotate() {
+            return "rotated";
+        }
+
+        @TrackUserAction(action = "FAIL")
+        public String fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private static Target proxy(Target target, UserActionAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,128 @@
+package shortly.mandmcorp.dev.shortly.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shortly.mandmcorp.dev.shortly.config.UserActionConfig;
+import shortly.mandmcorp.dev.shortly.model.UserAction;
+
+/**
+ * Runs the writer thread against a mocked {@code insertAll} that records each batch.
+ */
+class UserActionWriterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final UserActionConfig config = new UserActionConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private UserActionWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch;
+        });
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void writesFullBatchesAtOnceAndTheRestAfterTheFlushInterval() {
+        config.setBatchSize(3);
+        config.setFlushIntervalMs(500);
+        writer = started();
+
+        for (int i = 0; i < 7; i++) {
+            assertThat(writer.append(action(i))).isTrue();
+        }
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> batchSizes.size() == 3);
+        assertThat(batchSizes).containsExactly(3, 3, 1);
+        assertThat(meterRegistry.counter("user.actions.written").count()).isEqualTo(7);
+    }
+
+    @Test
+    void shutdownFlushesEverythingStillBuffered() throws InterruptedException {
+        config.setBatchSize(100);
+        config.setFlushIntervalMs(60000);
+        writer = started();
+        for (int i = 0; i < 5; i++) {
+            writer.append(action(i));
+        }
+
+        writer.stop();
+        writer = null;
+
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(meterRegistry.counter("user.actions.written").count()).isEqualTo(5);
+    }
+
+    @Test
+    void fullBufferDropsEntriesWithoutBlocking() {
+        config.setQueueCapacity(2);
+        // not started, so nothing drains the buffer
+        UserActionWriter idle = new UserActionWriter(mongoTemplate, config, meterRegistry);
+
+        assertThat(idle.append(action(1))).isTrue();
+        assertThat(idle.append(action(2))).isTrue();
+        assertThat(idle.append(action(3))).isFalse();
+
+        assertThat(meterRegistry.counter("user.actions.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.actions.buffer.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void failedBatchIsCountedAndTheWriterKeepsGoing() {
+        config.setBatchSize(1);
+        config.setFlushIntervalMs(100);
+        doThrow(new IllegalStateException("mongo down"))
+            .doAnswer(invocation -> {
+                Collection<?> batch = invocation.getArgument(0);
+                batchSizes.add(batch.size());
+                return batch;
+            })
+            .when(mongoTemplate).insertAll(anyCollection());
+        writer = started();
+
+        writer.append(action(1));
+        writer.append(action(2));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> batchSizes.size() == 1);
+        assertThat(meterRegistry.counter("user.actions.failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("user.actions.written").count()).isEqualTo(1);
+    }
+
+    private UserActionWriter started() {
+        UserActionWriter started = new UserActionWriter(mongoTemplate, config, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static UserAction action(int i) {
+        return UserAction.builder().userId("user-" + i).action("TEST").createdAt(Instant.now()).build();
+    }
+}
@@ -0,0 +1,119 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.ActiveProfiles;
+
+import shortly.mandmcorp.dev.shortly.model.UserAction;
+import shortly.mandmcorp.dev.shortly.model.VerificationToken;
+
+/**
+ * Provisions retention against the test database and reads back what Mongo reports.
+ * Requires MongoDB 5.0 or later for time-series collections.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class MongoRetentionProvisioningTest {
+
+    @Autowired
+    private MongoConfig mongoConfig;
+
+    @Autowired
+    private RetentionConfig retentionConfig;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private long userActionsDays;
+    private long verificationTokenMinutes;
+
+    @BeforeEach
+    void dropCollections() {
+        userActionsDays = retentionConfig.getUserActionsDays();
+        verificationTokenMinutes = retentionConfig.getVerificationTokenMinutes();
+        mongoTemplate.dropCollection(UserAction.class);
+        mongoTemplate.dropCollection(VerificationToken.class);
+    }
+
+    @AfterEach
+    void restoreRetention() {
+        retentionConfig.setUserActionsDays(userActionsDays);
+        retentionConfig.setVerificationTokenMinutes(verificationTokenMinutes);
+        mongoTemplate.dropCollection(UserAction.class);
+        mongoTemplate.dropCollection(VerificationToken.class);
+        mongoConfig.provisionRetention();
+    }
+
+    @Test
+    void createsTimeSeriesUserActionsAndTtlOnVerificationTokens() {
+        mongoConfig.provisionRetention();
+
+        Document userActions = collectionInfo(mongoTemplate.getCollectionName(UserAction.class));
+        assertThat(userActions.getString("type")).isEqualTo("timeseries");
+        Document options = userActions.get("options", Document.class);
+        assertThat(options.get("expireAfterSeconds", Number.class).longValue())
+            .isEqualTo(Duration.ofDays(userActionsDays).toSeconds());
+        Document timeseries = options.get("timeseries", Document.class);
+        assertThat(timeseries.getString("timeField")).isEqualTo("createdAt");
+        assertThat(timeseries.getString("metaField")).isEqualTo("userId");
+
+        assertThat(createdAtTtl(mongoTemplate.getCollectionName(VerificationToken.class)))
+            .isEqualTo(Duration.ofMinutes(verificationTokenMinutes));
+    }
+
+    @Test
+    void reappliesChangedRetentionWithCollMod() {
+        mongoConfig.provisionRetention();
+        retentionConfig.setUserActionsDays(30);
+        retentionConfig.setVerificationTokenMinutes(5);
+
+        mongoConfig.provisionRetention();
+
+        Document options = collectionInfo(mongoTemplate.getCollectionName(UserAction.class)).get("options", Document.class);
+        assertThat(options.get("expireAfterSeconds", Number.class).longValue()).isEqualTo(Duration.ofDays(30).toSeconds());
+        assertThat(createdAtTtl(mongoTemplate.getCollectionName(VerificationToken.class))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void isIdempotent() {
+        mongoConfig.provisionRetention();
+        mongoConfig.provisionRetention();
+
+        List<IndexInfo> indexes = mongoTemplate.indexOps(VerificationToken.class).getIndexInfo();
+        assertThat(indexes).filteredOn(index -> index.isIndexForFields(List.of("createdAt"))).hasSize(1);
+    }
+
+    @Test
+    void fallsBackToTtlIndexForAnExistingRegularUserActionsCollection() {
+        mongoTemplate.createCollection(UserAction.class);
+
+        mongoConfig.provisionRetention();
+
+        String collection = mongoTemplate.getCollectionName(UserAction.class);
+        assertThat(collectionInfo(collection).getString("type")).isEqualTo("collection");
+        assertThat(createdAtTtl(collection)).isEqualTo(Duration.ofDays(userActionsDays));
+    }
+
+    private Document collectionInfo(String collection) {
+        return mongoTemplate.getDb().listCollections().filter(new Document("name", collection)).first();
+    }
+
+    private Duration createdAtTtl(String collection) {
+        return mongoTemplate.indexOps(collection).getIndexInfo().stream()
+            .filter(index -> index.isIndexForFields(List.of("createdAt")))
+            .findFirst()
+            .flatMap(IndexInfo::getExpireAfter)
+            .orElse(null);
+    }
+}
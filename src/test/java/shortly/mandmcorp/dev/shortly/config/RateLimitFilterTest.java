@@ -0,0 +1,187 @@
+package shortly.mandmcorp.dev.shortly.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import shortly.mandmcorp.dev.shortly.config.security.JWTAuthenticationFilter;
+import shortly.mandmcorp.dev.shortly.config.security.JWTConfig;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectedRequestsGet429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(2, 1, 1000);
+
+        assertThat(anonymous(filter, "203.0.113.7", null).getStatus()).isEqualTo(200);
+        assertThat(anonymous(filter, "203.0.113.7", null).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = anonymous(filter, "203.0.113.7", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(passed).hasValue(2);
+    }
+
+    @Test
+    void spoofedForwardedForDoesNotGetAFreshBucket() throws Exception {
+        RateLimitFilter filter = filter(10, 1, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            anonymous(filter, "203.0.113.7", "198.51.100." + i);
+        }
+
+        // one refill may land while the loop runs
+        assertThat(passed.get()).isBetween(10, 11);
+    }
+
+    @Test
+    void requestsWithInvalidTokensAreLimitedPerAddress() throws Exception {
+        RateLimitConfig config = config(100, 50, 1000);
+        config.setAddress(new RateLimitConfig.Limit(3, 1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AddressRateLimitFilter addressFilter = new AddressRateLimitFilter(config, meterRegistry);
+        JWTConfig jwtConfig = mock(JWTConfig.class);
+        when(jwtConfig.parseAccessToken(anyString())).thenThrow(new MalformedJwtException("garbage"));
+        JWTAuthenticationFilter jwtFilter = new JWTAuthenticationFilter(jwtConfig, mock(PrincipalCache.class));
+        RateLimitFilter userFilter = new RateLimitFilter(config, meterRegistry);
+
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api-admin/users");
+            request.setRemoteAddr("203.0.113.7");
+            request.addHeader("Authorization", "Bearer not-a-token-" + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest req, HttpServletResponse res) {
+                    passed.incrementAndGet();
+                }
+            }, addressFilter, jwtFilter, userFilter).doFilter(request, response);
+            statuses.add(response.getStatus());
+        }
+
+        // authentication rejects the token before the per-user limiter runs, the address limiter still counts it
+        assertThat(statuses).containsExactly(401, 401, 401, 429, 429);
+        assertThat(passed).hasValue(0);
+        assertThat(meterRegistry.counter("rate.limit.address.rejected").count()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestsForOneUserNeverExceedTheBucket() throws Exception {
+        RateLimitConfig config = config(1, 1, 1000);
+        config.getRoles().put(UserRole.RIDER, new RateLimitConfig.Limit(1000, 1));
+        RateLimitFilter filter = new RateLimitFilter(config, new SimpleMeterRegistry());
+        User rider = User.builder().userId("rider-1").role(UserRole.RIDER).build();
+
+        long started = System.nanoTime();
+        int threads = 32;
+        int requestsPerThread = 500;
+        runConcurrently(threads, () -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(rider, null, rider.getAuthorities()));
+            for (int i = 0; i < requestsPerThread; i++) {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+            }
+            return null;
+        });
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started);
+
+        assertThat(passed.get()).isBetween(1000, 1000 + (int) elapsedSeconds + 1);
+    }
+
+    @Test
+    void bucketRegistryStaysBoundedUnderManyDistinctCallers() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(config(10, 5, 1024), meterRegistry);
+        AtomicInteger next = new AtomicInteger();
+
+        runConcurrently(16, () -> {
+            for (int i = 0; i < 5000; i++) {
+                int caller = next.incrementAndGet();
+                anonymous(filter, "10." + (caller >> 16 & 255) + "." + (caller >> 8 & 255) + "." + (caller & 255), null);
+            }
+            return null;
+        });
+
+        assertThat(passed).hasValue(80000);
+        assertThat(meterRegistry.get("rate.limit.buckets").gauge().value()).isLessThanOrEqualTo(1024);
+    }
+
+    private RateLimitFilter filter(long capacity, long refillPerSecond, int maxEntries) {
+        return new RateLimitFilter(config(capacity, refillPerSecond, maxEntries), new SimpleMeterRegistry());
+    }
+
+    private static RateLimitConfig config(long capacity, long refillPerSecond, int maxEntries) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setAnonymous(new RateLimitConfig.Limit(capacity, refillPerSecond));
+        config.setMaxEntries(maxEntries);
+        return config;
+    }
+
+    private MockHttpServletResponse anonymous(RateLimitFilter filter, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api-user/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void runConcurrently(int threads, Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package shortly.mandmcorp.dev.shortly.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.security.SignatureException;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.model.JwtSigningKeys;
+import shortly.mandmcorp.dev.shortly.model.User;
+
+/**
+ * Two instances share one mocked {@code jwt_signing_keys} document: one rotates, the other
+ * picks the rotation up, and tokens signed before the rotation keep verifying on both.
+ */
+class JWTConfigTest {
+
+    private static final String ACCESS_KEY = "configured-access-key-0123456789abcdef";
+    private static final String REFRESH_KEY = "configured-refresh-key-0123456789abcdef";
+    private static final String NEW_ACCESS_KEY = "rotated-access-key-0123456789abcdef0000";
+    private static final String NEW_REFRESH_KEY = "rotated-refresh-key-0123456789abcdef0000";
+    private static final String ENCRYPTION_KEY = "key-encryption-key-0123456789abcdef0000";
+
+    private final AtomicReference<JwtSigningKeys> stored = new AtomicReference<>();
+    private final List<JWTConfig> instances = new ArrayList<>();
+    private final User user = User.builder().userId("user-1").name("Ama").email("ama@example.com")
+        .phoneNumber("0240000000").role(UserRole.ADMIN).build();
+
+    @AfterEach
+    void stopInstances() {
+        instances.forEach(JWTConfig::stop);
+    }
+
+    @Test
+    void rotationStoresOnlyCiphertext() {
+        JWTConfig jwt = instance(ENCRYPTION_KEY);
+
+        jwt.rotateKeys(NEW_ACCESS_KEY, NEW_REFRESH_KEY);
+
+        JwtSigningKeys keys = stored.get();
+        assertThat(keys.getVersion()).isEqualTo(1);
+        assertThat(List.of(keys.getAccessKey(), keys.getRefreshKey(), keys.getPreviousAccessKey(), keys.getPreviousRefreshKey()))
+            .allSatisfy(value -> assertThat(value).startsWith("v1:"))
+            .noneMatch(value -> value.contains(NEW_ACCESS_KEY) || value.contains(ACCESS_KEY)
+                || value.contains(NEW_REFRESH_KEY) || value.contains(REFRESH_KEY));
+    }
+
+    @Test
+    void rotationReachesOtherInstancesAndPreviousTokensStillVerify() {
+        JWTConfig rotating = instance(ENCRYPTION_KEY);
+        JWTConfig other = instance(ENCRYPTION_KEY);
+        String oldAccess = rotating.generateAccessToken(user);
+        String oldRefresh = rotating.generateRefreshToken(user);
+
+        rotating.rotateKeys(NEW_ACCESS_KEY, NEW_REFRESH_KEY);
+        String newAccess = rotating.generateAccessToken(user);
+
+        // the other instance has not refreshed yet; a token it cannot verify triggers the refresh,
+        // which is rate limited to once a second after the refresh done at startup
+        ReflectionTestUtils.setField(other, "lastRefreshAt", 0L);
+        assertThat(other.validateToken(newAccess, user.getPhoneNumber())).isTrue();
+        assertThat(other.extractRole(newAccess)).isEqualTo("ADMIN");
+        for (JWTConfig jwt : List.of(rotating, other)) {
+            assertThat(jwt.validateToken(oldAccess, user.getPhoneNumber())).isTrue();
+            assertThat(jwt.validateRefreshToken(oldRefresh, user.getPhoneNumber())).isTrue();
+        }
+        assertThat(rotating.validateToken(other.generateAccessToken(user), user.getPhoneNumber())).isTrue();
+    }
+
+    @Test
+    void restartedInstanceLoadsTheRotatedKeys() {
+        instance(ENCRYPTION_KEY).rotateKeys(NEW_ACCESS_KEY, NEW_REFRESH_KEY);
+
+        JWTConfig restarted = instance(ENCRYPTION_KEY);
+        String token = restarted.generateAccessToken(user);
+
+        JWTConfig configuredOnly = instance("");
+        assertThatThrownBy(() -> configuredOnly.parseAccessToken(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void keysEncryptedWithAnotherKeyAreIgnored() {
+        JWTConfig rotating = instance(ENCRYPTION_KEY);
+        rotating.rotateKeys(NEW_ACCESS_KEY, NEW_REFRESH_KEY);
+
+        JWTConfig wrongKey = instance("another-key-encryption-key-0123456789ab");
+
+        // keeps signing with the configured keys and cannot verify tokens signed with the rotated ones
+        assertThat(instance("").validateToken(wrongKey.generateAccessToken(user), user.getPhoneNumber())).isTrue();
+        assertThatThrownBy(() -> wrongKey.parseAccessToken(rotating.generateAccessToken(user)))
+            .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void plainTextKeysInTheCollectionAreIgnored() {
+        JwtSigningKeys planted = new JwtSigningKeys();
+        planted.setId(JwtSigningKeys.CURRENT);
+        planted.setVersion(5);
+        planted.setAccessKey("forged-access-key-0123456789abcdef00000");
+        planted.setRefreshKey("forged-refresh-key-0123456789abcdef0000");
+        stored.set(planted);
+
+        JWTConfig jwt = instance(ENCRYPTION_KEY);
+        JWTConfig configured = instance("");
+
+        assertThat(configured.validateToken(jwt.generateAccessToken(user), user.getPhoneNumber())).isTrue();
+    }
+
+    @Test
+    void rotationIsRefusedWithoutAnEncryptionKey() {
+        JWTConfig jwt = instance("");
+
+        assertThatThrownBy(() -> jwt.rotateKeys(NEW_ACCESS_KEY, NEW_REFRESH_KEY)).isInstanceOf(ActionNotAllowed.class);
+        assertThat(stored.get()).isNull();
+    }
+
+    private JWTConfig instance(String encryptionKey) {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findById(JwtSigningKeys.CURRENT, JwtSigningKeys.class)).thenAnswer(invocation -> stored.get());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(JwtSigningKeys.class)))
+            .thenAnswer(invocation -> {
+                Document set = (Document) ((Update) invocation.getArgument(1)).getUpdateObject().get("$set");
+                JwtSigningKeys keys = new JwtSigningKeys();
+                keys.setId(JwtSigningKeys.CURRENT);
+                keys.setVersion(set.getLong("version"));
+                keys.setAccessKey(set.getString("accessKey"));
+                keys.setRefreshKey(set.getString("refreshKey"));
+                keys.setPreviousAccessKey(set.getString("previousAccessKey"));
+                keys.setPreviousRefreshKey(set.getString("previousRefreshKey"));
+                keys.setPreviousRetiresAt(set.getLong("previousRetiresAt"));
+                stored.set(keys);
+                return null;
+            });
+
+        JWTConfig jwt = new JWTConfig(mongoTemplate);
+        ReflectionTestUtils.setField(jwt, "accessKey", ACCESS_KEY);
+        ReflectionTestUtils.setField(jwt, "refreshKey", REFRESH_KEY);
+        ReflectionTestUtils.setField(jwt, "expirationTime", 3600000L);
+        ReflectionTestUtils.setField(jwt, "keyRefreshMs", 3600000L);
+        ReflectionTestUtils.setField(jwt, "keyEncryptionKey", encryptionKey);
+        jwt.init();
+        instances.add(jwt);
+        return jwt;
+    }
+}
@@ -0,0 +1,54 @@
+package shortly.mandmcorp.dev.shortly.enums;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.ACCEPTED;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.ASSIGNED;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.CANCELLED;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.COMPLETED;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.DELIVERED;
+import static shortly.mandmcorp.dev.shortly.enums.DeliveryStatus.PICKED_UP;
+
+import org.junit.jupiter.api.Test;
+
+class DeliveryStatusTest {
+
+    @Test
+    void openAssignmentsMoveForwardOrBackToAssigned() {
+        assertThat(ASSIGNED.canMoveTo(ACCEPTED)).isTrue();
+        assertThat(ASSIGNED.canMoveTo(PICKED_UP)).isTrue();
+        assertThat(ACCEPTED.canMoveTo(PICKED_UP)).isTrue();
+        assertThat(PICKED_UP.canMoveTo(DELIVERED)).isTrue();
+        assertThat(ACCEPTED.canMoveTo(ASSIGNED)).isTrue();
+        assertThat(PICKED_UP.canMoveTo(ASSIGNED)).isTrue();
+        assertThat(PICKED_UP.canMoveTo(ACCEPTED)).isFalse();
+    }
+
+    @Test
+    void onlyDeliveredAssignmentsCanBeCompleted() {
+        assertThat(COMPLETED.previousStatuses()).containsExactly(DELIVERED);
+        assertThat(DELIVERED.canMoveTo(CANCELLED)).isFalse();
+        assertThat(DELIVERED.canMoveTo(ASSIGNED)).isFalse();
+    }
+
+    @Test
+    void cancelledAndCompletedAreFinal() {
+        for (DeliveryStatus next : DeliveryStatus.values()) {
+            assertThat(CANCELLED.canMoveTo(next)).isFalse();
+            assertThat(COMPLETED.canMoveTo(next)).isFalse();
+        }
+    }
+
+    @Test
+    void stayingInTheSameStatusIsNotAMove() {
+        for (DeliveryStatus status : DeliveryStatus.values()) {
+            assertThat(status.canMoveTo(status)).isFalse();
+        }
+    }
+
+    @Test
+    void previousStatusesMirrorCanMoveTo() {
+        assertThat(ASSIGNED.previousStatuses()).containsExactly(ACCEPTED, PICKED_UP);
+        assertThat(CANCELLED.previousStatuses()).containsExactly(ASSIGNED, ACCEPTED, PICKED_UP);
+        assertThat(DELIVERED.previousStatuses()).containsExactly(ASSIGNED, ACCEPTED, PICKED_UP);
+    }
+}
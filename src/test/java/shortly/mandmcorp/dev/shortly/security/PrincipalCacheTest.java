@@ -0,0 +1,83 @@
+package shortly.mandmcorp.dev.shortly.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import shortly.mandmcorp.dev.shortly.config.PrincipalCacheConfig;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.User;
+
+class PrincipalCacheTest {
+
+    private final UserDetailService userDetailService = mock(UserDetailService.class);
+    private final PrincipalCacheConfig config = new PrincipalCacheConfig();
+
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config.setMaxEntries(10);
+        config.setTtlMs(60000);
+        cache = new PrincipalCache(userDetailService, config);
+        when(userDetailService.loadUserByUsername(anyString())).thenAnswer(invocation -> User.builder()
+            .userId("user-" + invocation.getArgument(0)).name("User").phoneNumber(invocation.getArgument(0))
+            .role(UserRole.RIDER).build());
+    }
+
+    @Test
+    void repeatedLookupsHitTheCacheUntilInvalidated() {
+        cache.get("0240000000");
+        cache.get("0240000000");
+        verify(userDetailService, times(1)).loadUserByUsername("0240000000");
+
+        cache.invalidate("0240000000");
+        cache.get("0240000000");
+        verify(userDetailService, times(2)).loadUserByUsername("0240000000");
+    }
+
+    @Test
+    void fullCacheEvictsTheOldestEntriesInsteadOfEverything() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            cache.get("phone-" + i);
+            // distinct expiry times so "oldest" is well defined
+            Thread.sleep(2);
+        }
+
+        cache.get("phone-10");
+
+        // the oldest entry made room; the rest are still served from the cache
+        for (int i = 1; i <= 10; i++) {
+            cache.get("phone-" + i);
+            verify(userDetailService, times(1)).loadUserByUsername("phone-" + i);
+        }
+        cache.get("phone-0");
+        verify(userDetailService, times(2)).loadUserByUsername("phone-0");
+    }
+
+    @Test
+    void expiredEntriesAreEvictedBeforeLiveOnes() throws InterruptedException {
+        config.setTtlMs(20);
+        for (int i = 0; i < 5; i++) {
+            cache.get("stale-" + i);
+        }
+        Thread.sleep(40);
+        config.setTtlMs(60000);
+        for (int i = 0; i < 5; i++) {
+            cache.get("live-" + i);
+        }
+
+        cache.get("new");
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("live-" + i);
+            verify(userDetailService, times(1)).loadUserByUsername("live-" + i);
+        }
+    }
+}
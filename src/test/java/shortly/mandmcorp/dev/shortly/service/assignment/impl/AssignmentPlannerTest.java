@@ -0,0 +1,123 @@
+package shortly.mandmcorp.dev.shortly.service.assignment.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import shortly.mandmcorp.dev.shortly.dto.response.RiderBatchProposal;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.User;
+
+class AssignmentPlannerTest {
+
+    @Test
+    void areaIsTheSegmentBeforeTheCity() {
+        assertThat(AssignmentPlanner.areaOf("12 Oak St, East  Legon, Accra")).isEqualTo("east legon");
+        assertThat(AssignmentPlanner.areaOf("Osu")).isEqualTo("osu");
+        assertThat(AssignmentPlanner.areaOf(" , ")).isEmpty();
+        assertThat(AssignmentPlanner.areaOf(null)).isEmpty();
+    }
+
+    @Test
+    void everyParcelIsProposedExactlyOnce() {
+        List<Parcel> parcels = parcels(17, "Osu", "Labone", "Airport");
+
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels, riders("r1", "r2", "r3"), Map.of(), Map.of(), 0.5);
+
+        List<String> proposed = batches.stream().flatMap(batch -> batch.getParcelIds().stream()).toList();
+        assertThat(proposed).doesNotHaveDuplicates()
+            .containsExactlyInAnyOrderElementsOf(parcels.stream().map(Parcel::getParcelId).toList());
+    }
+
+    @Test
+    void openAssignmentsAreEvenedOut() {
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels(6, "Osu"), riders("busy", "idle"),
+            Map.of("busy", 4), Map.of(), 0);
+
+        Map<String, Integer> load = totalLoad(batches, Map.of("busy", 4));
+        assertThat(load.get("busy")).isEqualTo(5);
+        assertThat(load.get("idle")).isEqualTo(5);
+    }
+
+    @Test
+    void ridersWithRecentCancellationsGetTheRiskiestParcelsLast() {
+        List<Parcel> parcels = parcels(8, "Osu");
+        for (int i = 0; i < parcels.size(); i++) {
+            parcels.get(i).setCancelationCount(i);
+        }
+
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels, riders("careful", "clumsy"),
+            Map.of(), Map.of("clumsy", 3), 1.0);
+
+        // the clumsy rider's capacity shrinks to one, so the careful one takes the four most cancelled parcels
+        Map<String, RiderBatchProposal> byRider = byRider(batches);
+        assertThat(byRider.get("careful").getParcelIds()).containsExactly("Osu-7", "Osu-6", "Osu-5", "Osu-4");
+        assertThat(byRider.get("clumsy").getParcelIds()).startsWith("Osu-3");
+        assertThat(byRider.get("clumsy").getRecentCancellations()).isEqualTo(3);
+    }
+
+    @Test
+    void areasStayTogetherWhenCapacityAllows() {
+        List<Parcel> parcels = new ArrayList<>(parcels(4, "Osu"));
+        parcels.addAll(parcels(4, "Labone"));
+        for (int i = 0; i < parcels.size(); i++) {
+            parcels.get(i).setParcelId("p" + i);
+        }
+
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels, riders("r1", "r2"), Map.of(), Map.of(), 0);
+
+        assertThat(batches).hasSize(2).allSatisfy(batch -> assertThat(batch.getAreas()).hasSize(1));
+    }
+
+    @Test
+    void mostCancelledParcelsGoFirst() {
+        List<Parcel> parcels = parcels(3, "Osu");
+        parcels.get(2).setCancelationCount(5);
+
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels, riders("r1"), Map.of(), Map.of(), 0);
+
+        assertThat(batches.get(0).getParcelIds().get(0)).isEqualTo(parcels.get(2).getParcelId());
+    }
+
+    @Test
+    void ridersWithoutParcelsAreLeftOut() {
+        List<RiderBatchProposal> batches = AssignmentPlanner.plan(parcels(1, "Osu"), riders("r1", "r2"), Map.of(), Map.of(), 0);
+
+        assertThat(batches).hasSize(1);
+    }
+
+    private Map<String, Integer> totalLoad(List<RiderBatchProposal> batches, Map<String, Integer> openLoad) {
+        return batches.stream().collect(Collectors.toMap(RiderBatchProposal::getRiderId,
+            batch -> batch.getParcelIds().size() + openLoad.getOrDefault(batch.getRiderId(), 0)));
+    }
+
+    private Map<String, RiderBatchProposal> byRider(List<RiderBatchProposal> batches) {
+        return batches.stream().collect(Collectors.toMap(RiderBatchProposal::getRiderId, Function.identity()));
+    }
+
+    private List<Parcel> parcels(int count, String... areas) {
+        List<Parcel> parcels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Parcel parcel = new Parcel();
+            parcel.setParcelId(areas[i % areas.length] + "-" + i);
+            parcel.setReceiverAddress(i + " Main St, " + areas[i % areas.length] + ", Accra");
+            parcels.add(parcel);
+        }
+        return parcels;
+    }
+
+    private List<User> riders(String... ids) {
+        List<User> riders = new ArrayList<>(ids.length);
+        for (String id : ids) {
+            riders.add(User.builder().userId(id).name("Rider " + id).role(UserRole.RIDER).build());
+        }
+        return riders;
+    }
+}
@@ -0,0 +1,191 @@
+package shortly.mandmcorp.dev.shortly.service.notification.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shortly.mandmcorp.dev.shortly.config.MNotifyConfig;
+import shortly.mandmcorp.dev.shortly.config.OutboundHttpConfig;
+import shortly.mandmcorp.dev.shortly.config.WebClientConfig;
+import shortly.mandmcorp.dev.shortly.service.notification.NotificationRequestTemplate;
+import shortly.mandmcorp.dev.shortly.utils.WebRequestUtil;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs the dispatcher against a local stub of the mNotify quick-send endpoint.
+ */
+class SmsDispatchQueueTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final List<Map<String, Object>> received = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+    private final ExecutorService stubExecutor = Executors.newCachedThreadPool();
+
+    private volatile long responseDelayMs;
+    private HttpServer stub;
+    private SmsDispatchQueue queue;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/quick", this::handle);
+        stub.setExecutor(stubExecutor);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopAll() throws InterruptedException {
+        if (queue != null) {
+            queue.stop();
+        }
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void messagesWithTheSameBodyAreSentAsOneRequest() throws InterruptedException {
+        queue = newQueue(100);
+
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(sms("02400000" + i, "Your parcel is ready"));
+        }
+        queue.enqueue(sms("0240000099", "A different message"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> received.size() == 2);
+        assertThat(recipientsFor("Your parcel is ready"))
+            .containsExactlyInAnyOrder("024000000", "024000001", "024000002", "024000003", "024000004");
+        assertThat(recipientsFor("A different message")).containsExactly("0240000099");
+        assertThat(received).allSatisfy(request -> assertThat(request).containsEntry("sender", "ShortlyPush"));
+    }
+
+    @Test
+    void largeRecipientListsAreSplitByMaxBatchSize() throws InterruptedException {
+        queue = newQueue(2);
+
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(sms("02400000" + i, "Same body"));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> received.size() == 3);
+        assertThat(received).extracting(request -> ((List<?>) request.get("recipient")).size())
+            .containsExactlyInAnyOrder(2, 2, 1);
+    }
+
+    @Test
+    void blankRecipientsAreNotSent() throws InterruptedException {
+        queue = newQueue(100);
+
+        queue.enqueue(sms(" ", "Nobody"));
+        queue.enqueue(sms("0240000001", "Somebody"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> received.size() == 1);
+        assertThat(recipientsFor("Somebody")).containsExactly("0240000001");
+    }
+
+    @Test
+    void concurrentRequestsAreBoundedByMaxInFlight() {
+        responseDelayMs = 150;
+        queue = newQueue(100, 2);
+
+        // unique bodies (like OTP messages) cannot be coalesced, so each is its own request
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(sms("02400000" + i, "Your code is " + i));
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> received.size() == 10);
+        assertThat(maxObservedInFlight.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void stopWaitsForQueuedMessagesToBeSent() throws InterruptedException {
+        responseDelayMs = 100;
+        queue = newQueue(100, 2);
+
+        for (int i = 0; i < 8; i++) {
+            queue.enqueue(sms("02400000" + i, "Your code is " + i));
+        }
+        queue.stop();
+        queue = null;
+
+        assertThat(received).hasSize(8);
+    }
+
+    private SmsDispatchQueue newQueue(int maxBatchSize) {
+        return newQueue(maxBatchSize, 16);
+    }
+
+    private SmsDispatchQueue newQueue(int maxBatchSize, int maxInFlight) {
+        MNotifyConfig config = new MNotifyConfig();
+        config.setAccessKey("test-key");
+        config.setSender("ShortlyPush");
+        config.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        config.setBatchWindowMs(200);
+        config.setMaxBatchSize(maxBatchSize);
+        config.setMaxInFlight(maxInFlight);
+
+        OutboundHttpConfig httpConfig = new OutboundHttpConfig();
+        httpConfig.setMaxRetries(0);
+        WebClient webClient = new WebClientConfig().webClient(httpConfig);
+
+        SmsDispatchQueue smsQueue = new SmsDispatchQueue(config, new WebRequestUtil(webClient, httpConfig), new SimpleMeterRegistry());
+        smsQueue.start();
+        return smsQueue;
+    }
+
+    private static NotificationRequestTemplate sms(String to, String body) {
+        return NotificationRequestTemplate.builder().to(to).body(body).build();
+    }
+
+    private List<String> recipientsFor(String message) {
+        List<String> recipients = new ArrayList<>();
+        for (Map<String, Object> request : received) {
+            if (message.equals(request.get("message"))) {
+                for (Object recipient : (List<?>) request.get("recipient")) {
+                    recipients.add((String) recipient);
+                }
+            }
+        }
+        return recipients;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxObservedInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Map<String, Object> request = jsonMapper.readValue(exchange.getRequestBody(), Map.class);
+            if (responseDelayMs > 0) {
+                Thread.sleep(responseDelayMs);
+            }
+            received.add(request);
+            exchange.sendResponseHeaders(200, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package shortly.mandmcorp.dev.shortly.service.parcel.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import jakarta.validation.Validator;
+import tools.jackson.databind.json.JsonMapper;
+import shortly.mandmcorp.dev.shortly.dto.request.ParcelRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeResponse;
+import shortly.mandmcorp.dev.shortly.dto.response.BulkIntakeRowResult;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.Office;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.Shelf;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.CancelationReasonRepository;
+import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
+import shortly.mandmcorp.dev.shortly.repository.ParcelRepository;
+import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
+import shortly.mandmcorp.dev.shortly.utils.ParcelMapper;
+import shortly.mandmcorp.dev.shortly.utils.QueryCountCache;
+import shortly.mandmcorp.dev.shortly.utils.ShelfRegistry;
+
+class ParcelBulkIntakeTest {
+
+    private static final String ROW = "{\"recieverPhoneNumber\":\"0240000000\",\"driverName\":\"Driver\","
+        + "\"driverPhoneNumber\":\"0240000001\",\"vehicleNumber\":\"GR-1\",\"shelfNumber\":\"shelf-1\",\"officeId\":\"office-1\"}\n";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+    private final ParcelMapper parcelMapper = mock(ParcelMapper.class);
+    private final OfficeRepository officeRepository = mock(OfficeRepository.class);
+    private final ShelfRegistry shelfRegistry = mock(ShelfRegistry.class);
+    private final QueryCountCache countCache = mock(QueryCountCache.class);
+    private final Validator validator = mock(Validator.class);
+
+    private ParcelServiceImplementation parcelService;
+
+    @BeforeEach
+    void setUp() {
+        Office office = new Office();
+        office.setId("office-1");
+        Shelf shelf = new Shelf();
+        shelf.setId("shelf-1");
+        shelf.setOfficeId("office-1");
+        shelf.setName("A1");
+        when(officeRepository.findById("office-1")).thenReturn(Optional.of(office));
+        when(shelfRegistry.find("office-1", "shelf-1")).thenReturn(Optional.of(shelf));
+        when(parcelMapper.toEntity(any(ParcelRequest.class), any())).thenAnswer(invocation -> new Parcel());
+        when(validator.validate(any(ParcelRequest.class))).thenReturn(Set.of());
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Parcel.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        parcelService = new ParcelServiceImplementation(mock(ParcelRepository.class), parcelMapper, officeRepository,
+            mock(UserRepository.class), shelfRegistry, mongoTemplate, mock(CancelationReasonRepository.class),
+            countCache, mock(PrincipalCache.class), JsonMapper.builder().build(), validator);
+
+        User frontDesk = User.builder().userId("frontdesk-1").name("Desk").role(UserRole.FRONTDESK).officeId("office-1").build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(frontDesk, null, frontDesk.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readFailureLeavesThePendingChunkUninsertedAndReportsIncomplete() {
+        InputStream body = new SequenceInputStream(
+            new ByteArrayInputStream((ROW + ROW).getBytes(StandardCharsets.UTF_8)), failingStream());
+
+        BulkIntakeResponse response = parcelService.bulkAddParcels(body, false, null);
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(response.getInserted()).isZero();
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getRows()).extracting(BulkIntakeRowResult::getError).allMatch(error -> error.contains("interrupted"));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Parcel.class));
+    }
+
+    @Test
+    void resentUploadWithTheSameKeyReportsStoredRowsAsAlreadyInserted() {
+        BulkIntakeResponse first = parcelService.bulkAddParcels(body(ROW + ROW), false, "upload-1");
+
+        assertThat(first.isComplete()).isTrue();
+        assertThat(first.getInserted()).isEqualTo(2);
+        List<String> ids = first.getRows().stream().map(BulkIntakeRowResult::getParcelId).toList();
+        assertThat(ids).doesNotHaveDuplicates().allMatch(id -> id.matches("[0-9a-f]{24}"));
+
+        // the first row was stored before; the database rejects its id
+        BulkOperationException duplicate = mock(BulkOperationException.class);
+        when(duplicate.getErrors()).thenReturn(List.of(new BulkWriteError(11000,
+            "E11000 duplicate key error collection: shortly.parcels index: _id_ dup key", new BsonDocument(), 0)));
+        when(bulkOperations.execute()).thenThrow(duplicate);
+
+        BulkIntakeResponse retry = parcelService.bulkAddParcels(body(ROW + ROW), false, "upload-1");
+
+        assertThat(retry.getRows()).extracting(BulkIntakeRowResult::getParcelId).containsExactlyElementsOf(ids);
+        assertThat(retry.getRows().get(0).isAlreadyInserted()).isTrue();
+        assertThat(retry.getRows().get(1).isInserted()).isTrue();
+        assertThat(retry.getAlreadyInserted()).isEqualTo(1);
+        assertThat(retry.getInserted()).isEqualTo(1);
+        assertThat(retry.getFailed()).isZero();
+    }
+
+    @Test
+    void keysAreScopedToTheUploader() {
+        String ownId = parcelService.bulkAddParcels(body(ROW), false, "upload-1").getRows().get(0).getParcelId();
+
+        User other = User.builder().userId("frontdesk-2").name("Desk").role(UserRole.FRONTDESK).officeId("office-1").build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(other, null, other.getAuthorities()));
+        String otherId = parcelService.bulkAddParcels(body(ROW), false, "upload-1").getRows().get(0).getParcelId();
+
+        assertThat(otherId).isNotEqualTo(ownId);
+        verify(bulkOperations, times(2)).insert(anyList());
+        verify(countCache, atLeastOnce()).invalidate(anyString());
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private InputStream failingStream() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset by peer");
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package shortly.mandmcorp.dev.shortly.service.parcel.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.validation.Validator;
+import tools.jackson.databind.json.JsonMapper;
+import shortly.mandmcorp.dev.shortly.enums.ExportFormat;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.WrongCredentialsException;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.CancelationReasonRepository;
+import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
+import shortly.mandmcorp.dev.shortly.repository.ParcelRepository;
+import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+import shortly.mandmcorp.dev.shortly.security.PrincipalCache;
+import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
+import shortly.mandmcorp.dev.shortly.utils.ParcelMapper;
+import shortly.mandmcorp.dev.shortly.utils.QueryCountCache;
+import shortly.mandmcorp.dev.shortly.utils.ShelfRegistry;
+
+/**
+ * Applies the service's {@code @PreAuthorize} rules through a method security proxy: the
+ * office-scoped export is open to front desk staff with an office, the all-office export only
+ * to admins.
+ */
+class ParcelExportAuthorizationTest {
+
+    private final ParcelServiceInterface parcelService = secured(new ParcelServiceImplementation(
+        mock(ParcelRepository.class), mock(ParcelMapper.class), mock(OfficeRepository.class), mock(UserRepository.class),
+        mock(ShelfRegistry.class), mock(MongoTemplate.class), mock(CancelationReasonRepository.class),
+        mock(QueryCountCache.class), mock(PrincipalCache.class), JsonMapper.builder().build(), mock(Validator.class)));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void frontDeskCanExportItsOwnOffice() {
+        authenticate(UserRole.FRONTDESK);
+
+        assertThat(parcelService.exportParcels(null, null, null, null, null, null, true, ExportFormat.NDJSON)).isNotNull();
+    }
+
+    @Test
+    void frontDeskAndManagersCannotExportEveryOffice() {
+        authenticate(UserRole.FRONTDESK);
+        assertThatThrownBy(() -> parcelService.exportParcels(null, null, null, null, null, null, false, ExportFormat.NDJSON))
+            .isInstanceOf(AccessDeniedException.class);
+
+        authenticate(UserRole.MANAGER);
+        assertThatThrownBy(() -> parcelService.exportParcels(null, null, null, "office-2", null, null, false, ExportFormat.CSV))
+            .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void frontDeskWithoutAnOfficeCannotExport() {
+        authenticate(UserRole.FRONTDESK, null);
+
+        assertThatThrownBy(() -> parcelService.exportParcels(null, null, null, "office-2", null, null, true, ExportFormat.CSV))
+            .isInstanceOf(WrongCredentialsException.class);
+        assertThatThrownBy(() -> parcelService.exportParcels(null, null, null, null, null, null, true, ExportFormat.NDJSON))
+            .isInstanceOf(WrongCredentialsException.class);
+    }
+
+    @Test
+    void adminsCanExportEveryOffice() {
+        authenticate(UserRole.ADMIN);
+
+        assertThat(parcelService.exportParcels(null, null, null, null, null, null, false, ExportFormat.NDJSON)).isNotNull();
+    }
+
+    private void authenticate(UserRole role) {
+        authenticate(role, "office-1");
+    }
+
+    private void authenticate(UserRole role, String officeId) {
+        User user = User.builder().userId("user-" + role).name("User").role(role).officeId(officeId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static ParcelServiceInterface secured(ParcelServiceImplementation target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(AuthorizationManagerBeforeMethodInterceptor.preAuthorize());
+        return (ParcelServiceInterface) factory.getProxy();
+    }
+}
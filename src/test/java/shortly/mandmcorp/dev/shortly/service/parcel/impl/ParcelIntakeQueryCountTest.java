@@ -0,0 +1,136 @@
+package shortly.mandmcorp.dev.shortly.service.parcel.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.mongodb.DBRef;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import shortly.mandmcorp.dev.shortly.dto.request.ParcelRequest;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.Shelf;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.service.migration.impl.DbRefMigrationServiceImplementation;
+import shortly.mandmcorp.dev.shortly.service.parcel.ParcelServiceInterface;
+
+/**
+ * Starts from a shelf still stored with the legacy {@code office} DBRef, runs the startup
+ * migration and counts the commands parcel intake sends afterwards. With the DBRef mapping each
+ * addParcel took seven finds and an insert: the office with its location and manager, then the
+ * shelf with its office, location and manager.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class ParcelIntakeQueryCountTest {
+
+    private static final List<CommandStartedEvent> COMMANDS = new CopyOnWriteArrayList<>();
+    // the sync driver notifies on the calling thread; background writers are ignored
+    private static volatile Thread measuredThread;
+
+    @TestConfiguration
+    static class CommandCounting {
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCounter() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (Thread.currentThread() == measuredThread) {
+                        COMMANDS.add(event);
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private ParcelServiceInterface parcelService;
+
+    @Autowired
+    private DbRefMigrationServiceImplementation dbRefMigrationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectId officeId = new ObjectId();
+    private final ObjectId shelfId = new ObjectId();
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        mongoTemplate.remove(Query.query(Criteria.where("officeId").is(officeId.toHexString())), Parcel.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(shelfId)), "shelfs");
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(officeId)), "offices");
+    }
+
+    @Test
+    void legacyShelfIsMigratedAndIntakeNeedsNoReferenceLookups() {
+        mongoTemplate.insert(new Document("_id", officeId).append("name", "Accra Central")
+            .append("code", "ACC-" + UUID.randomUUID()), "offices");
+        mongoTemplate.insert(new Document("_id", shelfId).append("name", "A1")
+            .append("office", new DBRef("offices", officeId)), "shelfs");
+
+        dbRefMigrationService.migrateOnStartup();
+
+        Shelf shelf = mongoTemplate.findById(shelfId.toHexString(), Shelf.class);
+        assertThat(shelf.getOfficeId()).isEqualTo(officeId.toHexString());
+        assertThat(shelf.getOfficeName()).isEqualTo("Accra Central");
+
+        User frontDesk = User.builder().userId("frontdesk-" + UUID.randomUUID()).name("Desk")
+            .role(UserRole.FRONTDESK).officeId(officeId.toHexString()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(frontDesk, null, frontDesk.getAuthorities()));
+
+        COMMANDS.clear();
+        measuredThread = Thread.currentThread();
+        Parcel first = parcelService.addParcel(request());
+        List<String> coldOffice = commandNames();
+        COMMANDS.clear();
+        Parcel second = parcelService.addParcel(request());
+        List<String> warmOffice = commandNames();
+        measuredThread = null;
+
+        assertThat(first.getShelfId()).isEqualTo(shelfId.toHexString());
+        assertThat(second.getShelfName()).isEqualTo("A1");
+        // office check, the office's shelves, the insert
+        assertThat(coldOffice).containsExactly("find", "find", "insert");
+        // the shelves come from the registry from then on
+        assertThat(warmOffice).containsExactly("find", "insert");
+    }
+
+    private List<String> commandNames() {
+        return COMMANDS.stream().map(CommandStartedEvent::getCommandName).toList();
+    }
+
+    private ParcelRequest request() {
+        ParcelRequest request = new ParcelRequest();
+        request.setOfficeId(officeId.toHexString());
+        request.setShelfNumber(shelfId.toHexString());
+        request.setRecieverPhoneNumber("0240000000");
+        request.setDriverName("Driver");
+        request.setDriverPhoneNumber("0240000001");
+        request.setVehicleNumber("GR-1234-20");
+        request.setPickUpCost(10);
+        return request;
+    }
+}
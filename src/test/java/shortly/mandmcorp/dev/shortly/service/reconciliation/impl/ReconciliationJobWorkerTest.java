@@ -0,0 +1,169 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shortly.mandmcorp.dev.shortly.config.ReconciliationJobConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
+import shortly.mandmcorp.dev.shortly.enums.ReconciliationJobStatus;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationJob;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+
+/**
+ * Drives the worker thread against a mocked job collection that hands out a single job.
+ */
+class ReconciliationJobWorkerTest {
+
+    private static final List<String> IDS = List.of("a-1", "a-2", "a-3", "a-4", "a-5");
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RiderServiceInterface riderService = mock(RiderServiceInterface.class);
+    private final ReconciliationJobConfig config = new ReconciliationJobConfig();
+    private final List<Update> updates = new CopyOnWriteArrayList<>();
+    // each job is claimed once; polls return nothing until a test hands it out again
+    private final AtomicReference<ReconciliationJob> claimable = new AtomicReference<>();
+
+    private ReconciliationJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        config.setChunkSize(2);
+        config.setPollIntervalMs(50);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReconciliationJob.class)))
+            .thenAnswer(invocation -> claimable.getAndSet(null));
+        when(riderService.reconcileAssignments(anyList(), anyString(), anyLong())).thenAnswer(invocation -> ReconciliationResponse.builder()
+            .reconciled(List.copyOf(invocation.<List<String>>getArgument(0)))
+            .missing(List.of())
+            .notEligible(List.of())
+            .build());
+    }
+
+    @AfterEach
+    void stopWorker() throws InterruptedException {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void resumesFromTheCheckpoint() {
+        ReconciliationJob job = job();
+        job.setProcessed(2);
+        leaseAlwaysHeld();
+
+        start(job);
+
+        verify(riderService, timeout(2000)).reconcileAssignments(List.of("a-3", "a-4"), "frontdesk-1", 1000L);
+        verify(riderService, timeout(2000)).reconcileAssignments(List.of("a-5"), "frontdesk-1", 1000L);
+        verify(riderService, never()).reconcileAssignments(eq(List.of("a-1", "a-2")), anyString(), anyLong());
+        await().atMost(Duration.ofSeconds(2)).until(() -> updates.size() == 2);
+        assertThat(set(updates.get(0)).get("processed")).isEqualTo(4);
+        assertThat(set(updates.get(1)).get("processed")).isEqualTo(5);
+        assertThat(set(updates.get(1)).get("status")).isEqualTo(ReconciliationJobStatus.COMPLETED);
+    }
+
+    @Test
+    void lostLeaseStopsTheWorker() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ReconciliationJob.class)))
+            .thenAnswer(invocation -> {
+                updates.add(invocation.getArgument(1));
+                // another instance took the job over, so the checkpoint guard matches nothing
+                return UpdateResult.acknowledged(0, 0L, null);
+            });
+
+        start(job());
+
+        verify(riderService, timeout(2000)).reconcileAssignments(List.of("a-1", "a-2"), "frontdesk-1", 1000L);
+        verify(riderService, after(300).times(1)).reconcileAssignments(anyList(), anyString(), anyLong());
+        assertThat(updates).hasSize(1);
+    }
+
+    @Test
+    void retriesUntilMaxAttemptsThenFails() {
+        config.setMaxAttempts(3);
+        leaseAlwaysHeld();
+        when(riderService.reconcileAssignments(anyList(), anyString(), anyLong())).thenThrow(new IllegalStateException("mongo down"));
+
+        ReconciliationJob job = job();
+        job.setAttempts(1);
+        start(job);
+        await().atMost(Duration.ofSeconds(2)).until(() -> updates.size() == 1);
+        Document retry = set(updates.get(0));
+        assertThat(retry.get("attempts")).isEqualTo(2);
+        assertThat(retry).doesNotContainKey("status").containsKey("leaseUntil");
+
+        job.setAttempts(2);
+        restart(job);
+        await().atMost(Duration.ofSeconds(2)).until(() -> updates.size() == 2);
+        Document failed = set(updates.get(1));
+        assertThat(failed.get("attempts")).isEqualTo(3);
+        assertThat(failed.get("status")).isEqualTo(ReconciliationJobStatus.FAILED);
+        assertThat(failed.get("error")).isEqualTo("mongo down");
+        assertThat(updates.get(1).getUpdateObject().get("$unset", Document.class)).containsKey("leaseOwner");
+    }
+
+    private void leaseAlwaysHeld() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ReconciliationJob.class)))
+            .thenAnswer(invocation -> {
+                updates.add(invocation.getArgument(1));
+                return UpdateResult.acknowledged(1, 1L, null);
+            });
+    }
+
+    private void start(ReconciliationJob job) {
+        claimable.set(job);
+        worker = new ReconciliationJobWorker(mongoTemplate, riderService, config, new SimpleMeterRegistry());
+        worker.start();
+    }
+
+    /**
+     * Hands the job out again, as the next poll after its retry backoff would.
+     */
+    private void restart(ReconciliationJob job) {
+        claimable.set(job);
+        worker.wakeUp();
+    }
+
+    private static Document set(Update update) {
+        return update.getUpdateObject().get("$set", Document.class);
+    }
+
+    private static ReconciliationJob job() {
+        ReconciliationJob job = new ReconciliationJob();
+        job.setId("job-1");
+        job.setSubmittedBy("frontdesk-1");
+        job.setReconciledAt(1000L);
+        job.setAssignmentIds(IDS);
+        job.setStatus(ReconciliationJobStatus.RUNNING);
+        return job;
+    }
+}
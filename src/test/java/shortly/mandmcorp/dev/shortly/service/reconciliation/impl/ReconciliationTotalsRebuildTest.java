@@ -0,0 +1,134 @@
+package shortly.mandmcorp.dev.shortly.service.reconciliation.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationStatsResponse;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.Reconcilations;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationDailyTotal;
+import shortly.mandmcorp.dev.shortly.model.User;
+
+/**
+ * Seeds the rollup from raw reconciliations the way a fresh deployment does, then checks that
+ * the catch-up pass merges rows written during a rebuild over stale rollup documents.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class ReconciliationTotalsRebuildTest {
+
+    @Autowired
+    private ReconciliationTotalsServiceImplementation totalsService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String officeId = "office-" + UUID.randomUUID();
+    private ReconciliationTotalsServiceImplementation target;
+
+    @BeforeEach
+    void unseed() {
+        target = AopTestUtils.getTargetObject(totalsService);
+        mongoTemplate.dropCollection(ReconciliationDailyTotal.class);
+        ReflectionTestUtils.setField(target, "seeded", false);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        mongoTemplate.remove(Query.query(Criteria.where("officeId").is(officeId)), Reconcilations.class);
+        mongoTemplate.remove(Query.query(Criteria.where("officeId").is(officeId)), ReconciliationDailyTotal.class);
+    }
+
+    @Test
+    void statisticsComeFromRawRowsUntilStartupSeedsTheRollup() {
+        long yesterday = System.currentTimeMillis() - ReconciliationDailyTotal.MILLIS_IN_DAY;
+        insert(yesterday, 10.0, true);
+        insert(yesterday, 5.0, false);
+        insert(System.currentTimeMillis(), 2.5, true);
+
+        ReconciliationStatsResponse beforeSeeding = totalsService.sum(officeId, null);
+        assertThat(beforeSeeding.getTotalCount()).isEqualTo(3);
+        assertThat(beforeSeeding.getCompletedAmount()).isEqualTo(12.5);
+
+        target.seedOnStartup();
+
+        assertThat(mongoTemplate.findById(ReconciliationTotalsServiceImplementation.SEEDED_ID, ReconciliationDailyTotal.class)).isNotNull();
+        assertThat(mongoTemplate.find(Query.query(Criteria.where("officeId").is(officeId)), ReconciliationDailyTotal.class)).hasSize(2);
+        ReconciliationStatsResponse afterSeeding = totalsService.sum(officeId, null);
+        assertThat(afterSeeding.getTotalCount()).isEqualTo(3);
+        assertThat(afterSeeding.getCompletedCount()).isEqualTo(2);
+        assertThat(afterSeeding.getNotCompletedAmount()).isEqualTo(5.0);
+        assertThat(totalsService.sum(officeId, ReconciliationDailyTotal.toDay(yesterday)).getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminRebuildKeepsTheSeededMarker() {
+        insert(System.currentTimeMillis(), 4.0, false);
+        User admin = User.builder().userId("admin-1").name("Admin").role(UserRole.ADMIN).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+        int written = totalsService.rebuild();
+
+        assertThat(written).isEqualTo((int) mongoTemplate.count(new Query(), ReconciliationDailyTotal.class) - 1);
+        assertThat(mongoTemplate.findById(ReconciliationTotalsServiceImplementation.SEEDED_ID, ReconciliationDailyTotal.class)).isNotNull();
+        assertThat(totalsService.sum(officeId, null).getNotCompletedAmount()).isEqualTo(4.0);
+    }
+
+    @Test
+    void catchUpMergesRowsWrittenDuringTheRebuildOverStaleTotals() {
+        long oldDay = System.currentTimeMillis() - 3 * ReconciliationDailyTotal.MILLIS_IN_DAY;
+        insert(oldDay, 7.0, true);
+        target.seedOnStartup();
+
+        long since = System.currentTimeMillis();
+        Reconcilations recent = insert(since, 3.0, false);
+        long today = ReconciliationDailyTotal.toDay(recent.getCreatedAt());
+        // the increment for this row went to the live collection while $out was replacing it
+        ReconciliationDailyTotal stale = new ReconciliationDailyTotal();
+        stale.setId(officeId + "_" + today);
+        stale.setOfficeId(officeId);
+        stale.setDay(today);
+        stale.setTotalCount(99);
+        mongoTemplate.save(stale);
+
+        assertThat(target.catchUp(since)).isEqualTo(1);
+
+        ReconciliationDailyTotal merged = mongoTemplate.findById(officeId + "_" + today, ReconciliationDailyTotal.class);
+        assertThat(merged.getTotalCount()).isEqualTo(1);
+        assertThat(merged.getTotalAmount()).isEqualTo(3.0);
+        assertThat(merged.getCompletedCount()).isZero();
+        ReconciliationDailyTotal untouched = mongoTemplate.findById(
+            officeId + "_" + ReconciliationDailyTotal.toDay(oldDay), ReconciliationDailyTotal.class);
+        assertThat(untouched.getCompletedAmount()).isEqualTo(7.0);
+    }
+
+    private Reconcilations insert(long createdAt, double amount, boolean completed) {
+        Reconcilations reconcilation = new Reconcilations();
+        reconcilation.setAssignmentId("assignment-" + UUID.randomUUID());
+        reconcilation.setOfficeId(officeId);
+        reconcilation.setAmount(amount);
+        reconcilation.setCompleted(completed);
+        reconcilation.setCreatedAt(createdAt);
+        if (completed) {
+            reconcilation.setReconciledAt(createdAt);
+        }
+        return mongoTemplate.insert(reconcilation);
+    }
+}
@@ -0,0 +1,179 @@
+package shortly.mandmcorp.dev.shortly.service.rider.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import shortly.mandmcorp.dev.shortly.dto.request.DeliveryStatusUpdateRequest;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.ParcelInfo;
+import shortly.mandmcorp.dev.shortly.model.RiderInfo;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+
+/**
+ * A rider and a manager update the same assignment at the same moment with conflicting
+ * statuses: exactly one update lands and the other is rejected with ActionNotAllowed (409).
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class DeliveryStatusRaceTest {
+
+    @Autowired
+    private RiderServiceInterface riderService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String riderId = "rider-" + UUID.randomUUID();
+    private final User rider = User.builder().userId(riderId).name("Rider").role(UserRole.RIDER).officeId("office-1").build();
+    private final User manager = User.builder().userId("manager-" + UUID.randomUUID()).name("Manager")
+        .role(UserRole.MANAGER).officeId("office-1").build();
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        mongoTemplate.remove(Query.query(Criteria.where("riderInfo.riderId").is(riderId)), DeliveryAssignments.class);
+        mongoTemplate.remove(Query.query(Criteria.where("driverId").is(riderId)), Parcel.class);
+    }
+
+    @RepeatedTest(10)
+    void riderDeliveringAndManagerCancellingRaceWithOneWinner() throws Exception {
+        DeliveryAssignments assignment = seedAssignment(DeliveryStatus.PICKED_UP);
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<DeliveryStatus>> results = new ArrayList<>();
+        try {
+            results.add(executor.submit(() -> update(rider, start, () -> riderService.updateDeliveryStatus(
+                assignment.getAssignmentId(), request(DeliveryStatus.DELIVERED)), DeliveryStatus.DELIVERED)));
+            results.add(executor.submit(() -> update(manager, start, () -> riderService.managerUpdateDeliveryStatus(
+                assignment.getAssignmentId(), request(DeliveryStatus.CANCELLED)), DeliveryStatus.CANCELLED)));
+
+            List<DeliveryStatus> winners = new ArrayList<>();
+            for (Future<DeliveryStatus> result : results) {
+                if (result.get() != null) {
+                    winners.add(result.get());
+                }
+            }
+
+            assertThat(winners).hasSize(1);
+            DeliveryAssignments stored = mongoTemplate.findById(assignment.getAssignmentId(), DeliveryAssignments.class);
+            assertThat(stored.getStatus()).isEqualTo(winners.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void repeatedRiderUpdateIsANoOp() {
+        DeliveryAssignments assignment = seedAssignment(DeliveryStatus.ASSIGNED);
+        authenticate(rider);
+
+        riderService.updateDeliveryStatus(assignment.getAssignmentId(), request(DeliveryStatus.ACCEPTED));
+        long acceptedAt = mongoTemplate.findById(assignment.getAssignmentId(), DeliveryAssignments.class).getAcceptedAt();
+        riderService.updateDeliveryStatus(assignment.getAssignmentId(), request(DeliveryStatus.ACCEPTED));
+
+        DeliveryAssignments stored = mongoTemplate.findById(assignment.getAssignmentId(), DeliveryAssignments.class);
+        assertThat(stored.getStatus()).isEqualTo(DeliveryStatus.ACCEPTED);
+        assertThat(stored.getAcceptedAt()).isEqualTo(acceptedAt);
+    }
+
+    @Test
+    void onlyManagersResetAnAssignmentToAssigned() {
+        DeliveryAssignments assignment = seedAssignment(DeliveryStatus.ACCEPTED);
+
+        authenticate(rider);
+        assertThatThrownBy(() -> riderService.updateDeliveryStatus(assignment.getAssignmentId(), request(DeliveryStatus.ASSIGNED)))
+            .isInstanceOf(ActionNotAllowed.class);
+
+        authenticate(manager);
+        riderService.managerUpdateDeliveryStatus(assignment.getAssignmentId(), request(DeliveryStatus.ASSIGNED));
+
+        DeliveryAssignments stored = mongoTemplate.findById(assignment.getAssignmentId(), DeliveryAssignments.class);
+        assertThat(stored.getStatus()).isEqualTo(DeliveryStatus.ASSIGNED);
+        assertThat(stored.getAcceptedAt()).isZero();
+    }
+
+    @Test
+    void ridersCannotCompleteTheirOwnDeliveredAssignment() {
+        DeliveryAssignments assignment = seedAssignment(DeliveryStatus.DELIVERED);
+
+        authenticate(rider);
+        assertThatThrownBy(() -> riderService.updateDeliveryStatus(assignment.getAssignmentId(), request(DeliveryStatus.COMPLETED)))
+            .isInstanceOf(ActionNotAllowed.class);
+
+        assertThat(mongoTemplate.findById(assignment.getAssignmentId(), DeliveryAssignments.class).getStatus())
+            .isEqualTo(DeliveryStatus.DELIVERED);
+    }
+
+    /**
+     * Runs one side of the race under the given user.
+     *
+     * @return the status it set, or null if it was rejected as a conflict
+     */
+    private DeliveryStatus update(User user, CyclicBarrier start, Runnable action, DeliveryStatus target) throws Exception {
+        authenticate(user);
+        try {
+            start.await();
+            action.run();
+            return target;
+        } catch (ActionNotAllowed e) {
+            return null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private DeliveryStatusUpdateRequest request(DeliveryStatus status) {
+        DeliveryStatusUpdateRequest request = new DeliveryStatusUpdateRequest();
+        request.setStatus(status);
+        request.setPayementMethod("CASH");
+        request.setCancelationReason("Receiver unreachable");
+        return request;
+    }
+
+    private DeliveryAssignments seedAssignment(DeliveryStatus status) {
+        Parcel parcel = new Parcel();
+        parcel.setParcelId(riderId + "-parcel-" + UUID.randomUUID());
+        parcel.setDriverId(riderId);
+        parcel.setDriverPhoneNumber("0240000001");
+        mongoTemplate.insert(parcel);
+
+        DeliveryAssignments assignment = new DeliveryAssignments();
+        assignment.setRiderInfo(RiderInfo.builder().riderId(riderId).riderName("Rider").build());
+        assignment.setParcelInfo(ParcelInfo.builder().parcelId(parcel.getParcelId()).build());
+        assignment.setOfficeId("office-1");
+        assignment.setStatus(status);
+        assignment.setAssignedAt(System.currentTimeMillis());
+        return mongoTemplate.insert(assignment);
+    }
+}
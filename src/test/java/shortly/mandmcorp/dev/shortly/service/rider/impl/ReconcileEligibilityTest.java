@@ -0,0 +1,123 @@
+package shortly.mandmcorp.dev.shortly.service.rider.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import shortly.mandmcorp.dev.shortly.dto.response.ReconciliationResponse;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+import shortly.mandmcorp.dev.shortly.model.ReconciliationDailyTotal;
+import shortly.mandmcorp.dev.shortly.model.Reconcilations;
+import shortly.mandmcorp.dev.shortly.model.RiderInfo;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+
+/**
+ * Reconciliation only completes delivered assignments; open and cancelled ones are reported as
+ * not eligible and keep their status. Reconciling the same ids twice at once completes and
+ * counts each row once.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class ReconcileEligibilityTest {
+
+    @Autowired
+    private RiderServiceInterface riderService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String riderId = "rider-" + UUID.randomUUID();
+    private final String officeId = "office-" + UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() {
+        List<String> ids = mongoTemplate.find(Query.query(Criteria.where("riderInfo.riderId").is(riderId)), DeliveryAssignments.class)
+            .stream().map(DeliveryAssignments::getAssignmentId).toList();
+        mongoTemplate.remove(Query.query(Criteria.where("assignmentId").in(ids)), Reconcilations.class);
+        mongoTemplate.remove(Query.query(Criteria.where("riderInfo.riderId").is(riderId)), DeliveryAssignments.class);
+        mongoTemplate.remove(Query.query(Criteria.where("officeId").is(officeId)), ReconciliationDailyTotal.class);
+    }
+
+    @Test
+    void onlyDeliveredAssignmentsAreCompleted() {
+        String delivered = seed(DeliveryStatus.DELIVERED);
+        String pickedUp = seed(DeliveryStatus.PICKED_UP);
+        String cancelled = seed(DeliveryStatus.CANCELLED);
+        String unknown = "missing-" + UUID.randomUUID();
+
+        ReconciliationResponse response = riderService.reconcileAssignments(
+            List.of(delivered, pickedUp, cancelled, unknown), "frontdesk-1", System.currentTimeMillis());
+
+        assertThat(response.getReconciled()).containsExactly(delivered);
+        assertThat(response.getNotEligible()).containsExactly(pickedUp, cancelled);
+        assertThat(response.getMissing()).containsExactly(unknown);
+        assertThat(status(delivered)).isEqualTo(DeliveryStatus.COMPLETED);
+        assertThat(status(pickedUp)).isEqualTo(DeliveryStatus.PICKED_UP);
+        assertThat(status(cancelled)).isEqualTo(DeliveryStatus.CANCELLED);
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("assignmentId").in(pickedUp, cancelled)), Reconcilations.class)).isZero();
+
+        // re-running the same ids keeps the completed one reconciled
+        ReconciliationResponse rerun = riderService.reconcileAssignments(List.of(delivered), "frontdesk-1", System.currentTimeMillis());
+        assertThat(rerun.getReconciled()).containsExactly(delivered);
+    }
+
+    @Test
+    void concurrentReconcilesCountEachRowOnce() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(seed(DeliveryStatus.DELIVERED));
+        }
+        long now = System.currentTimeMillis();
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<ReconciliationResponse>> results = new ArrayList<>();
+            for (String payedTo : List.of("frontdesk-1", "frontdesk-2")) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return riderService.reconcileAssignments(ids, payedTo, now);
+                }));
+            }
+            for (Future<ReconciliationResponse> result : results) {
+                assertThat(result.get().getReconciled()).containsExactlyElementsOf(ids);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ReconciliationDailyTotal total = mongoTemplate.findById(
+            officeId + "_" + ReconciliationDailyTotal.toDay(now), ReconciliationDailyTotal.class);
+        assertThat(total.getTotalCount()).isEqualTo(5);
+        assertThat(total.getCompletedCount()).isEqualTo(5);
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("assignmentId").in(ids)), Reconcilations.class)).isEqualTo(5);
+    }
+
+    private DeliveryStatus status(String assignmentId) {
+        return mongoTemplate.findById(assignmentId, DeliveryAssignments.class).getStatus();
+    }
+
+    private String seed(DeliveryStatus status) {
+        DeliveryAssignments assignment = new DeliveryAssignments();
+        assignment.setRiderInfo(RiderInfo.builder().riderId(riderId).riderName("Rider").build());
+        assignment.setOfficeId(officeId);
+        assignment.setStatus(status);
+        assignment.setAssignedAt(System.currentTimeMillis());
+        return mongoTemplate.insert(assignment).getAssignmentId();
+    }
+}
@@ -0,0 +1,116 @@
+package shortly.mandmcorp.dev.shortly.service.rider.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import shortly.mandmcorp.dev.shortly.dto.response.DeliveryAssignmentResponse;
+import shortly.mandmcorp.dev.shortly.enums.DeliveryStatus;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.model.DeliveryAssignments;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+import shortly.mandmcorp.dev.shortly.model.ParcelInfo;
+import shortly.mandmcorp.dev.shortly.model.RiderInfo;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.service.rider.RiderServiceInterface;
+
+/**
+ * Counts the commands sent to Mongo while a rider lists assignments: the assignments and
+ * their parcels must each take one query however many assignments there are.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class RiderAssignmentsQueryCountTest {
+
+    private static final List<CommandStartedEvent> COMMANDS = new CopyOnWriteArrayList<>();
+    // the sync driver notifies on the calling thread; background writers are ignored
+    private static volatile Thread measuredThread;
+
+    @TestConfiguration
+    static class CommandCounting {
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCounter() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (Thread.currentThread() == measuredThread) {
+                        COMMANDS.add(event);
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private RiderServiceInterface riderService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String riderId = "rider-" + UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        mongoTemplate.remove(Query.query(Criteria.where("riderInfo.riderId").is(riderId)), DeliveryAssignments.class);
+        mongoTemplate.remove(Query.query(Criteria.where("driverId").is(riderId)), Parcel.class);
+    }
+
+    @Test
+    void listingAssignmentsTakesTwoQueriesRegardlessOfCount() {
+        seedAssignments(40);
+        User rider = User.builder().userId(riderId).name("Rider").role(UserRole.RIDER).officeId("office-1").build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(rider, null, rider.getAuthorities()));
+
+        COMMANDS.clear();
+        measuredThread = Thread.currentThread();
+        List<DeliveryAssignmentResponse> assignments = riderService.getRiderAssignments(false);
+        measuredThread = null;
+
+        assertThat(assignments).hasSize(40).allSatisfy(assignment -> assertThat(assignment.getParcel()).isNotNull());
+        assertThat(COMMANDS).extracting(CommandStartedEvent::getCommandName).containsExactly("find", "find");
+    }
+
+    private void seedAssignments(int count) {
+        RiderInfo riderInfo = RiderInfo.builder().riderId(riderId).riderName("Rider").build();
+        List<Parcel> parcels = new ArrayList<>();
+        List<DeliveryAssignments> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Parcel parcel = new Parcel();
+            parcel.setParcelId(riderId + "-parcel-" + i);
+            parcel.setDriverId(riderId);
+            parcels.add(parcel);
+
+            DeliveryAssignments assignment = new DeliveryAssignments();
+            assignment.setRiderInfo(riderInfo);
+            assignment.setParcelInfo(ParcelInfo.builder().parcelId(parcel.getParcelId()).build());
+            assignment.setOfficeId("office-1");
+            assignment.setStatus(DeliveryStatus.ASSIGNED);
+            assignment.setAssignedAt(System.currentTimeMillis());
+            assignments.add(assignment);
+        }
+        mongoTemplate.insertAll(parcels);
+        mongoTemplate.insertAll(assignments);
+    }
+}
@@ -0,0 +1,133 @@
+package shortly.mandmcorp.dev.shortly.service.routing.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RouteSequencerTest {
+
+    // a street in Accra running north, stops listed out of order
+    private static final double[][] LINE = {
+        {5.5500, -0.2000}, {5.5540, -0.2000}, {5.5510, -0.2000}, {5.5530, -0.2000}, {5.5520, -0.2000}
+    };
+
+    @Test
+    void collinearStopsAreVisitedInOrderAlongTheStreet() {
+        int[] order = new RouteSequencer(LINE).sequence(50);
+
+        assertThat(order).containsExactly(0, 2, 4, 3, 1);
+    }
+
+    @Test
+    void orderIsAPermutationStartingAtTheOrigin() {
+        double[][] points = randomPoints(40, 7);
+
+        int[] order = new RouteSequencer(points).sequence(50);
+
+        assertThat(order[0]).isZero();
+        assertThat(Arrays.stream(order).sorted().toArray()).containsExactly(IntStream.range(0, points.length).toArray());
+    }
+
+    @Test
+    void twoOptNeverLengthensTheNearestNeighbourPath() {
+        for (int seed = 0; seed < 20; seed++) {
+            RouteSequencer sequencer = new RouteSequencer(randomPoints(25, seed));
+            double constructed = sequencer.length(sequencer.nearestNeighbour());
+
+            assertThat(sequencer.length(sequencer.sequence(50))).isLessThanOrEqualTo(constructed + 1e-9);
+        }
+    }
+
+    @Test
+    void smallRoutesComeCloseToTheOptimum() {
+        double[][] points = randomPoints(8, 3);
+        RouteSequencer sequencer = new RouteSequencer(points);
+
+        double optimum = bruteForce(sequencer, points.length);
+
+        assertThat(sequencer.length(sequencer.sequence(50))).isBetween(optimum - 1e-9, optimum * 1.1);
+    }
+
+    @Test
+    void optimalRouteIsLeftUnchanged() {
+        RouteSequencer sequencer = new RouteSequencer(LINE);
+        int[] order = {0, 2, 4, 3, 1};
+
+        assertThat(sequencer.twoOpt(order, 1, 4, 50)).isFalse();
+        assertThat(order).containsExactly(0, 2, 4, 3, 1);
+    }
+
+    @Test
+    void insertionLandsBetweenTheNeighbouringStops() {
+        RouteSequencer sequencer = new RouteSequencer(LINE);
+
+        // stop 4 (5.5520) belongs between 2 (5.5510) and 3 (5.5530)
+        assertThat(sequencer.cheapestInsertion(new int[] {0, 2, 3, 1}, 4)).isEqualTo(2);
+        // stop 1 (5.5540) is the new end of the path
+        assertThat(sequencer.cheapestInsertion(new int[] {0, 2, 4, 3}, 1)).isEqualTo(4);
+    }
+
+    @Test
+    void emptyAndSingleStopRoutes() {
+        assertThat(new RouteSequencer(new double[0][]).sequence(50)).isEmpty();
+        assertThat(new RouteSequencer(new double[][] {{5.55, -0.2}}).sequence(50)).containsExactly(0);
+    }
+
+    @Test
+    void projectedDistancesMatchHaversineAtCityScale() {
+        double[][] points = {{5.5500, -0.2000}, {5.6200, -0.1300}};
+        RouteSequencer sequencer = new RouteSequencer(points);
+
+        double haversine = RouteSequencer.haversineKm(points[0], points[1]);
+
+        assertThat(RouteSequencer.haversineKm(new double[] {0, 0}, new double[] {1, 0})).isCloseTo(111.2, within(0.1));
+        assertThat(sequencer.length(new int[] {0, 1})).isCloseTo(haversine, within(haversine * 0.01));
+    }
+
+    private double bruteForce(RouteSequencer sequencer, int n) {
+        int[] order = IntStream.range(0, n).toArray();
+        double best = Double.MAX_VALUE;
+        do {
+            best = Math.min(best, sequencer.length(order));
+        } while (nextPermutation(order));
+        return best;
+    }
+
+    // permutes order[1..] in place, keeping the origin first
+    private boolean nextPermutation(int[] order) {
+        int i = order.length - 2;
+        while (i >= 1 && order[i] >= order[i + 1]) {
+            i--;
+        }
+        if (i < 1) {
+            return false;
+        }
+        int j = order.length - 1;
+        while (order[j] <= order[i]) {
+            j--;
+        }
+        int swap = order[i];
+        order[i] = order[j];
+        order[j] = swap;
+        for (int a = i + 1, b = order.length - 1; a < b; a++, b--) {
+            swap = order[a];
+            order[a] = order[b];
+            order[b] = swap;
+        }
+        return true;
+    }
+
+    private double[][] randomPoints(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] points = new double[n][];
+        for (int i = 0; i < n; i++) {
+            points[i] = new double[] {5.5 + random.nextDouble() * 0.1, -0.25 + random.nextDouble() * 0.1};
+        }
+        return points;
+    }
+}
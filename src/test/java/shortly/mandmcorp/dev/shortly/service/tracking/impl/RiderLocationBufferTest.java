@@ -0,0 +1,144 @@
+package shortly.mandmcorp.dev.shortly.service.tracking.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shortly.mandmcorp.dev.shortly.config.RiderLocationConfig;
+import shortly.mandmcorp.dev.shortly.model.RiderLocation;
+
+/**
+ * Checks that pings are coalesced to one upsert per rider per flush against a mocked bulk write.
+ */
+class RiderLocationBufferTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+    private final RiderLocationConfig config = new RiderLocationConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // riderId -> $set of each upsert, in the order they were queued
+    private final List<Map.Entry<String, Document>> upserts = new CopyOnWriteArrayList<>();
+
+    private RiderLocationBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(RiderLocation.class))).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            upserts.add(Map.entry(query.getQueryObject().getString("riderId"), update.getUpdateObject().get("$set", Document.class)));
+            return bulkOperations;
+        });
+    }
+
+    @AfterEach
+    void stopBuffer() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void keepsOnlyTheLatestPositionPerRider() throws InterruptedException {
+        config.setFlushIntervalMs(60000);
+        buffer = started();
+
+        buffer.offer(location("rider-1", 2000L, 1.0), 3);
+        buffer.offer(location("rider-1", 1000L, 2.0), 1);
+        buffer.offer(location("rider-1", 3000L, 3.0), 2);
+        buffer.offer(location("rider-2", 1500L, 4.0), 1);
+
+        // shutdown flushes what is still pending
+        buffer.stop();
+        buffer = null;
+
+        verify(mongoTemplate, times(1)).bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(RiderLocation.class));
+        verify(bulkOperations, times(1)).execute();
+        Map<String, Document> byRider = upserts.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertThat(byRider).hasSize(2);
+        assertThat(byRider.get("rider-1").get("recordedAt")).isEqualTo(3000L);
+        assertThat(byRider.get("rider-1").get("location")).isEqualTo(new GeoJsonPoint(3.0, 5.0));
+        assertThat(byRider.get("rider-2").get("recordedAt")).isEqualTo(1500L);
+        assertThat(meterRegistry.counter("rider.locations.received").count()).isEqualTo(7);
+        assertThat(meterRegistry.counter("rider.locations.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    void flushesEveryIntervalAndSkipsEmptyIntervals() {
+        config.setFlushIntervalMs(50);
+        buffer = started();
+
+        buffer.offer(location("rider-1", 1000L, 1.0), 1);
+        verify(bulkOperations, timeout(2000).times(1)).execute();
+
+        buffer.offer(location("rider-1", 2000L, 2.0), 1);
+        verify(bulkOperations, timeout(2000).times(2)).execute();
+
+        assertThat(upserts).extracting(entry -> entry.getValue().get("recordedAt")).containsExactly(1000L, 2000L);
+        assertThat(meterRegistry.get("rider.locations.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void failedWriteIsCounted() throws InterruptedException {
+        config.setFlushIntervalMs(60000);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("mongo down"));
+        buffer = started();
+        buffer.offer(location("rider-1", 1000L, 1.0), 1);
+        buffer.offer(location("rider-2", 1000L, 1.0), 1);
+
+        buffer.stop();
+        buffer = null;
+
+        assertThat(meterRegistry.counter("rider.locations.failed").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("rider.locations.written").count()).isZero();
+    }
+
+    @Test
+    void nothingPendingMeansNoWrite() throws InterruptedException {
+        config.setFlushIntervalMs(60000);
+        buffer = started();
+
+        buffer.stop();
+        buffer = null;
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(RiderLocation.class));
+    }
+
+    private RiderLocationBuffer started() {
+        RiderLocationBuffer started = new RiderLocationBuffer(mongoTemplate, config, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static RiderLocation location(String riderId, long recordedAt, double longitude) {
+        RiderLocation location = new RiderLocation();
+        location.setRiderId(riderId);
+        location.setOfficeId("office-1");
+        location.setLocation(new GeoJsonPoint(longitude, 5.0));
+        location.setRecordedAt(recordedAt);
+        return location;
+    }
+}
@@ -0,0 +1,173 @@
+package shortly.mandmcorp.dev.shortly.service.tracking.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import shortly.mandmcorp.dev.shortly.config.RiderLocationConfig;
+import shortly.mandmcorp.dev.shortly.dto.request.GpsPing;
+import shortly.mandmcorp.dev.shortly.dto.request.LocationPingRequest;
+import shortly.mandmcorp.dev.shortly.dto.response.NearestRiderResponse;
+import shortly.mandmcorp.dev.shortly.enums.UserRole;
+import shortly.mandmcorp.dev.shortly.exceptions.ActionNotAllowed;
+import shortly.mandmcorp.dev.shortly.model.Office;
+import shortly.mandmcorp.dev.shortly.model.RiderLocation;
+import shortly.mandmcorp.dev.shortly.model.User;
+import shortly.mandmcorp.dev.shortly.repository.OfficeRepository;
+import shortly.mandmcorp.dev.shortly.repository.UserRepository;
+
+class RiderTrackingServiceImplementationTest {
+
+    private final RiderLocationBuffer locationBuffer = mock(RiderLocationBuffer.class);
+    private final RiderLocationConfig config = new RiderLocationConfig();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OfficeRepository officeRepository = mock(OfficeRepository.class);
+    private final RiderTrackingServiceImplementation trackingService = new RiderTrackingServiceImplementation(
+        locationBuffer, config, mongoTemplate, userRepository, officeRepository);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void uploadIsCoalescedToItsLatestPing() {
+        authenticate(User.builder().userId("rider-1").name("Kofi").phoneNumber("0240000000")
+            .role(UserRole.RIDER).officeId("office-1").build());
+
+        trackingService.recordLocations(request(ping(5.60, -0.18, 2000L), ping(5.62, -0.20, 3000L), ping(5.55, -0.10, 1000L)));
+
+        ArgumentCaptor<RiderLocation> captor = ArgumentCaptor.forClass(RiderLocation.class);
+        verify(locationBuffer).offer(captor.capture(), eq(3));
+        RiderLocation location = captor.getValue();
+        assertThat(location.getRiderId()).isEqualTo("rider-1");
+        assertThat(location.getOfficeId()).isEqualTo("office-1");
+        assertThat(location.getRecordedAt()).isEqualTo(3000L);
+        assertThat(location.getLocation()).isEqualTo(new GeoJsonPoint(-0.20, 5.62));
+    }
+
+    @Test
+    void oversizedUploadIsRejected() {
+        config.setMaxPingsPerRequest(2);
+        authenticate(User.builder().userId("rider-1").name("Kofi").role(UserRole.RIDER).officeId("office-1").build());
+
+        assertThatThrownBy(() -> trackingService.recordLocations(request(ping(5.6, -0.1, 1L), ping(5.6, -0.1, 2L), ping(5.6, -0.1, 3L))))
+            .isInstanceOf(ActionNotAllowed.class);
+        verify(locationBuffer, never()).offer(any(RiderLocation.class), anyInt());
+    }
+
+    @Test
+    void nearestRidersAreLimitedToAvailableRidersOfTheOffice() {
+        config.setMaxNearestRiders(5);
+        authenticate(manager());
+        when(userRepository.findByRoleAndOfficeIdAndAvailability(UserRole.RIDER, "office-1", true))
+            .thenReturn(List.of(rider("rider-1"), rider("rider-2")));
+        RiderLocation location = new RiderLocation();
+        location.setRiderId("rider-2");
+        location.setRiderName("Ama");
+        location.setLocation(new GeoJsonPoint(-0.19, 5.61));
+        location.setUpdatedAt(4000L);
+        when(mongoTemplate.geoNear(any(NearQuery.class), eq(RiderLocation.class)))
+            .thenReturn(new GeoResults<>(List.of(new GeoResult<>(location, new Distance(1.5, Metrics.KILOMETERS)))));
+
+        List<NearestRiderResponse> nearest = trackingService.nearestRiders(5.60, -0.18, 100, null);
+
+        assertThat(nearest).singleElement().satisfies(rider -> {
+            assertThat(rider.getRiderId()).isEqualTo("rider-2");
+            assertThat(rider.getLatitude()).isEqualTo(5.61);
+            assertThat(rider.getLongitude()).isEqualTo(-0.19);
+            assertThat(rider.getDistanceKm()).isEqualTo(1.5);
+            assertThat(rider.getLastSeenAt()).isEqualTo(4000L);
+        });
+        Document near = captureNearQuery().toDocument();
+        assertThat(near.get("num", Number.class).intValue()).isEqualTo(5);
+        Document filter = near.get("query", Document.class);
+        assertThat(filter.get("riderId", Document.class).get("$in", List.class)).containsExactly("rider-1", "rider-2");
+        assertThat(filter).containsKey("updatedAt");
+    }
+
+    @Test
+    void nearestRidersDefaultToTheOfficeCoordinates() {
+        authenticate(manager());
+        Office office = new Office();
+        office.setId("office-1");
+        office.setLatitude(5.60);
+        office.setLongitude(-0.18);
+        when(officeRepository.findById("office-1")).thenReturn(Optional.of(office));
+        when(userRepository.findByRoleAndOfficeIdAndAvailability(UserRole.RIDER, "office-1", true))
+            .thenReturn(List.of(rider("rider-1")));
+        when(mongoTemplate.geoNear(any(NearQuery.class), eq(RiderLocation.class))).thenReturn(new GeoResults<>(List.of()));
+
+        assertThat(trackingService.nearestRiders(null, null, 10, 5.0)).isEmpty();
+
+        Document near = captureNearQuery().toDocument();
+        assertThat(near.get("near")).isEqualTo(new GeoJsonPoint(-0.18, 5.60));
+    }
+
+    @Test
+    void noAvailableRidersSkipsTheGeoQuery() {
+        authenticate(manager());
+        when(userRepository.findByRoleAndOfficeIdAndAvailability(UserRole.RIDER, "office-1", true)).thenReturn(List.of());
+
+        assertThat(trackingService.nearestRiders(5.60, -0.18, 10, null)).isEmpty();
+        verify(mongoTemplate, never()).geoNear(any(NearQuery.class), eq(RiderLocation.class));
+    }
+
+    private NearQuery captureNearQuery() {
+        ArgumentCaptor<NearQuery> captor = ArgumentCaptor.forClass(NearQuery.class);
+        verify(mongoTemplate).geoNear(captor.capture(), eq(RiderLocation.class));
+        return captor.getValue();
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static User manager() {
+        return User.builder().userId("manager-1").name("Manager").role(UserRole.MANAGER).officeId("office-1").build();
+    }
+
+    private static User rider(String userId) {
+        return User.builder().userId(userId).name("Rider").role(UserRole.RIDER).officeId("office-1").build();
+    }
+
+    private static LocationPingRequest request(GpsPing... pings) {
+        LocationPingRequest request = new LocationPingRequest();
+        request.setPings(new ArrayList<>(List.of(pings)));
+        return request;
+    }
+
+    private static GpsPing ping(double latitude, double longitude, long recordedAt) {
+        GpsPing ping = new GpsPing();
+        ping.setLatitude(latitude);
+        ping.setLongitude(longitude);
+        ping.setRecordedAt(recordedAt);
+        return ping;
+    }
+}
@@ -0,0 +1,36 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CsvUtilTest {
+
+    @Test
+    void splitsPlainFieldsAndKeepsEmptyOnes() {
+        assertThat(CsvUtil.parseLine("a, b,,d")).containsExactly("a", "b", "", "d");
+        assertThat(CsvUtil.parseLine("")).containsExactly("");
+        assertThat(CsvUtil.parseLine("a,")).containsExactly("a", "");
+    }
+
+    @Test
+    void quotedFieldsMayContainCommasAndDoubledQuotes() {
+        assertThat(CsvUtil.parseLine("\"Osu, Accra\",\"say \"\"hi\"\"\",x"))
+            .containsExactly("Osu, Accra", "say \"hi\"", "x");
+    }
+
+    @Test
+    void escapeQuotesOnlyWhenNeeded() {
+        assertThat(CsvUtil.escape(null)).isEmpty();
+        assertThat(CsvUtil.escape(12.5)).isEqualTo("12.5");
+        assertThat(CsvUtil.escape("Osu, Accra")).isEqualTo("\"Osu, Accra\"");
+        assertThat(CsvUtil.escape("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+    }
+
+    @Test
+    void escapedValuesParseBack() {
+        String line = String.join(",", CsvUtil.escape("Osu, Accra"), CsvUtil.escape("say \"hi\""), CsvUtil.escape("plain"));
+
+        assertThat(CsvUtil.parseLine(line)).containsExactly("Osu, Accra", "say \"hi\"", "plain");
+    }
+}
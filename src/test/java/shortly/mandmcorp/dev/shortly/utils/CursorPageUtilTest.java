@@ -0,0 +1,100 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import shortly.mandmcorp.dev.shortly.dto.response.CursorPage;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+
+class CursorPageUtilTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    void secondPageOfAFilteredListingKeepsTheFiltersAndSeeksPastTheCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Parcel.class)))
+            .thenReturn(List.of(parcel("p9", 900L), parcel("p8", 800L), parcel("p7", 700L)));
+        CursorPage<Parcel> first = page(filteredQuery(), null, 2);
+
+        assertThat(first.getContent()).extracting(Parcel::getParcelId).containsExactly("p9", "p8");
+        assertThat(first.isHasNext()).isTrue();
+
+        when(mongoTemplate.find(any(Query.class), eq(Parcel.class))).thenReturn(List.of(parcel("p7", 700L)));
+        CursorPage<Parcel> second = page(filteredQuery(), first.getNextCursor(), 2);
+
+        assertThat(second.getContent()).extracting(Parcel::getParcelId).containsExactly("p7");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        Document filter = lastQuery().getQueryObject();
+        List<?> clauses = filter.getList("$and", Object.class);
+        assertThat(clauses).hasSize(2);
+        assertThat(clauses.get(0)).isEqualTo(filteredQuery().getQueryObject());
+        assertThat(((Document) clauses.get(1)).getList("$or", Document.class)).containsExactly(
+            new Document("createdAt", new Document("$lt", 800L)),
+            new Document("createdAt", 800L).append("parcelId", new Document("$lt", "p8")),
+            new Document("createdAt", null));
+    }
+
+    @Test
+    void unfilteredQueriesSeekWithoutWrapping() {
+        when(mongoTemplate.find(any(Query.class), eq(Parcel.class)))
+            .thenReturn(List.of(parcel("p2", 200L), parcel("p1", 100L)));
+        CursorPage<Parcel> first = page(new Query(), null, 1);
+
+        page(new Query(), first.getNextCursor(), 1);
+
+        assertThat(lastQuery().getQueryObject()).containsOnlyKeys("$or");
+    }
+
+    @Test
+    void aMissingTimestampIsNotTreatedAsZero() {
+        when(mongoTemplate.find(any(Query.class), eq(Parcel.class)))
+            .thenReturn(List.of(parcel("p5", null), parcel("p4", null)));
+        CursorPage<Parcel> first = page(filteredQuery(), null, 1);
+
+        page(filteredQuery(), first.getNextCursor(), 1);
+
+        Document seek = (Document) lastQuery().getQueryObject().getList("$and", Object.class).get(1);
+        assertThat(seek).isEqualTo(new Document("createdAt", null).append("parcelId", new Document("$lt", "p5")));
+    }
+
+    private CursorPage<Parcel> page(Query query, String cursor, int size) {
+        return CursorPageUtil.find(mongoTemplate, query, Parcel.class, "createdAt", "parcelId",
+            Parcel::getCreatedAt, Parcel::getParcelId, cursor, size, false);
+    }
+
+    private Query lastQuery() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).find(captor.capture(), eq(Parcel.class));
+        return captor.getValue();
+    }
+
+    /** Same shape as the service listings: all filters under one top-level $and. */
+    private static Query filteredQuery() {
+        return new Query(new Criteria().andOperator(
+            Criteria.where("officeId").is("office-1"),
+            Criteria.where("isDelivered").is(false)));
+    }
+
+    private static Parcel parcel(String id, Long createdAt) {
+        Parcel parcel = new Parcel();
+        parcel.setParcelId(id);
+        parcel.setCreatedAt(createdAt);
+        return parcel;
+    }
+}
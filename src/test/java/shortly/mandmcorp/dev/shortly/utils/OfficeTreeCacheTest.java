@@ -0,0 +1,98 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import shortly.mandmcorp.dev.shortly.config.LookupCacheConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.LocationWithOfficesResponse;
+
+class OfficeTreeCacheTest {
+
+    private final LookupCacheConfig config = new LookupCacheConfig();
+    private final OfficeTreeCache cache = new OfficeTreeCache(config);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<String> filtersSeen = new ArrayList<>();
+
+    @Test
+    void equivalentFiltersShareOneEntryAndTheLoaderSeesTheNormalizedValue() {
+        cache.get(" Accra ", "Osu", this::load);
+        cache.get("accra", " osu", this::load);
+        cache.get("ACCRA", "OSU ", this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(filtersSeen).containsExactly("accra|osu");
+    }
+
+    @Test
+    void blankFiltersAreTreatedAsAbsent() {
+        cache.get("  ", null, this::load);
+        cache.get(null, "", this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(filtersSeen).containsExactly("null|null");
+    }
+
+    @Test
+    void invalidateClearsCachedTrees() {
+        cache.get("accra", null, this::load);
+        cache.invalidate();
+        cache.get("accra", null, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void aLoadOverlappingAnInvalidateIsNotCached() {
+        List<LocationWithOfficesResponse> stale = cache.get("accra", null, (location, office) -> {
+            loads.incrementAndGet();
+            // an office write lands while the tree is being read
+            cache.invalidate();
+            return List.of(tree("stale"));
+        });
+        List<LocationWithOfficesResponse> fresh = cache.get("accra", null, this::load);
+
+        assertThat(stale).extracting(LocationWithOfficesResponse::getName).containsExactly("stale");
+        assertThat(fresh).extracting(LocationWithOfficesResponse::getName).containsExactly("accra|null");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheConfiguredTtl() {
+        config.setOfficeTreeTtlMs(0);
+
+        cache.get("accra", null, this::load);
+        cache.get("accra", null, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void theCacheIsResetWhenItReachesMaxEntries() {
+        config.setOfficeTreeMaxEntries(2);
+
+        cache.get("a", null, this::load);
+        cache.get("b", null, this::load);
+        cache.get("c", null, this::load);
+        cache.get("c", null, this::load);
+        cache.get("a", null, this::load);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    private List<LocationWithOfficesResponse> load(String location, String office) {
+        loads.incrementAndGet();
+        filtersSeen.add(location + "|" + office);
+        return List.of(tree(location + "|" + office));
+    }
+
+    private static LocationWithOfficesResponse tree(String name) {
+        LocationWithOfficesResponse response = new LocationWithOfficesResponse();
+        response.setName(name);
+        return response;
+    }
+}
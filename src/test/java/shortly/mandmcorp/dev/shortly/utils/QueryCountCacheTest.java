@@ -0,0 +1,116 @@
+package shortly.mandmcorp.dev.shortly.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shortly.mandmcorp.dev.shortly.config.CountCacheConfig;
+import shortly.mandmcorp.dev.shortly.dto.response.CachedCountPage;
+import shortly.mandmcorp.dev.shortly.model.Parcel;
+
+class QueryCountCacheTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedCountIsServedFromTheCache() {
+        QueryCountCache cache = cache(60000, 100);
+        when(mongoTemplate.count(any(Query.class), eq(Parcel.class))).thenReturn(42L);
+
+        QueryCountCache.Count first = cache.count(officeQuery("office-1"), Parcel.class, "office-1");
+        QueryCountCache.Count second = cache.count(officeQuery("office-1"), Parcel.class, "office-1");
+
+        assertThat(first.getTotal()).isEqualTo(42);
+        assertThat(first.isCached()).isFalse();
+        assertThat(second.getTotal()).isEqualTo(42);
+        assertThat(second.isCached()).isTrue();
+        verify(mongoTemplate, times(1)).count(any(Query.class), eq(Parcel.class));
+        assertThat(meterRegistry.get("query.count.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void invalidatingAnOfficeDropsItsTotalsAndTheAllOfficeScope() {
+        QueryCountCache cache = cache(60000, 100);
+        when(mongoTemplate.count(any(Query.class), eq(Parcel.class))).thenReturn(1L);
+        cache.count(officeQuery("office-1"), Parcel.class, "office-1");
+        cache.count(officeQuery("office-2"), Parcel.class, "office-2");
+        cache.count(new Query(), Parcel.class, null);
+
+        cache.invalidate("office-1");
+
+        assertThat(cache.count(officeQuery("office-1"), Parcel.class, "office-1").isCached()).isFalse();
+        assertThat(cache.count(officeQuery("office-2"), Parcel.class, "office-2").isCached()).isTrue();
+        assertThat(cache.count(new Query(), Parcel.class, null).isCached()).isFalse();
+    }
+
+    @Test
+    void expiredTotalsAreCountedAgain() {
+        QueryCountCache cache = cache(0, 100);
+        when(mongoTemplate.count(any(Query.class), eq(Parcel.class))).thenReturn(3L, 4L);
+
+        cache.count(officeQuery("office-1"), Parcel.class, "office-1");
+        QueryCountCache.Count again = cache.count(officeQuery("office-1"), Parcel.class, "office-1");
+
+        assertThat(again.isCached()).isFalse();
+        assertThat(again.getTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void officeScopeIsBoundedByMaxEntries() {
+        QueryCountCache cache = cache(60000, 2);
+        when(mongoTemplate.count(any(Query.class), eq(Parcel.class))).thenReturn(1L);
+        for (int i = 0; i < 3; i++) {
+            cache.count(officeQuery("office-1").addCriteria(Criteria.where("shelfId").is("shelf-" + i)), Parcel.class, "office-1");
+        }
+
+        // the third distinct query cleared the full scope before being stored
+        assertThat(cache.count(officeQuery("office-1").addCriteria(Criteria.where("shelfId").is("shelf-0")), Parcel.class, "office-1")
+            .isCached()).isFalse();
+        assertThat(cache.count(officeQuery("office-1").addCriteria(Criteria.where("shelfId").is("shelf-2")), Parcel.class, "office-1")
+            .isCached()).isTrue();
+    }
+
+    @Test
+    void findCountsBeforeApplyingThePageWindow() {
+        QueryCountCache cache = cache(60000, 100);
+        when(mongoTemplate.count(any(Query.class), eq(Parcel.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            assertThat(query.getSkip()).isZero();
+            assertThat(query.getLimit()).isZero();
+            return 25L;
+        });
+        when(mongoTemplate.find(any(Query.class), eq(Parcel.class))).thenReturn(Collections.nCopies(5, new Parcel()));
+
+        Query query = officeQuery("office-1");
+        CachedCountPage<Parcel> page = cache.find(query, Parcel.class, "office-1", PageRequest.of(2, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(query.getSkip()).isEqualTo(20);
+        assertThat(query.getLimit()).isEqualTo(10);
+    }
+
+    private QueryCountCache cache(long ttlMs, int maxEntriesPerOffice) {
+        CountCacheConfig config = new CountCacheConfig();
+        config.setTtlMs(ttlMs);
+        config.setMaxEntriesPerOffice(maxEntriesPerOffice);
+        return new QueryCountCache(mongoTemplate, config, meterRegistry);
+    }
+
+    private Query officeQuery(String officeId) {
+        return Query.query(Criteria.where("officeId").is(officeId));
+    }
+}